@@ -0,0 +1,82 @@
+package ru.practicum.shareit.benchmark;
+
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.Booking.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Синтетические объекты для микробенчмарков.
+ * Данные детерминированы, чтобы результаты разных запусков были сравнимы.
+ */
+public final class BenchmarkData {
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Создает пользователей с заполненными ID.
+     *
+     * @param count число пользователей
+     * @return пользователи
+     */
+    public static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            users.add(new User(id, "User " + id, "user" + id + "@example.com"));
+        }
+        return users;
+    }
+
+    /**
+     * Создает вещи одного владельца с заполненными ID.
+     *
+     * @param owner владелец
+     * @param count число вещей
+     * @return вещи
+     */
+    public static List<Item> items(User owner, int count) {
+        List<Item> items = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            items.add(new Item(id, "Item " + id, "Description of item " + id, id % 4 != 0, owner, null));
+        }
+        return items;
+    }
+
+    /**
+     * Создает бронирования вещей, равномерно распределенные между букерами и статусами.
+     *
+     * @param items   вещи
+     * @param bookers букеры
+     * @param count   число бронирований
+     * @return бронирования
+     */
+    public static List<Booking> bookings(List<Item> items, List<User> bookers, int count) {
+        return bookings(items, bookers, count, BASE_TIME);
+    }
+
+    /**
+     * Создает бронирования вещей, начинающиеся каждый час начиная с указанного времени.
+     *
+     * @param items   вещи
+     * @param bookers букеры
+     * @param count   число бронирований
+     * @param from    начало первого бронирования
+     * @return бронирования
+     */
+    public static List<Booking> bookings(List<Item> items, List<User> bookers, int count, LocalDateTime from) {
+        BookingStatus[] statuses = BookingStatus.values();
+        List<Booking> bookings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime start = from.plusHours(i);
+            bookings.add(new Booking((long) i + 1, start, start.plusDays(1), items.get(i % items.size()),
+                    bookers.get(i % bookers.size()), statuses[i % statuses.length]));
+        }
+        return bookings;
+    }
+}
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Параллельные PATCH одной вещи на базе H2 в памяти.
+ * Половина потоков меняет название, половина описание. Прогон без повторов ({@code maxAttempts = 1})
+ * сравнивается с повторами при конфликте версий: помимо пропускной способности выводятся
+ * счетчики примененных обновлений и ответов 409.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class ItemUpdateContentionBenchmark {
+    @Param({"1", "3"})
+    private int maxAttempts;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private Long ownerId;
+    private Long itemId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("spring.jpa.show-sql=false", "logging.level.root=WARN",
+                        "logging.level.ru.practicum.shareit=WARN",
+                        "shareit.optimistic-lock.max-attempts=" + maxAttempts)
+                .run();
+        itemService = context.getBean(ItemService.class);
+        User owner = context.getBean(UserService.class)
+                .createUser(new User(null, "Contention Owner", "contention@example.com"));
+        ownerId = owner.getId();
+        itemId = itemService.createItem(ownerId, new Item(null, "Item", "Description", true, null, null)).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Item patchItem(Patcher patcher) {
+        String value = "t" + patcher.thread + "-" + patcher.sequence++;
+        Item patch = patcher.patchName
+                ? new Item(null, value, null, null, null, null)
+                : new Item(null, null, value, null, null, null);
+        try {
+            Item updated = itemService.updateItem(ownerId, itemId, patch);
+            patcher.applied++;
+            return updated;
+        } catch (ConflictException e) {
+            patcher.conflicts++;
+            return null;
+        }
+    }
+
+    /**
+     * Состояние потока: какое поле он меняет и счетчики исходов, которые JMH выводит рядом с результатом.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Patcher {
+        public long applied;
+        public long conflicts;
+        private int thread;
+        private boolean patchName;
+        private long sequence;
+
+        @Setup
+        public void setUp(ThreadParams threadParams) {
+            thread = threadParams.getThreadIndex();
+            patchName = thread % 2 == 0;
+        }
+
+        @Setup(Level.Iteration)
+        public void resetCounters() {
+            applied = 0;
+            conflicts = 0;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сквозные вызовы сервисов на базе H2 в памяти: транзакция, запросы Hibernate и сборка результата.
+ * Контекст приложения поднимается с профилем {@code test} без веб-сервера,
+ * база заполняется один раз на весь прогон.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+    private static final int BOOKERS = 50;
+    private static final int ITEMS = 100;
+    private static final int BOOKINGS = 2000;
+    private static final int COMMENTS = 300;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private BookingService bookingService;
+    private Long ownerId;
+    private Long bookerId;
+    private Long itemId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("spring.jpa.show-sql=false", "logging.level.root=WARN",
+                        "logging.level.ru.practicum.shareit=WARN")
+                .run();
+        itemService = context.getBean(ItemService.class);
+        bookingService = context.getBean(BookingService.class);
+        seed();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Booking> getOwnerBookings(BookingState booking) {
+        return bookingService.getOwnerBookings(ownerId, booking.state);
+    }
+
+    @Benchmark
+    public List<Booking> getUserBookings(BookingState booking) {
+        return bookingService.getUserBookings(bookerId, booking.state);
+    }
+
+    @Benchmark
+    public List<Item> getUserItems() {
+        return itemService.getUserItems(ownerId);
+    }
+
+    @Benchmark
+    public ItemDto getItemWithBookingsAndComments() {
+        return itemService.getItemWithBookingsAndComments(itemId, ownerId);
+    }
+
+    @Benchmark
+    public List<Item> searchItems() {
+        return itemService.searchItems("item 1");
+    }
+
+    private void seed() {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+        BookingRepository bookingRepository = context.getBean(BookingRepository.class);
+        CommentRepository commentRepository = context.getBean(CommentRepository.class);
+
+        List<User> users = BenchmarkData.users(BOOKERS + 1);
+        users.forEach(user -> user.setId(null));
+        users = userRepository.saveAll(users);
+        User owner = users.get(0);
+        List<User> bookers = users.subList(1, users.size());
+
+        List<Item> items = BenchmarkData.items(owner, ITEMS);
+        items.forEach(item -> item.setId(null));
+        items = itemRepository.saveAll(items);
+
+        // Половина бронирований в прошлом, половина в будущем
+        List<Booking> bookings = BenchmarkData.bookings(items, bookers, BOOKINGS,
+                LocalDateTime.now().minusHours(BOOKINGS / 2));
+        long changeVersion = reserveChangeVersions(bookings.size());
+        for (Booking booking : bookings) {
+            booking.setId(null);
+            booking.setChangeVersion(++changeVersion);
+        }
+        bookingRepository.saveAll(bookings);
+
+        List<Comment> comments = new ArrayList<>(COMMENTS);
+        for (int i = 0; i < COMMENTS; i++) {
+            comments.add(new Comment(null, "Comment " + i, items.get(i % items.size()),
+                    bookers.get(i % bookers.size()), LocalDateTime.now().minusDays(1)));
+        }
+        commentRepository.saveAll(comments);
+
+        ownerId = owner.getId();
+        bookerId = bookers.get(0).getId();
+        itemId = items.get(0).getId();
+    }
+
+    /**
+     * Резервирует в счетчике версий изменения бронирований диапазон для создаваемых бронирований.
+     *
+     * @param count число версий
+     * @return версия, после которой начинается зарезервированный диапазон
+     */
+    private long reserveChangeVersions(int count) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("update booking_change_counter set last_version = last_version + ? where id = 1", count);
+        Long last = jdbcTemplate.queryForObject("select last_version from booking_change_counter where id = 1",
+                Long.class);
+        return last - count;
+    }
+
+    /**
+     * Состояние бронирований для выборок: параметр отдельно, чтобы не размножать остальные бенчмарки.
+     */
+    @State(Scope.Benchmark)
+    public static class BookingState {
+        @Param({"ALL", "PAST", "WAITING"})
+        private String state;
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.item.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Валидация полей вещи {@link ItemServiceImpl#validateItemFields(Item)} при создании.
+ * Зависимости сервиса в проверке не участвуют, поэтому он создается без них.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemValidationBenchmark {
+    private ItemServiceImpl itemService;
+    private Item item;
+
+    @Setup
+    public void setUp() {
+        itemService = new ItemServiceImpl(null, null, null, null, null, null, null, null, null);
+        item = new Item(1L, "Дрель", "Простая дрель", true, new User(1L, "Owner", "owner@example.com"), null);
+    }
+
+    @Benchmark
+    public Item validateItemFields() {
+        itemService.validateItemFields(item);
+        return item;
+    }
+}
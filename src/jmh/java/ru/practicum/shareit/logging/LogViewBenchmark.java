@@ -0,0 +1,124 @@
+package ru.practicum.shareit.logging;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.helpers.MessageFormatter;
+import ru.practicum.shareit.benchmark.BenchmarkData;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость сообщений лога сервиса бронирований за один запрос на создание бронирования:
+ * два сообщения INFO с бронированием и два DEBUG с букером и вещью.
+ * Сравнивается прежний вывод сущностей целиком (toString Lombok с обходом вещи, владельца, запроса
+ * и автора запроса) и {@link LogView}. Форматирование выполняется так же, как в логгере при включенном уровне.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogViewBenchmark {
+    private Booking booking;
+    private User booker;
+    private Item item;
+
+    @Setup
+    public void setUp() {
+        List<User> users = BenchmarkData.users(3);
+        User owner = users.get(0);
+        booker = users.get(1);
+        ItemRequest request = new ItemRequest(1L, "Нужна дрель на выходные", users.get(2),
+                LocalDateTime.of(2025, 1, 1, 10, 0));
+        item = BenchmarkData.items(owner, 1).get(0);
+        item.setRequest(request);
+        booking = BenchmarkData.bookings(List.of(item), List.of(booker), 1).get(0);
+    }
+
+    /**
+     * Уровень DEBUG включен, сущности выводятся целиком.
+     */
+    @Benchmark
+    public void entitiesDebugEnabled(Blackhole blackhole) {
+        blackhole.consume(format("Создание бронирования пользователем с ID {}: {}", booker.getId(), full(booking)));
+        blackhole.consume(format("Найден пользователь-арендатор: {}", full(booker)));
+        blackhole.consume(format("Найдена вещь для бронирования: {}", full(item)));
+        blackhole.consume(format("Бронирование успешно создано: {}", full(booking)));
+    }
+
+    /**
+     * Уровень DEBUG включен, выводятся краткие описания.
+     */
+    @Benchmark
+    public void viewsDebugEnabled(Blackhole blackhole) {
+        blackhole.consume(format("Создание бронирования пользователем с ID {}: {}", booker.getId(),
+                LogView.of(booking)));
+        blackhole.consume(format("Найден пользователь-арендатор: {}", LogView.of(booker)));
+        blackhole.consume(format("Найдена вещь для бронирования: {}", LogView.of(item)));
+        blackhole.consume(format("Бронирование успешно создано: {}", LogView.of(booking)));
+    }
+
+    /**
+     * Рабочая конфигурация с уровнем INFO, сущности выводятся целиком.
+     */
+    @Benchmark
+    public void entitiesInfo(Blackhole blackhole) {
+        blackhole.consume(format("Создание бронирования пользователем с ID {}: {}", booker.getId(), full(booking)));
+        blackhole.consume(format("Бронирование успешно создано: {}", full(booking)));
+    }
+
+    /**
+     * Рабочая конфигурация с уровнем INFO, выводятся краткие описания.
+     */
+    @Benchmark
+    public void viewsInfo(Blackhole blackhole) {
+        blackhole.consume(format("Создание бронирования пользователем с ID {}: {}", booker.getId(),
+                LogView.of(booking)));
+        blackhole.consume(format("Бронирование успешно создано: {}", LogView.of(booking)));
+    }
+
+    private static String format(String pattern, Object... arguments) {
+        return MessageFormatter.arrayFormat(pattern, arguments).getMessage();
+    }
+
+    /**
+     * Повторяет вывод toString Lombok до исключения связей из него.
+     */
+    private static String full(Booking booking) {
+        return "Booking(id=" + booking.getId() + ", start=" + booking.getStart() + ", end=" + booking.getEnd()
+                + ", item=" + full(booking.getItem()) + ", booker=" + full(booking.getBooker())
+                + ", status=" + booking.getStatus() + ", changeVersion=" + booking.getChangeVersion()
+                + ", version=" + booking.getVersion() + ")";
+    }
+
+    private static String full(Item item) {
+        ItemRequest request = item.getRequest();
+        return "Item(id=" + item.getId() + ", name=" + item.getName() + ", description=" + item.getDescription()
+                + ", available=" + item.getAvailable() + ", owner=" + full(item.getOwner())
+                + ", request=" + (request == null ? null : "ItemRequest(id=" + request.getId()
+                + ", description=" + request.getDescription() + ", requestor=" + full(request.getRequestor())
+                + ", created=" + request.getCreated() + ")")
+                + ", version=" + item.getVersion() + ")";
+    }
+
+    private static String full(User user) {
+        return "User(id=" + user.getId() + ", name=" + user.getName() + ", email=" + user.getEmail()
+                + ", version=" + user.getVersion() + ")";
+    }
+}
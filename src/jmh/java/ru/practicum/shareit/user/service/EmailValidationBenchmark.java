@@ -0,0 +1,37 @@
+package ru.practicum.shareit.user.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверка формата email регулярным выражением {@link UserServiceImpl#EMAIL_PATTERN}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailValidationBenchmark {
+    private String validEmail = "ivan.petrov.1990@mail.example.com";
+    private String invalidEmail = "ivan.petrov.1990@mail.example.comcomcom";
+
+    @Benchmark
+    public boolean validEmail() {
+        return UserServiceImpl.EMAIL_PATTERN.matcher(validEmail).matches();
+    }
+
+    @Benchmark
+    public boolean invalidEmail() {
+        return UserServiceImpl.EMAIL_PATTERN.matcher(invalidEmail).matches();
+    }
+}
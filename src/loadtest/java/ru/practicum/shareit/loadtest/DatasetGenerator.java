@@ -0,0 +1,155 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Заполнение базы данных синтетическим набором данных напрямую через JDBC.
+ * Используется та же схема {@code schema.sql}, что и у приложения. Через API нельзя создать
+ * прошедшие бронирования, а заполнение пакетами на порядки быстрее HTTP-запросов.
+ * Распределения перекошены по закону Ципфа: вещи сосредоточены у немногих владельцев,
+ * бронирования и комментарии - у немногих популярных вещей.
+ * Версии оптимистичной блокировки задаются явно: схема, созданная Hibernate, не содержит значений по умолчанию.
+ * Email пользователей содержат метку прогона, поэтому повторные прогоны на той же базе не конфликтуют.
+ */
+@Slf4j
+final class DatasetGenerator {
+    static final List<String> WORDS = List.of("дрель", "перфоратор", "лестница", "палатка", "велосипед",
+            "шуруповерт", "пила", "самокат", "проектор", "коляска", "байдарка", "генератор", "сноуборд",
+            "мангал", "рюкзак", "штатив");
+
+    private static final int BATCH_SIZE = 1000;
+    private static final double SKEW = 1.1;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Random random;
+
+    DatasetGenerator(DataSource dataSource, Random random) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.random = random;
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+    }
+
+    Dataset generate(LoadTestSettings settings) {
+        String runTag = Long.toString(System.currentTimeMillis(), 36);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Object[]> users = new ArrayList<>(settings.users());
+        for (int i = 0; i < settings.users(); i++) {
+            users.add(new Object[]{"Load user " + i, "load-" + runTag + "-" + i + "@example.com"});
+        }
+        insert("insert into users (name, email, version) values (?, ?, 0)", users);
+        List<Long> userIds = jdbcTemplate.queryForList(
+                "select id from users where email like ? order by id", Long.class, "load-" + runTag + "-%");
+
+        // Владельцами вещей становится пятая часть пользователей
+        List<Long> owners = userIds.subList(0, Math.max(1, userIds.size() / 5));
+        ZipfSampler ownerSampler = new ZipfSampler(owners.size(), SKEW);
+        List<Object[]> items = new ArrayList<>(settings.items());
+        for (int i = 0; i < settings.items(); i++) {
+            String word = WORDS.get(i % WORDS.size());
+            items.add(new Object[]{word + " " + i, "Load item " + i + ": " + word, random.nextInt(10) != 0,
+                    owners.get(ownerSampler.sample(random))});
+        }
+        insert("insert into items (name, description, is_available, owner_id, version) values (?, ?, ?, ?, 0)", items);
+        Map<Long, Long> ownerByItem = new HashMap<>();
+        List<Long> availableItems = new ArrayList<>();
+        jdbcTemplate.query("select i.id, i.owner_id, i.is_available from items i join users u on u.id = i.owner_id " +
+                "where u.email like ? order by i.id", row -> {
+                    ownerByItem.put(row.getLong(1), row.getLong(2));
+                    if (row.getBoolean(3)) {
+                        availableItems.add(row.getLong(1));
+                    }
+                }, "load-" + runTag + "-%");
+        List<Long> itemIds = new ArrayList<>(ownerByItem.keySet());
+        itemIds.sort(null);
+
+        ZipfSampler itemSampler = new ZipfSampler(itemIds.size(), SKEW);
+        long changeVersion = reserveChangeVersions(settings.bookings());
+        List<Object[]> bookings = new ArrayList<>(settings.bookings());
+        for (int i = 0; i < settings.bookings(); i++) {
+            Long itemId = itemIds.get(itemSampler.sample(random));
+            LocalDateTime start = now.minusDays(365).plusMinutes(random.nextInt(455 * 24 * 60));
+            LocalDateTime end = start.plusHours(1 + random.nextInt(72));
+            bookings.add(new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(end), itemId,
+                    otherUser(userIds, ownerByItem.get(itemId)), status(start, end, now), ++changeVersion});
+        }
+        insert("insert into bookings (start_date, end_date, item_id, booker_id, status, change_version, version) " +
+                "values (?, ?, ?, ?, ?, ?, 0)", bookings);
+
+        List<Object[]> comments = new ArrayList<>(settings.comments());
+        for (int i = 0; i < settings.comments(); i++) {
+            Long itemId = itemIds.get(itemSampler.sample(random));
+            comments.add(new Object[]{"Load comment " + i, itemId, otherUser(userIds, ownerByItem.get(itemId)),
+                    Timestamp.valueOf(now.minusMinutes(random.nextInt(365 * 24 * 60)))});
+        }
+        insert("insert into comments (text, item_id, author_id, created) values (?, ?, ?, ?)", comments);
+
+        log.info("Набор данных {}: пользователей {}, вещей {}, бронирований {}, комментариев {}",
+                runTag, userIds.size(), itemIds.size(), bookings.size(), comments.size());
+        return new Dataset(userIds, owners, ownerByItem, availableItems);
+    }
+
+    /**
+     * Резервирует в счетчике версий изменения бронирований диапазон для создаваемых бронирований.
+     *
+     * @param count число версий
+     * @return версия, после которой начинается зарезервированный диапазон
+     */
+    private long reserveChangeVersions(int count) {
+        jdbcTemplate.update("update booking_change_counter set last_version = last_version + ? where id = 1", count);
+        Long last = jdbcTemplate.queryForObject("select last_version from booking_change_counter where id = 1",
+                Long.class);
+        return last - count;
+    }
+
+    private void insert(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + BATCH_SIZE)));
+        }
+    }
+
+    private Long otherUser(List<Long> userIds, Long excluded) {
+        Long userId;
+        do {
+            userId = userIds.get(random.nextInt(userIds.size()));
+        } while (userId.equals(excluded));
+        return userId;
+    }
+
+    /**
+     * Прошедшие бронирования в основном подтверждены, будущие чаще ждут решения владельца.
+     */
+    private String status(LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+        int roll = random.nextInt(100);
+        if (end.isBefore(now)) {
+            return roll < 80 ? "APPROVED" : roll < 92 ? "REJECTED" : "CANCELED";
+        }
+        if (start.isAfter(now)) {
+            return roll < 50 ? "WAITING" : roll < 90 ? "APPROVED" : "REJECTED";
+        }
+        return roll < 90 ? "APPROVED" : "WAITING";
+    }
+
+    /**
+     * Идентификаторы созданных данных, по которым нагрузка выбирает пользователей и вещи.
+     *
+     * @param userIds        все пользователи
+     * @param ownerIds       владельцы вещей
+     * @param ownerByItem    владелец каждой вещи
+     * @param availableItems вещи, доступные для бронирования
+     */
+    record Dataset(List<Long> userIds, List<Long> ownerIds, Map<Long, Long> ownerByItem, List<Long> availableItems) {
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import ru.practicum.shareit.ShareItApp;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Воспроизводимый нагрузочный прогон: заполняет базу синтетическим набором данных и подает смешанную
+ * нагрузку с заданной частотой, после чего печатает перцентили задержки по эндпоинтам.
+ * Одинаковые параметры и {@code --seed} дают одинаковый набор данных и одинаковую последовательность запросов.
+ * Запуск: {@code mvn -P loadtest verify -DskipTests -Dloadtest.args="--rps=300 --duration=120s"}.
+ * Сравнение виртуальных и платформенных потоков: два прогона с {@code --virtual-threads=true} и {@code false}.
+ */
+@Slf4j
+public final class LoadTest {
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        LoadTestSettings settings = LoadTestSettings.parse(args);
+        Random random = new Random(settings.seed());
+        ConfigurableApplicationContext context = null;
+        String baseUrl = settings.baseUrl();
+        DataSource dataSource;
+        if (settings.embedded()) {
+            List<String> appArgs = new ArrayList<>(List.of("--server.port=0", "--management.server.port=0",
+                    "--spring.jpa.show-sql=false", "--logging.level.org.zalando.logbook=WARN",
+                    "--logging.level.ru.practicum.shareit=WARN", "--logging.level.ru.practicum.shareit.loadtest=INFO",
+                    // Все запросы идут с одного адреса от небольшого числа популярных пользователей,
+                    // корзины ограничения частоты отклоняли бы большую часть нагрузки
+                    "--shareit.rate-limit.enabled=false"));
+            if (settings.virtualThreads() != null) {
+                appArgs.add("--spring.threads.virtual.enabled=" + settings.virtualThreads());
+            }
+            context = new SpringApplicationBuilder(ShareItApp.class)
+                    .profiles("test")
+                    .run(appArgs.toArray(String[]::new));
+            dataSource = context.getBean(DataSource.class);
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        } else {
+            dataSource = new DriverManagerDataSource(settings.jdbcUrl(), settings.dbUser(), settings.dbPassword());
+        }
+        try {
+            DatasetGenerator.Dataset dataset = new DatasetGenerator(dataSource, random).generate(settings);
+            log.info("Нагрузка на {}: {} запросов/с, прогрев {}, измерение {}, виртуальные потоки: {}",
+                    baseUrl, settings.rps(), settings.warmup(), settings.duration(),
+                    context != null ? context.getEnvironment().getProperty("spring.threads.virtual.enabled") : "-");
+            new WorkloadDriver(baseUrl, dataset, random).run(settings.rps(), settings.warmup(), settings.duration());
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Параметры нагрузочного прогона, задаются аргументами вида {@code --name=value}.
+ * Без {@code --base-url} приложение поднимается в том же процессе с профилем {@code test} (H2 в памяти).
+ *
+ * @param baseUrl        адрес проверяемого приложения или null для встроенного запуска
+ * @param jdbcUrl        адрес базы данных приложения для заполнения набора данных
+ * @param dbUser         пользователь базы данных
+ * @param dbPassword     пароль базы данных
+ * @param users          число пользователей
+ * @param items          число вещей
+ * @param bookings       число бронирований
+ * @param comments       число комментариев
+ * @param rps            целевое число запросов в секунду
+ * @param warmup         длительность прогрева, запросы которого не попадают в отчет
+ * @param duration       длительность измерения
+ * @param seed           начальное значение генератора случайных чисел
+ * @param virtualThreads обработка запросов встроенным приложением в виртуальных потоках;
+ *                       null - как задано в конфигурации приложения
+ */
+record LoadTestSettings(String baseUrl, String jdbcUrl, String dbUser, String dbPassword,
+                        int users, int items, int bookings, int comments,
+                        int rps, Duration warmup, Duration duration, long seed, Boolean virtualThreads) {
+    private static final Set<String> NAMES = Set.of("base-url", "jdbc-url", "db-user", "db-password",
+            "users", "items", "bookings", "comments", "rps", "warmup", "duration", "seed",
+            "virtual-threads");
+
+    static LoadTestSettings parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Ожидался аргумент вида --name=value: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            String name = arg.substring(2, separator);
+            if (!NAMES.contains(name)) {
+                throw new IllegalArgumentException("Неизвестный параметр: " + name);
+            }
+            values.put(name, arg.substring(separator + 1));
+        }
+        LoadTestSettings settings = new LoadTestSettings(
+                values.get("base-url"),
+                values.get("jdbc-url"),
+                values.getOrDefault("db-user", "postgres"),
+                values.getOrDefault("db-password", "postgres"),
+                Integer.parseInt(values.getOrDefault("users", "1000")),
+                Integer.parseInt(values.getOrDefault("items", "5000")),
+                Integer.parseInt(values.getOrDefault("bookings", "50000")),
+                Integer.parseInt(values.getOrDefault("comments", "10000")),
+                Integer.parseInt(values.getOrDefault("rps", "200")),
+                Duration.parse("PT" + values.getOrDefault("warmup", "10s")),
+                Duration.parse("PT" + values.getOrDefault("duration", "60s")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                values.containsKey("virtual-threads") ? Boolean.valueOf(values.get("virtual-threads")) : null);
+        if ((settings.baseUrl == null) != (settings.jdbcUrl == null)) {
+            throw new IllegalArgumentException("--base-url и --jdbc-url задаются вместе");
+        }
+        if (settings.baseUrl != null && settings.virtualThreads != null) {
+            throw new IllegalArgumentException("--virtual-threads задается только для встроенного запуска");
+        }
+        if (settings.users < 2 || settings.items < 1 || settings.rps < 1) {
+            throw new IllegalArgumentException("Нужно не меньше 2 пользователей, 1 вещи и 1 запроса в секунду");
+        }
+        return settings;
+    }
+
+    boolean embedded() {
+        return baseUrl == null;
+    }
+}
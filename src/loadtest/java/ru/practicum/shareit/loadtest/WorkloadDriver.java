@@ -0,0 +1,250 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Смешанная нагрузка на реальные эндпоинты по открытой модели.
+ * Запросы отправляются по расписанию с заданной частотой независимо от того, ответил ли сервер на предыдущие,
+ * как и при поступлении запросов от множества независимых клиентов. Задержка считается от запланированного
+ * момента отправки, поэтому очередь на стороне клиента при перегрузке сервера попадает в задержку,
+ * а не скрывает ее (coordinated omission).
+ * Доли операций: поиск 25%, вещи владельца 20%, бронирования букера 20%, бронирования владельца 15%,
+ * создание бронирования 10%, подтверждение 10%.
+ * Каждый незавершенный запрос занимает свое HTTP-соединение, в отчете печатается их наибольшее число.
+ */
+@Slf4j
+final class WorkloadDriver {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final String[] STATES = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"};
+    private static final int MAX_IN_FLIGHT = 10_000;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final DatasetGenerator.Dataset dataset;
+    private final Random random;
+    private final ZipfSampler searchSampler = new ZipfSampler(DatasetGenerator.WORDS.size(), 1.0);
+    private final ZipfSampler ownerSampler;
+    private final ZipfSampler itemSampler;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final Queue<long[]> waitingBookings = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean recording;
+
+    WorkloadDriver(String baseUrl, DatasetGenerator.Dataset dataset, Random random) {
+        this.baseUrl = baseUrl;
+        this.dataset = dataset;
+        this.random = random;
+        this.ownerSampler = new ZipfSampler(dataset.ownerIds().size(), 1.1);
+        this.itemSampler = new ZipfSampler(dataset.availableItems().size(), 1.1);
+    }
+
+    /**
+     * Отправляет запросы с частотой {@code rps} в течение прогрева и измерения и печатает отчет.
+     */
+    void run(int rps, Duration warmup, Duration duration) throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rps;
+        long startedAt = System.nanoTime();
+        long measureFrom = startedAt + warmup.toNanos();
+        long finishAt = measureFrom + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long scheduledAt = startedAt + i * intervalNanos;
+                if (scheduledAt >= finishAt) {
+                    break;
+                }
+                long delay = scheduledAt - System.nanoTime();
+                if (delay > 0) {
+                    LockSupport.parkNanos(delay);
+                }
+                recording = scheduledAt >= measureFrom;
+                if (inFlight.get() >= MAX_IN_FLIGHT) {
+                    dropped.incrementAndGet();
+                    continue;
+                }
+                Operation operation = nextOperation();
+                boolean measured = recording;
+                peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                executor.submit(() -> execute(operation, scheduledAt, measured));
+            }
+            recording = false;
+        }
+        report(duration);
+    }
+
+    private Operation nextOperation() {
+        int roll = random.nextInt(100);
+        if (roll < 25) {
+            String text = DatasetGenerator.WORDS.get(searchSampler.sample(random));
+            return new Operation("GET /items/search", null,
+                    get("/items/search?text=" + URLEncoder.encode(text, StandardCharsets.UTF_8), null));
+        }
+        if (roll < 45) {
+            return new Operation("GET /items", null, get("/items", randomOwner()));
+        }
+        if (roll < 65) {
+            String state = STATES[random.nextInt(STATES.length)];
+            return new Operation("GET /bookings?state=" + state, null,
+                    get("/bookings?state=" + state, randomUser()));
+        }
+        if (roll < 80) {
+            String state = STATES[random.nextInt(STATES.length)];
+            return new Operation("GET /bookings/owner?state=" + state, null,
+                    get("/bookings/owner?state=" + state, randomOwner()));
+        }
+        if (roll < 90) {
+            long[] waiting = waitingBookings.poll();
+            if (waiting != null) {
+                return new Operation("PATCH /bookings/{id}", null, HttpRequest.newBuilder()
+                        .uri(URI.create(baseUrl + "/bookings/" + waiting[0] + "?approved=" + random.nextBoolean()))
+                        .header(USER_ID_HEADER, Long.toString(waiting[1]))
+                        .timeout(REQUEST_TIMEOUT)
+                        .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                        .build());
+            }
+        }
+        return createBooking();
+    }
+
+    private Operation createBooking() {
+        Long itemId = dataset.availableItems().get(itemSampler.sample(random));
+        Long ownerId = dataset.ownerByItem().get(itemId);
+        Long bookerId;
+        do {
+            bookerId = randomUser();
+        } while (bookerId.equals(ownerId));
+        LocalDateTime start = LocalDateTime.now().plusDays(1 + random.nextInt(60)).withNano(0);
+        String body = String.format(Locale.ROOT, "{\"itemId\":%d,\"start\":\"%s\",\"end\":\"%s\"}",
+                itemId, start, start.plusHours(1 + random.nextInt(72)));
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + "/bookings"))
+                .header(USER_ID_HEADER, Long.toString(bookerId))
+                .header("Content-Type", "application/json")
+                .timeout(REQUEST_TIMEOUT)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return new Operation("POST /bookings", ownerId, request);
+    }
+
+    private HttpRequest get(String path, Long userId) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .GET();
+        if (userId != null) {
+            builder.header(USER_ID_HEADER, Long.toString(userId));
+        }
+        return builder.build();
+    }
+
+    private Long randomUser() {
+        return dataset.userIds().get(random.nextInt(dataset.userIds().size()));
+    }
+
+    private Long randomOwner() {
+        return dataset.ownerIds().get(ownerSampler.sample(random));
+    }
+
+    private void execute(Operation operation, long scheduledAt, boolean measured) {
+        boolean success = false;
+        try {
+            HttpResponse<String> response = client.send(operation.request(), HttpResponse.BodyHandlers.ofString());
+            success = response.statusCode() < 400;
+            if (success && operation.approverId() != null) {
+                JsonNode booking = objectMapper.readTree(response.body());
+                waitingBookings.add(new long[]{booking.get("id").asLong(), operation.approverId()});
+            }
+        } catch (IOException e) {
+            log.debug("Ошибка запроса {}: {}", operation.name(), e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+            if (measured) {
+                long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduledAt);
+                endpoints.computeIfAbsent(operation.name(), name -> new Endpoint()).record(latencyMicros, success);
+            }
+        }
+    }
+
+    private void report(Duration duration) {
+        List<String> names = new ArrayList<>(endpoints.keySet());
+        names.sort(null);
+        StringBuilder report = new StringBuilder(String.format(Locale.ROOT,
+                "%n%-34s %8s %7s %9s %9s %9s %9s %9s%n",
+                "Эндпоинт", "запросов", "ошибок", "p50, мс", "p90, мс", "p99, мс", "p99.9, мс", "max, мс"));
+        long total = 0;
+        long errors = 0;
+        Histogram overall = new Histogram(3);
+        for (String name : names) {
+            Endpoint endpoint = endpoints.get(name);
+            Histogram histogram = endpoint.latencies.getIntervalHistogram();
+            total += histogram.getTotalCount();
+            errors += endpoint.errors.get();
+            overall.add(histogram);
+            report.append(String.format(Locale.ROOT, "%-34s %8d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    name, histogram.getTotalCount(), endpoint.errors.get(),
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue())));
+        }
+        report.append(String.format(Locale.ROOT, "Всего %d запросов, %.1f запросов/с, успешных %.1f запросов/с, "
+                        + "p99 %.1f мс, отброшено из-за перегрузки: %d, наибольшее число одновременных соединений: %d",
+                total, total / (double) duration.toSeconds(), (total - errors) / (double) duration.toSeconds(),
+                millis(overall.getValueAtPercentile(99)), dropped.get(), peakInFlight.get()));
+        log.info("Результаты нагрузочного прогона:{}", report);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private record Operation(String name, Long approverId, HttpRequest request) {
+    }
+
+    private static final class Endpoint {
+        private final Recorder latencies = new Recorder(3);
+        private final AtomicLong errors = new AtomicLong();
+
+        void record(long latencyMicros, boolean success) {
+            latencies.recordValue(latencyMicros);
+            if (!success) {
+                errors.incrementAndGet();
+            }
+        }
+    }
+}
@@ -10,9 +10,11 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
@@ -39,16 +41,36 @@ public class Booking {
 
     @ManyToOne
     @JoinColumn(name = "item_id", nullable = false)
+    @ToString.Exclude
     private Item item;
 
     @ManyToOne
     @JoinColumn(name = "booker_id", nullable = false)
+    @ToString.Exclude
     private User booker;
 
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false)
     private BookingStatus status;
 
+    /**
+     * Версия изменения: растет при создании бронирования и при смене его статуса.
+     * Назначается при фиксации транзакции, см. {@link ru.practicum.shareit.booking.repository.BookingRepositoryCustom}.
+     */
+    @Column(name = "change_version", nullable = false)
+    private long changeVersion;
+
+    /**
+     * Версия записи: увеличивается при каждом изменении, используется как ETag.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    public Booking(Long id, LocalDateTime start, LocalDateTime end, Item item, User booker, BookingStatus status) {
+        this(id, start, end, item, booker, status, 0L, 0L);
+    }
+
     /**
      * Статусы бронирования.
      */
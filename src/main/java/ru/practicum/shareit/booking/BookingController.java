@@ -1,13 +1,36 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingChangesDto;
+import ru.practicum.shareit.booking.dto.BookingExportDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.cache.PastBookingResponseCache;
+import ru.practicum.shareit.concurrent.RateBudget;
+import ru.practicum.shareit.concurrent.RequestPriority;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.web.CsvResponseWriter;
+import ru.practicum.shareit.web.LatencyBudget;
+import ru.practicum.shareit.web.NdjsonResponseWriter;
+import ru.practicum.shareit.web.RateLimited;
+import ru.practicum.shareit.web.SheddingPriority;
+import ru.practicum.shareit.web.StreamingResponseWriter;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -18,6 +41,8 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class BookingController {
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
+    private final PastBookingResponseCache pastBookingResponseCache;
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
     /**
@@ -27,6 +52,8 @@ public class BookingController {
      * @param bookingDto данные бронирования
      * @return созданное бронирование
      */
+    @SheddingPriority(RequestPriority.HIGH)
+    @RateLimited(RateBudget.WRITE)
     @PostMapping
     public BookingResponseDto createBooking(@RequestHeader(USER_ID_HEADER) Long userId,
                                            @RequestBody BookingDto bookingDto) {
@@ -42,6 +69,8 @@ public class BookingController {
      * @param approved  флаг подтверждения (true - подтвердить, false - отклонить)
      * @return обновленное бронирование
      */
+    @SheddingPriority(RequestPriority.HIGH)
+    @RateLimited(RateBudget.WRITE)
     @PatchMapping("/{bookingId}")
     public BookingResponseDto approveBooking(@RequestHeader(USER_ID_HEADER) Long userId,
                                             @PathVariable Long bookingId,
@@ -49,17 +78,72 @@ public class BookingController {
         return BookingMapper.toBookingResponseDto(bookingService.approveBooking(userId, bookingId, approved));
     }
 
+    /**
+     * Получает бронирования пользователя (как букера и как владельца вещей),
+     * созданные или сменившие статус после предыдущей синхронизации.
+     * Клиент передает {@code nextToken} из прошлого ответа и обновляет у себя бронирования по ID.
+     *
+     * @param userId ID пользователя
+     * @param since  токен прошлой синхронизации (0 - получить все)
+     * @param size   максимальное число бронирований в ответе
+     * @return изменившиеся бронирования и токен для следующего запроса
+     */
+    @SheddingPriority(RequestPriority.LOW)
+    @RateLimited(RateBudget.LIST)
+    @GetMapping("/changes")
+    public BookingChangesDto getBookingChanges(@RequestHeader(USER_ID_HEADER) Long userId,
+                                               @RequestParam(defaultValue = "0") Long since,
+                                               @RequestParam(defaultValue = "100") Integer size) {
+        List<Booking> changes = bookingService.getBookingChanges(userId, since, size);
+        long nextToken = changes.isEmpty() ? since : changes.get(changes.size() - 1).getChangeVersion();
+        return new BookingChangesDto(
+                changes.stream()
+                        .map(BookingMapper::toBookingResponseDto)
+                        .collect(Collectors.toList()),
+                nextToken,
+                changes.size() == size);
+    }
+
     /**
      * Получает данные о бронировании по его ID.
+     * Завершившиеся подтвержденные или отклоненные бронирования больше не меняются:
+     * их ответ отдается из {@link PastBookingResponseCache} с долгим {@code Cache-Control}.
+     * Для остальных отвечает 304, если версия из {@code If-None-Match} совпадает с текущей.
+     * Отдельный запрос метки версии выполняется только для условных запросов,
+     * иначе ETag вычисляется по загруженному бронированию.
      *
      * @param userId    ID пользователя, запрашивающего данные
      * @param bookingId ID бронирования
+     * @param request   текущий запрос
      * @return данные бронирования
      */
     @GetMapping("/{bookingId}")
-    public BookingResponseDto getBookingById(@RequestHeader(USER_ID_HEADER) Long userId,
-                                            @PathVariable Long bookingId) {
-        return BookingMapper.toBookingResponseDto(bookingService.getBookingById(userId, bookingId));
+    public ResponseEntity<?> getBookingById(@RequestHeader(USER_ID_HEADER) Long userId,
+                                            @PathVariable Long bookingId,
+                                            WebRequest request) throws IOException {
+        Optional<byte[]> cached = pastBookingResponseCache.find(bookingId, userId);
+        if (cached.isPresent()) {
+            return immutableResponse(cached.get());
+        }
+        boolean conditional = request.getHeader(HttpHeaders.IF_NONE_MATCH) != null;
+        if (conditional) {
+            Optional<String> versionTag = bookingService.getBookingVersionTag(userId, bookingId);
+            if (versionTag.isPresent() && request.checkNotModified(versionTag.get())) {
+                return null;
+            }
+        }
+        long cacheGeneration = pastBookingResponseCache.generation();
+        Booking booking = bookingService.getBookingById(userId, bookingId);
+        BookingResponseDto bookingResponseDto = BookingMapper.toBookingResponseDto(booking);
+        if (pastBookingResponseCache.isImmutable(booking, LocalDateTime.now())) {
+            byte[] json = objectMapper.writeValueAsBytes(bookingResponseDto);
+            pastBookingResponseCache.put(booking, json, cacheGeneration);
+            return immutableResponse(json);
+        }
+        if (!conditional) {
+            request.checkNotModified(BookingMapper.toVersionTag(booking));
+        }
+        return ResponseEntity.ok(bookingResponseDto);
     }
 
     /**
@@ -69,6 +153,8 @@ public class BookingController {
      * @param state  состояние бронирований (ALL, CURRENT, PAST, FUTURE, WAITING, REJECTED)
      * @return список бронирований
      */
+    @SheddingPriority(RequestPriority.LOW)
+    @RateLimited(RateBudget.LIST)
     @GetMapping
     public List<BookingResponseDto> getUserBookings(@RequestHeader(USER_ID_HEADER) Long userId,
                                                    @RequestParam(defaultValue = "ALL") String state) {
@@ -84,6 +170,8 @@ public class BookingController {
      * @param state  состояние бронирований (ALL, CURRENT, PAST, FUTURE, WAITING, REJECTED)
      * @return список бронирований
      */
+    @SheddingPriority(RequestPriority.LOW)
+    @RateLimited(RateBudget.LIST)
     @GetMapping("/owner")
     public List<BookingResponseDto> getOwnerBookings(@RequestHeader(USER_ID_HEADER) Long userId,
                                                     @RequestParam(defaultValue = "ALL") String state) {
@@ -91,4 +179,95 @@ public class BookingController {
                 .map(BookingMapper::toBookingResponseDto)
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Получает число бронирований для вещей пользователя в каждом состоянии одним запросом,
+     * вместо отдельной выборки списка на каждое состояние.
+     *
+     * @param userId ID пользователя, владельца вещей
+     * @return число бронирований в состояниях ALL, CURRENT, PAST, FUTURE, WAITING, REJECTED
+     */
+    @SheddingPriority(RequestPriority.LOW)
+    @RateLimited(RateBudget.LIST)
+    @GetMapping("/owner/summary")
+    public BookingSummaryDto getOwnerBookingSummary(@RequestHeader(USER_ID_HEADER) Long userId) {
+        return BookingMapper.toBookingSummaryDto(bookingService.getOwnerBookingSummary(userId));
+    }
+
+    /**
+     * Потоково выгружает бронирования пользователя в формате NDJSON.
+     * Выбирается при заголовке {@code Accept: application/x-ndjson}.
+     *
+     * @param userId   ID пользователя
+     * @param state    состояние бронирований (ALL, CURRENT, PAST, FUTURE, WAITING, REJECTED)
+     * @param response HTTP-ответ
+     */
+    @SheddingPriority(value = RequestPriority.LOW, latencySampled = false)
+    @RateLimited(RateBudget.LIST)
+    @LatencyBudget("30s")
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamUserBookings(@RequestHeader(USER_ID_HEADER) Long userId,
+                                   @RequestParam(defaultValue = "ALL") String state,
+                                   HttpServletResponse response) throws IOException {
+        NdjsonResponseWriter writer = new NdjsonResponseWriter(objectMapper, response);
+        bookingService.forEachUserBooking(userId, state,
+                booking -> writer.write(BookingMapper.toBookingResponseDto(booking)));
+        writer.finish();
+    }
+
+    /**
+     * Потоково выгружает бронирования для вещей пользователя в формате NDJSON.
+     * Выбирается при заголовке {@code Accept: application/x-ndjson}.
+     *
+     * @param userId   ID пользователя, владельца вещей
+     * @param state    состояние бронирований (ALL, CURRENT, PAST, FUTURE, WAITING, REJECTED)
+     * @param response HTTP-ответ
+     */
+    @SheddingPriority(value = RequestPriority.LOW, latencySampled = false)
+    @RateLimited(RateBudget.LIST)
+    @LatencyBudget("30s")
+    @GetMapping(path = "/owner", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamOwnerBookings(@RequestHeader(USER_ID_HEADER) Long userId,
+                                    @RequestParam(defaultValue = "ALL") String state,
+                                    HttpServletResponse response) throws IOException {
+        NdjsonResponseWriter writer = new NdjsonResponseWriter(objectMapper, response);
+        bookingService.forEachOwnerBooking(userId, state,
+                booking -> writer.write(BookingMapper.toBookingResponseDto(booking)));
+        writer.finish();
+    }
+
+    /**
+     * Потоково выгружает бронирования для вещей пользователя в формате NDJSON или CSV.
+     * Строки пишутся в ответ по мере чтения из базы данных, поэтому объем памяти не зависит от длины истории.
+     *
+     * @param userId   ID пользователя, владельца вещей
+     * @param state    состояние бронирований (ALL, CURRENT, PAST, FUTURE, WAITING, REJECTED)
+     * @param format   формат выгрузки (ndjson, csv)
+     * @param response HTTP-ответ
+     */
+    @SheddingPriority(value = RequestPriority.LOW, latencySampled = false)
+    @RateLimited(RateBudget.LIST)
+    @LatencyBudget("30s")
+    @GetMapping("/owner/export")
+    public void exportOwnerBookings(@RequestHeader(USER_ID_HEADER) Long userId,
+                                    @RequestParam(defaultValue = "ALL") String state,
+                                    @RequestParam(defaultValue = "ndjson") String format,
+                                    HttpServletResponse response) throws IOException {
+        StreamingResponseWriter writer = switch (format.toLowerCase()) {
+            case "ndjson" -> new NdjsonResponseWriter(objectMapper, response);
+            case "csv" -> new CsvResponseWriter(response, BookingExportDto.class, "bookings.csv");
+            default -> throw new ValidationException("Неизвестный формат выгрузки: " + format);
+        };
+        bookingService.forEachOwnerBooking(userId, state,
+                booking -> writer.write(BookingMapper.toBookingExportDto(booking)));
+        writer.finish();
+    }
+
+    private ResponseEntity<byte[]> immutableResponse(byte[] json) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(pastBookingResponseCache.getMaxAge()).cachePrivate())
+                .varyBy(USER_ID_HEADER)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(json);
+    }
 }
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking;
+
+/**
+ * Число бронирований вещей владельца в каждом состоянии, выбираемое одним агрегирующим запросом.
+ * Состояния пересекаются так же, как фильтры списка бронирований: ожидающее подтверждения
+ * будущее бронирование учитывается и в {@code future}, и в {@code waiting}.
+ *
+ * @param all      все бронирования
+ * @param current  текущие бронирования
+ * @param past     завершившиеся бронирования
+ * @param future   будущие бронирования
+ * @param waiting  бронирования, ожидающие подтверждения
+ * @param rejected отклоненные бронирования
+ */
+public record BookingStateCounts(long all, long current, long past, long future, long waiting, long rejected) {
+}
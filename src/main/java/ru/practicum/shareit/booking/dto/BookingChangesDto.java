@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO для возврата изменений бронирований с момента прошлой синхронизации.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingChangesDto {
+    /** Созданные или изменившие статус бронирования в порядке возрастания версии */
+    private List<BookingResponseDto> bookings;
+    /** Значение since для следующего запроса */
+    private Long nextToken;
+    /** Есть ли еще изменения, не поместившиеся в ответ */
+    private Boolean hasMore;
+}
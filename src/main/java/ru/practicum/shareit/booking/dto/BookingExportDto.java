@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.Booking.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Плоское представление бронирования для выгрузки в NDJSON и CSV.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonPropertyOrder({"id", "start", "end", "status", "itemId", "itemName", "bookerId", "bookerName", "bookerEmail"})
+public class BookingExportDto {
+    private Long id;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private BookingStatus status;
+    private Long itemId;
+    private String itemName;
+    private Long bookerId;
+    private String bookerName;
+    private String bookerEmail;
+}
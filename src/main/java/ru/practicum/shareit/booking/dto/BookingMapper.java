@@ -1,6 +1,7 @@
 package ru.practicum.shareit.booking.dto;
 
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStateCounts;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.dto.UserMapper;
@@ -45,6 +46,54 @@ public class BookingMapper {
         );
     }
 
+    /**
+     * Преобразует Booking в плоскую строку выгрузки.
+     *
+     * @param booking объект бронирования
+     * @return строка выгрузки бронирования
+     */
+    public static BookingExportDto toBookingExportDto(Booking booking) {
+        return new BookingExportDto(
+                booking.getId(),
+                booking.getStart(),
+                booking.getEnd(),
+                booking.getStatus(),
+                booking.getItem().getId(),
+                booking.getItem().getName(),
+                booking.getBooker().getId(),
+                booking.getBooker().getName(),
+                booking.getBooker().getEmail()
+        );
+    }
+
+    /**
+     * Преобразует число бронирований по состояниям в BookingSummaryDto.
+     *
+     * @param counts число бронирований по состояниям
+     * @return DTO числа бронирований
+     */
+    public static BookingSummaryDto toBookingSummaryDto(BookingStateCounts counts) {
+        return new BookingSummaryDto(
+                counts.all(),
+                counts.current(),
+                counts.past(),
+                counts.future(),
+                counts.waiting(),
+                counts.rejected()
+        );
+    }
+
+    /**
+     * Вычисляет метку версии бронирования, включающую версии вещи и букера.
+     * Формат совпадает с {@code BookingRepository.findVersionTag}.
+     *
+     * @param booking объект бронирования
+     * @return метка версии
+     */
+    public static String toVersionTag(Booking booking) {
+        return booking.getVersion() + "-" + booking.getItem().getVersion() + "-" + booking.getBooker().getVersion();
+    }
+
     /**
      * Создает упрощенное представление бронирования для включения в другие DTO.
      *
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO для возврата числа бронирований вещей владельца по состояниям.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingSummaryDto {
+    /** Все бронирования */
+    private Long all;
+    /** Текущие бронирования */
+    private Long current;
+    /** Завершившиеся бронирования */
+    private Long past;
+    /** Будущие бронирования */
+    private Long future;
+    /** Бронирования, ожидающие подтверждения */
+    private Long waiting;
+    /** Отклоненные бронирования */
+    private Long rejected;
+}
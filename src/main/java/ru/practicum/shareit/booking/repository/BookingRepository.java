@@ -1,22 +1,35 @@
 package ru.practicum.shareit.booking.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.Booking.BookingStatus;
+import ru.practicum.shareit.booking.BookingStateCounts;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Репозиторий для работы с бронированиями.
  */
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+    /**
+     * Число строк, получаемых из базы данных за одно обращение при потоковом чтении.
+     */
+    String STREAM_FETCH_SIZE = "100";
+
     /**
      * Поиск бронирований по пользователю-букеру.
      *
@@ -24,6 +37,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
      * @param sort   параметры сортировки
      * @return список бронирований пользователя
      */
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
     List<Booking> findByBooker(User booker, Sort sort);
 
     /**
@@ -34,6 +48,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
      * @param sort   параметры сортировки
      * @return список текущих бронирований пользователя
      */
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
     List<Booking> findByBookerAndStartBeforeAndEndAfter(User booker, LocalDateTime now, LocalDateTime now1, Sort sort);
 
     /**
@@ -44,6 +59,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
      * @param sort   параметры сортировки
      * @return список прошедших бронирований пользователя
      */
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
     List<Booking> findByBookerAndEndBefore(User booker, LocalDateTime now, Sort sort);
 
     /**
@@ -54,6 +70,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
      * @param sort   параметры сортировки
      * @return список будущих бронирований пользователя
      */
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
     List<Booking> findByBookerAndStartAfter(User booker, LocalDateTime now, Sort sort);
 
     /**
@@ -64,6 +81,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
      * @param sort   параметры сортировки
      * @return список бронирований пользователя с указанным статусом
      */
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
     List<Booking> findByBookerAndStatus(User booker, BookingStatus status, Sort sort);
 
     /**
@@ -73,6 +91,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
      * @param sort  параметры сортировки
      * @return список бронирований вещей владельца
      */
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
     @Query("select b from Booking b where b.item.owner = ?1")
     List<Booking> findByItemOwner(User owner, Sort sort);
 
@@ -84,6 +103,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
      * @param sort  параметры сортировки
      * @return список текущих бронирований вещей владельца
      */
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
     @Query("select b from Booking b where b.item.owner = ?1 and b.start < ?2 and b.end > ?2")
     List<Booking> findCurrentByItemOwner(User owner, LocalDateTime now, Sort sort);
 
@@ -95,6 +115,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
      * @param sort  параметры сортировки
      * @return список прошедших бронирований вещей владельца
      */
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
     @Query("select b from Booking b where b.item.owner = ?1 and b.end < ?2")
     List<Booking> findPastByItemOwner(User owner, LocalDateTime now, Sort sort);
 
@@ -106,6 +127,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
      * @param sort  параметры сортировки
      * @return список будущих бронирований вещей владельца
      */
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
     @Query("select b from Booking b where b.item.owner = ?1 and b.start > ?2")
     List<Booking> findFutureByItemOwner(User owner, LocalDateTime now, Sort sort);
 
@@ -117,9 +139,30 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
      * @param sort   параметры сортировки
      * @return список бронирований вещей владельца с указанным статусом
      */
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
     @Query("select b from Booking b where b.item.owner = ?1 and b.status = ?2")
     List<Booking> findByItemOwnerAndStatus(User owner, BookingStatus status, Sort sort);
 
+    /**
+     * Подсчет бронирований вещей владельца во всех состояниях одним запросом с условной агрегацией.
+     * Условия совпадают с условиями выборок списков по состояниям.
+     *
+     * @param ownerId  идентификатор владельца вещей
+     * @param now      текущее время
+     * @param waiting  статус ожидающих подтверждения бронирований
+     * @param rejected статус отклоненных бронирований
+     * @return число бронирований в каждом состоянии
+     */
+    @Query("select new ru.practicum.shareit.booking.BookingStateCounts(count(b), " +
+            "coalesce(sum(case when b.start < ?2 and b.end > ?2 then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.end < ?2 then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.start > ?2 then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.status = ?3 then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.status = ?4 then 1 else 0 end), 0)) " +
+            "from Booking b join b.item i where i.owner.id = ?1")
+    BookingStateCounts countStatesByItemOwner(Long ownerId, LocalDateTime now, BookingStatus waiting,
+                                              BookingStatus rejected);
+
     /**
      * Поиск последнего завершенного бронирования для вещи.
      *
@@ -147,4 +190,156 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
      * @return true, если пользователь бронировал вещь и бронирование завершилось
      */
     boolean existsByItemAndBookerAndEndBeforeAndStatus(Item item, User booker, LocalDateTime now, BookingStatus status);
+
+    /**
+     * Потоковый поиск бронирований по пользователю-букеру.
+     * Методы потокового чтения должны вызываться внутри транзакции, поток необходимо закрыть.
+     *
+     * @param booker пользователь, который бронирует вещь
+     * @param sort   параметры сортировки
+     * @return поток бронирований пользователя
+     */
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<Booking> streamByBooker(User booker, Sort sort);
+
+    /**
+     * Потоковый поиск текущих бронирований пользователя-букера.
+     *
+     * @param booker пользователь, который бронирует вещь
+     * @param now    текущее время
+     * @param sort   параметры сортировки
+     * @return поток текущих бронирований пользователя
+     */
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<Booking> streamByBookerAndStartBeforeAndEndAfter(User booker, LocalDateTime now, LocalDateTime now1, Sort sort);
+
+    /**
+     * Потоковый поиск прошедших бронирований пользователя-букера.
+     *
+     * @param booker пользователь, который бронирует вещь
+     * @param now    текущее время
+     * @param sort   параметры сортировки
+     * @return поток прошедших бронирований пользователя
+     */
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<Booking> streamByBookerAndEndBefore(User booker, LocalDateTime now, Sort sort);
+
+    /**
+     * Потоковый поиск будущих бронирований пользователя-букера.
+     *
+     * @param booker пользователь, который бронирует вещь
+     * @param now    текущее время
+     * @param sort   параметры сортировки
+     * @return поток будущих бронирований пользователя
+     */
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<Booking> streamByBookerAndStartAfter(User booker, LocalDateTime now, Sort sort);
+
+    /**
+     * Потоковый поиск бронирований пользователя-букера по статусу.
+     *
+     * @param booker пользователь, который бронирует вещь
+     * @param status статус бронирования
+     * @param sort   параметры сортировки
+     * @return поток бронирований пользователя с указанным статусом
+     */
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<Booking> streamByBookerAndStatus(User booker, BookingStatus status, Sort sort);
+
+    /**
+     * Потоковый поиск бронирований по владельцу вещи.
+     *
+     * @param owner владелец вещи
+     * @param sort  параметры сортировки
+     * @return поток бронирований вещей владельца
+     */
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("select b from Booking b where b.item.owner = ?1")
+    Stream<Booking> streamByItemOwner(User owner, Sort sort);
+
+    /**
+     * Потоковый поиск текущих бронирований по владельцу вещи.
+     *
+     * @param owner владелец вещи
+     * @param now   текущее время
+     * @param sort  параметры сортировки
+     * @return поток текущих бронирований вещей владельца
+     */
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("select b from Booking b where b.item.owner = ?1 and b.start < ?2 and b.end > ?2")
+    Stream<Booking> streamCurrentByItemOwner(User owner, LocalDateTime now, Sort sort);
+
+    /**
+     * Потоковый поиск прошедших бронирований по владельцу вещи.
+     *
+     * @param owner владелец вещи
+     * @param now   текущее время
+     * @param sort  параметры сортировки
+     * @return поток прошедших бронирований вещей владельца
+     */
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("select b from Booking b where b.item.owner = ?1 and b.end < ?2")
+    Stream<Booking> streamPastByItemOwner(User owner, LocalDateTime now, Sort sort);
+
+    /**
+     * Потоковый поиск будущих бронирований по владельцу вещи.
+     *
+     * @param owner владелец вещи
+     * @param now   текущее время
+     * @param sort  параметры сортировки
+     * @return поток будущих бронирований вещей владельца
+     */
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("select b from Booking b where b.item.owner = ?1 and b.start > ?2")
+    Stream<Booking> streamFutureByItemOwner(User owner, LocalDateTime now, Sort sort);
+
+    /**
+     * Потоковый поиск бронирований по владельцу вещи и статусу.
+     *
+     * @param owner  владелец вещи
+     * @param status статус бронирования
+     * @param sort   параметры сортировки
+     * @return поток бронирований вещей владельца с указанным статусом
+     */
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("select b from Booking b where b.item.owner = ?1 and b.status = ?2")
+    Stream<Booking> streamByItemOwnerAndStatus(User owner, BookingStatus status, Sort sort);
+
+    /**
+     * Поиск бронирований, созданных или сменивших статус после указанной версии,
+     * в которых пользователь является букером или владельцем вещи.
+     *
+     * @param user  пользователь
+     * @param since версия, после которой ищутся изменения
+     * @param limit максимальное число бронирований
+     * @return бронирования в порядке возрастания версии изменения
+     */
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    @Query("select b from Booking b where b.changeVersion > ?2 and (b.booker = ?1 or b.item.owner = ?1) " +
+            "order by b.changeVersion")
+    List<Booking> findChangedSince(User user, long since, Limit limit);
+
+    /**
+     * Получение метки версии бронирования, включающей версии вещи и букера,
+     * если пользователь является букером или владельцем вещи.
+     *
+     * @param bookingId идентификатор бронирования
+     * @param userId    идентификатор пользователя
+     * @return метка версии или пустое значение, если бронирование не найдено или недоступно пользователю
+     */
+    @Query("select concat(cast(b.version as string), '-', cast(i.version as string), '-', " +
+            "cast(u.version as string)) " +
+            "from Booking b join b.item i join b.booker u " +
+            "where b.id = ?1 and (u.id = ?2 or i.owner.id = ?2)")
+    Optional<String> findVersionTag(Long bookingId, Long userId);
 }
\ No newline at end of file
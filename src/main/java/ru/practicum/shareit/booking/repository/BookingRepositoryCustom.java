@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.repository;
+
+/**
+ * Дополнительные операции репозитория бронирований, не выражаемые через Spring Data.
+ */
+public interface BookingRepositoryCustom {
+
+    /**
+     * Назначает бронированию новую версию изменения при фиксации текущей транзакции.
+     * Версии выдаются из счетчика {@code booking_change_counter} под блокировкой его строки,
+     * которая держится до конца фиксации, поэтому версии растут в порядке фиксации транзакций:
+     * клиент, получивший версию, уже не получит изменение с меньшей версией.
+     * Все бронирования, отмеченные в одной транзакции, получают различные версии.
+     *
+     * @param bookingId ID созданного бронирования или бронирования, сменившего статус
+     */
+    void markChanged(Long bookingId);
+}
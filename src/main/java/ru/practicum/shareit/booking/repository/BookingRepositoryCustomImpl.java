@@ -0,0 +1,78 @@
+package ru.practicum.shareit.booking.repository;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Реализация {@link BookingRepositoryCustom}.
+ * Версия изменения берется при фиксации, а не при изменении бронирования: иначе транзакция,
+ * получившая меньшую версию, могла бы зафиксироваться позже транзакции с большей версией,
+ * и клиент, уже синхронизировавшийся по большей версии, пропустил бы её изменение навсегда.
+ * Счетчик - одна строка таблицы, а не последовательность, чтобы блокировка строки упорядочивала
+ * выдачу версий с фиксацией транзакций. Блокировка держится только от обновления версий до фиксации.
+ */
+class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+    private static final Object PENDING_KEY = new Object();
+
+    private final EntityManager entityManager;
+
+    BookingRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void markChanged(Long bookingId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Версия изменения бронирования назначается только внутри транзакции");
+        }
+        Set<Long> pending = (Set<Long>) TransactionSynchronizationManager.getResource(PENDING_KEY);
+        if (pending == null) {
+            Set<Long> ids = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(PENDING_KEY, ids);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    stamp(ids);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_KEY);
+                }
+            });
+            pending = ids;
+        }
+        pending.add(bookingId);
+    }
+
+    /**
+     * Выдает бронированиям последовательные версии изменения.
+     * Блокировка строки счетчика, взятая первым запросом, снимается только при завершении транзакции.
+     *
+     * @param bookingIds ID бронирований
+     */
+    private void stamp(Collection<Long> bookingIds) {
+        if (bookingIds.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        entityManager.createNativeQuery("update booking_change_counter set last_version = last_version + ?1 "
+                        + "where id = 1")
+                .setParameter(1, bookingIds.size())
+                .executeUpdate();
+        int remaining = bookingIds.size();
+        for (Long bookingId : bookingIds) {
+            entityManager.createNativeQuery("update bookings set change_version = "
+                            + "(select last_version from booking_change_counter where id = 1) - ?1 where id = ?2")
+                    .setParameter(1, --remaining)
+                    .setParameter(2, bookingId)
+                    .executeUpdate();
+        }
+    }
+}
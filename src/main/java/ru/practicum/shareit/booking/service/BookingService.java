@@ -1,8 +1,12 @@
 package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStateCounts;
+import ru.practicum.shareit.monitoring.MetricRole;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Интерфейс сервиса для работы с бронированиями.
@@ -36,6 +40,16 @@ public interface BookingService {
      */
     Booking getBookingById(Long userId, Long bookingId);
 
+    /**
+     * Получает метку версии бронирования для заголовка ETag, не загружая сами объекты.
+     * Метка учитывает версии вещи и букера, данные которых входят в ответ.
+     *
+     * @param userId    ID пользователя, запрашивающего данные
+     * @param bookingId ID бронирования
+     * @return метка версии или пустое значение, если бронирование не найдено или недоступно пользователю
+     */
+    Optional<String> getBookingVersionTag(Long userId, Long bookingId);
+
     /**
      * Получает список бронирований пользователя.
      *
@@ -43,6 +57,7 @@ public interface BookingService {
      * @param state  состояние бронирований (ALL, CURRENT, PAST, FUTURE, WAITING, REJECTED)
      * @return список бронирований
      */
+    @MetricRole(MetricRole.BOOKER)
     List<Booking> getUserBookings(Long userId, String state);
 
     /**
@@ -52,5 +67,53 @@ public interface BookingService {
      * @param state  состояние бронирований (ALL, CURRENT, PAST, FUTURE, WAITING, REJECTED)
      * @return список бронирований
      */
+    @MetricRole(MetricRole.OWNER)
     List<Booking> getOwnerBookings(Long userId, String state);
+
+    /**
+     * Получает число бронирований вещей пользователя в каждом состоянии.
+     * Результат недолго кэшируется и сбрасывается при создании и подтверждении бронирований владельца.
+     *
+     * @param userId ID пользователя, владельца вещей
+     * @return число бронирований в состояниях ALL, CURRENT, PAST, FUTURE, WAITING, REJECTED
+     */
+    @MetricRole(MetricRole.OWNER)
+    BookingStateCounts getOwnerBookingSummary(Long userId);
+
+    /**
+     * Передает бронирования пользователя обработчику по одному, не собирая их в список.
+     * Обработчик вызывается внутри транзакции чтения, которая держит соединение из пула до конца обхода,
+     * поэтому одновременных вызовов не больше, чем мест в полосе
+     * {@link ru.practicum.shareit.concurrent.Lane#STREAM}.
+     *
+     * @param userId ID пользователя
+     * @param state  состояние бронирований (ALL, CURRENT, PAST, FUTURE, WAITING, REJECTED)
+     * @param action обработчик бронирования
+     */
+    @MetricRole(MetricRole.BOOKER)
+    void forEachUserBooking(Long userId, String state, Consumer<Booking> action);
+
+    /**
+     * Передает бронирования вещей пользователя обработчику по одному, не собирая их в список.
+     * Обработчик вызывается внутри транзакции чтения, которая держит соединение из пула до конца обхода,
+     * поэтому одновременных вызовов не больше, чем мест в полосе
+     * {@link ru.practicum.shareit.concurrent.Lane#STREAM}.
+     *
+     * @param userId ID пользователя, владельца вещей
+     * @param state  состояние бронирований (ALL, CURRENT, PAST, FUTURE, WAITING, REJECTED)
+     * @param action обработчик бронирования
+     */
+    @MetricRole(MetricRole.OWNER)
+    void forEachOwnerBooking(Long userId, String state, Consumer<Booking> action);
+
+    /**
+     * Получает бронирования, созданные или сменившие статус после указанной версии,
+     * в которых пользователь является букером или владельцем вещи.
+     *
+     * @param userId ID пользователя
+     * @param since  версия изменения, полученная клиентом при прошлой синхронизации (0 - с начала)
+     * @param size   максимальное число бронирований в ответе
+     * @return бронирования в порядке возрастания версии изменения
+     */
+    List<Booking> getBookingChanges(Long userId, long since, int size);
 }
\ No newline at end of file
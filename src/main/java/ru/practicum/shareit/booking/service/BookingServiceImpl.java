@@ -1,22 +1,40 @@
 package ru.practicum.shareit.booking.service;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.Booking.BookingStatus;
+import ru.practicum.shareit.booking.BookingStateCounts;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.cache.NegativeLookupCache;
+import ru.practicum.shareit.cache.OwnerBookingSummaryCache;
+import ru.practicum.shareit.concurrent.Lane;
+import ru.practicum.shareit.concurrent.WorkloadLane;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.logging.LogView;
+import ru.practicum.shareit.monitoring.BookingApproveEvent;
+import ru.practicum.shareit.monitoring.BookingCreateEvent;
+import ru.practicum.shareit.monitoring.BookingListEvent;
+import ru.practicum.shareit.monitoring.MetricRole;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static ru.practicum.shareit.cache.NegativeLookupCache.EntityType.BOOKING;
 
 /**
  * Реализация сервиса для работы с бронированиями.
@@ -29,22 +47,30 @@ public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final UserService userService;
     private final ItemService itemService;
+    private final NegativeLookupCache negativeLookupCache;
+    private final OwnerBookingSummaryCache ownerBookingSummaryCache;
+    private final EntityManager entityManager;
 
     private static final Sort SORT_BY_START_DESC = Sort.by(Sort.Direction.DESC, "start");
+    private static final int MAX_CHANGES_SIZE = 1000;
+    private static final int STREAM_CLEAR_INTERVAL = 100;
 
     @Override
     @Transactional
+    @WorkloadLane(Lane.WRITE)
     public Booking createBooking(Long userId, Booking booking) {
-        log.info("Создание бронирования пользователем с ID {}: {}", userId, booking);
+        BookingCreateEvent event = new BookingCreateEvent();
+        event.begin();
+        log.info("Создание бронирования пользователем с ID {}: {}", userId, LogView.of(booking));
 
         // Проверка существования пользователя
         User booker = userService.getUserById(userId);
-        log.debug("Найден пользователь-арендатор: {}", booker);
+        log.debug("Найден пользователь-арендатор: {}", LogView.of(booker));
 
         // Проверка существования вещи
         Long itemId = booking.getItem().getId();
         Item item = itemService.getItemById(itemId);
-        log.debug("Найдена вещь для бронирования: {}", item);
+        log.debug("Найдена вещь для бронирования: {}", LogView.of(item));
 
         // Проверка доступности вещи
         if (!item.getAvailable()) {
@@ -70,23 +96,26 @@ public class BookingServiceImpl implements BookingService {
         booking.setStatus(BookingStatus.WAITING);
 
         Booking savedBooking = bookingRepository.save(booking);
-        log.info("Бронирование успешно создано: {}", savedBooking);
+        bookingRepository.markChanged(savedBooking.getId());
+        negativeLookupCache.forget(BOOKING, savedBooking.getId());
+        ownerBookingSummaryCache.invalidate(item.getOwner().getId());
+        log.info("Бронирование успешно создано: {}", LogView.of(savedBooking));
+        event.commit(userId, itemId, savedBooking.getId());
         return savedBooking;
     }
 
     @Override
     @Transactional
+    @WorkloadLane(Lane.WRITE)
     public Booking approveBooking(Long userId, Long bookingId, Boolean approved) {
+        BookingApproveEvent event = new BookingApproveEvent();
+        event.begin();
         log.info("Подтверждение/отклонение бронирования с ID {} пользователем с ID {}, approved={}",
                 bookingId, userId, approved);
 
         // Проверка существования бронирования
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> {
-                    log.warn("Бронирование с ID {} не найдено", bookingId);
-                    return new NotFoundException("Бронирование с ID " + bookingId + " не найдено");
-                });
-        log.debug("Найдено бронирование: {}", booking);
+        Booking booking = findBooking(bookingId);
+        log.debug("Найдено бронирование: {}", LogView.of(booking));
 
         // Проверка, что пользователь является владельцем вещи
         if (!booking.getItem().getOwner().getId().equals(userId)) {
@@ -106,8 +135,11 @@ public class BookingServiceImpl implements BookingService {
         booking.setStatus(newStatus);
 
         Booking updatedBooking = bookingRepository.save(booking);
+        bookingRepository.markChanged(bookingId);
+        ownerBookingSummaryCache.invalidate(userId);
         log.info("Бронирование с ID {} успешно {} пользователем с ID {}",
                 bookingId, approved ? "подтверждено" : "отклонено", userId);
+        event.commit(userId, bookingId, approved);
         return updatedBooking;
     }
 
@@ -116,12 +148,8 @@ public class BookingServiceImpl implements BookingService {
         log.info("Получение бронирования с ID {} пользователем с ID {}", bookingId, userId);
 
         // Проверка существования бронирования
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> {
-                    log.warn("Бронирование с ID {} не найдено", bookingId);
-                    return new NotFoundException("Бронирование с ID " + bookingId + " не найдено");
-                });
-        log.debug("Найдено бронирование: {}", booking);
+        Booking booking = findBooking(bookingId);
+        log.debug("Найдено бронирование: {}", LogView.of(booking));
 
         // Проверка, что пользователь является автором бронирования или владельцем вещи
         if (!booking.getBooker().getId().equals(userId) && !booking.getItem().getOwner().getId().equals(userId)) {
@@ -134,12 +162,24 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
+    public Optional<String> getBookingVersionTag(Long userId, Long bookingId) {
+        if (negativeLookupCache.isKnownMissing(BOOKING, bookingId)) {
+            log.debug("Бронирование с ID {} отсутствует по данным кэша", bookingId);
+            return Optional.empty();
+        }
+        return bookingRepository.findVersionTag(bookingId, userId);
+    }
+
+    @Override
+    @WorkloadLane(Lane.LIST_READ)
     public List<Booking> getUserBookings(Long userId, String state) {
+        BookingListEvent event = new BookingListEvent();
+        event.begin();
         log.info("Получение списка бронирований пользователя с ID {}, состояние: {}", userId, state);
 
         // Проверка существования пользователя
         User user = userService.getUserById(userId);
-        log.debug("Найден пользователь: {}", user);
+        log.debug("Найден пользователь: {}", LogView.of(user));
 
         LocalDateTime now = LocalDateTime.now();
         List<Booking> bookings;
@@ -181,16 +221,20 @@ public class BookingServiceImpl implements BookingService {
         }
 
         log.debug("Найдено {} бронирований пользователя с ID {} в состоянии {}", bookings.size(), userId, state);
+        event.commit(userId, MetricRole.BOOKER, state, false, bookings.size());
         return bookings;
     }
 
     @Override
+    @WorkloadLane(Lane.LIST_READ)
     public List<Booking> getOwnerBookings(Long userId, String state) {
+        BookingListEvent event = new BookingListEvent();
+        event.begin();
         log.info("Получение списка бронирований для вещей владельца с ID {}, состояние: {}", userId, state);
 
         // Проверка существования пользователя
         User owner = userService.getUserById(userId);
-        log.debug("Найден владелец: {}", owner);
+        log.debug("Найден владелец: {}", LogView.of(owner));
 
         LocalDateTime now = LocalDateTime.now();
         List<Booking> bookings;
@@ -232,9 +276,178 @@ public class BookingServiceImpl implements BookingService {
         }
 
         log.debug("Найдено {} бронирований для вещей владельца с ID {} в состоянии {}", bookings.size(), userId, state);
+        event.commit(userId, MetricRole.OWNER, state, false, bookings.size());
         return bookings;
     }
 
+    @Override
+    @WorkloadLane(Lane.LIST_READ)
+    public BookingStateCounts getOwnerBookingSummary(Long userId) {
+        log.info("Получение числа бронирований по состояниям для вещей владельца с ID {}", userId);
+
+        // Проверка существования пользователя
+        User owner = userService.getUserById(userId);
+        log.debug("Найден владелец: {}", LogView.of(owner));
+
+        Optional<BookingStateCounts> cached = ownerBookingSummaryCache.find(userId);
+        if (cached.isPresent()) {
+            log.debug("Число бронирований для вещей владельца с ID {} найдено в кэше", userId);
+            return cached.get();
+        }
+
+        long generation = ownerBookingSummaryCache.generation();
+        BookingStateCounts counts = bookingRepository.countStatesByItemOwner(userId, LocalDateTime.now(),
+                BookingStatus.WAITING, BookingStatus.REJECTED);
+        ownerBookingSummaryCache.put(userId, counts, generation);
+        log.debug("Число бронирований для вещей владельца с ID {}: {}", userId, counts);
+        return counts;
+    }
+
+    @Override
+    @WorkloadLane(Lane.LIST_READ)
+    public List<Booking> getBookingChanges(Long userId, long since, int size) {
+        log.info("Получение изменений бронирований пользователя с ID {} после версии {}", userId, since);
+
+        if (since < 0) {
+            throw new ValidationException("Версия изменений не может быть отрицательной");
+        }
+        if (size < 1 || size > MAX_CHANGES_SIZE) {
+            throw new ValidationException("Размер страницы изменений должен быть от 1 до " + MAX_CHANGES_SIZE);
+        }
+
+        // Проверка существования пользователя
+        User user = userService.getUserById(userId);
+        log.debug("Найден пользователь: {}", LogView.of(user));
+
+        List<Booking> changes = bookingRepository.findChangedSince(user, since, Limit.of(size));
+        log.debug("Найдено {} изменений бронирований пользователя с ID {}", changes.size(), userId);
+        return changes;
+    }
+
+    @Override
+    @WorkloadLane(Lane.STREAM)
+    public void forEachUserBooking(Long userId, String state, Consumer<Booking> action) {
+        BookingListEvent event = new BookingListEvent();
+        event.begin();
+        log.info("Потоковое получение бронирований пользователя с ID {}, состояние: {}", userId, state);
+
+        // Проверка существования пользователя
+        User user = userService.getUserById(userId);
+        log.debug("Найден пользователь: {}", LogView.of(user));
+
+        LocalDateTime now = LocalDateTime.now();
+        try (Stream<Booking> bookings = streamUserBookings(user, state, now)) {
+            long count = consume(bookings, action);
+            log.debug("Передано {} бронирований пользователя с ID {} в состоянии {}", count, userId, state);
+            event.commit(userId, MetricRole.BOOKER, state, true, count);
+        }
+    }
+
+    @Override
+    @WorkloadLane(Lane.STREAM)
+    public void forEachOwnerBooking(Long userId, String state, Consumer<Booking> action) {
+        BookingListEvent event = new BookingListEvent();
+        event.begin();
+        log.info("Потоковое получение бронирований для вещей владельца с ID {}, состояние: {}", userId, state);
+
+        // Проверка существования пользователя
+        User owner = userService.getUserById(userId);
+        log.debug("Найден владелец: {}", LogView.of(owner));
+
+        LocalDateTime now = LocalDateTime.now();
+        try (Stream<Booking> bookings = streamOwnerBookings(owner, state, now)) {
+            long count = consume(bookings, action);
+            log.debug("Передано {} бронирований для вещей владельца с ID {} в состоянии {}", count, userId, state);
+            event.commit(userId, MetricRole.OWNER, state, true, count);
+        }
+    }
+
+    /**
+     * Открывает поток бронирований пользователя-букера в указанном состоянии.
+     *
+     * @param user  пользователь
+     * @param state состояние бронирований
+     * @param now   текущее время
+     * @return поток бронирований
+     */
+    private Stream<Booking> streamUserBookings(User user, String state, LocalDateTime now) {
+        return switch (state.toUpperCase()) {
+            case "ALL" -> bookingRepository.streamByBooker(user, SORT_BY_START_DESC);
+            case "CURRENT" -> bookingRepository.streamByBookerAndStartBeforeAndEndAfter(user, now, now, SORT_BY_START_DESC);
+            case "PAST" -> bookingRepository.streamByBookerAndEndBefore(user, now, SORT_BY_START_DESC);
+            case "FUTURE" -> bookingRepository.streamByBookerAndStartAfter(user, now, SORT_BY_START_DESC);
+            case "WAITING" -> bookingRepository.streamByBookerAndStatus(user, BookingStatus.WAITING, SORT_BY_START_DESC);
+            case "REJECTED" -> bookingRepository.streamByBookerAndStatus(user, BookingStatus.REJECTED, SORT_BY_START_DESC);
+            default -> {
+                log.warn("Указано неизвестное состояние бронирования: {}", state);
+                throw new ValidationException("Неизвестное состояние: " + state);
+            }
+        };
+    }
+
+    /**
+     * Открывает поток бронирований вещей владельца в указанном состоянии.
+     *
+     * @param owner владелец вещей
+     * @param state состояние бронирований
+     * @param now   текущее время
+     * @return поток бронирований
+     */
+    private Stream<Booking> streamOwnerBookings(User owner, String state, LocalDateTime now) {
+        return switch (state.toUpperCase()) {
+            case "ALL" -> bookingRepository.streamByItemOwner(owner, SORT_BY_START_DESC);
+            case "CURRENT" -> bookingRepository.streamCurrentByItemOwner(owner, now, SORT_BY_START_DESC);
+            case "PAST" -> bookingRepository.streamPastByItemOwner(owner, now, SORT_BY_START_DESC);
+            case "FUTURE" -> bookingRepository.streamFutureByItemOwner(owner, now, SORT_BY_START_DESC);
+            case "WAITING" -> bookingRepository.streamByItemOwnerAndStatus(owner, BookingStatus.WAITING, SORT_BY_START_DESC);
+            case "REJECTED" -> bookingRepository.streamByItemOwnerAndStatus(owner, BookingStatus.REJECTED, SORT_BY_START_DESC);
+            default -> {
+                log.warn("Указано неизвестное состояние бронирования: {}", state);
+                throw new ValidationException("Неизвестное состояние: " + state);
+            }
+        };
+    }
+
+    /**
+     * Передает бронирования обработчику, очищая контекст персистентности после каждой порции строк,
+     * чтобы потребление памяти не зависело от числа строк. Отсоединение отдельного бронирования
+     * не затрагивает загруженные вместе с ним вещи и пользователей, поэтому контекст очищается целиком.
+     *
+     * @param bookings поток бронирований
+     * @param action   обработчик бронирования
+     * @return число переданных бронирований
+     */
+    private long consume(Stream<Booking> bookings, Consumer<Booking> action) {
+        long count = 0;
+        for (Iterator<Booking> iterator = bookings.iterator(); iterator.hasNext(); count++) {
+            action.accept(iterator.next());
+            if ((count + 1) % STREAM_CLEAR_INTERVAL == 0) {
+                entityManager.clear();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Находит бронирование по ID, учитывая кэш отсутствующих идентификаторов.
+     *
+     * @param bookingId ID бронирования
+     * @return найденное бронирование
+     */
+    private Booking findBooking(Long bookingId) {
+        if (negativeLookupCache.isKnownMissing(BOOKING, bookingId)) {
+            log.debug("Бронирование с ID {} отсутствует по данным кэша", bookingId);
+            throw new NotFoundException("Бронирование с ID " + bookingId + " не найдено");
+        }
+        long generation = negativeLookupCache.generation();
+        return bookingRepository.findById(bookingId)
+                .orElseThrow(() -> {
+                    log.warn("Бронирование с ID {} не найдено", bookingId);
+                    negativeLookupCache.markMissing(BOOKING, bookingId, generation);
+                    return new NotFoundException("Бронирование с ID " + bookingId + " не найдено");
+                });
+    }
+
     /**
      * Валидирует даты бронирования.
      *
@@ -0,0 +1,198 @@
+package ru.practicum.shareit.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.datasource.ReadWriteRoutingDataSource;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static ru.practicum.shareit.cache.TransactionCallbacks.afterCommit;
+
+/**
+ * Кэш заведомо отсутствующих идентификаторов сущностей.
+ * Позволяет отвечать на повторные запросы к несуществующим ID без обращения к базе данных.
+ * Записи живут ограниченное время. При заполнении кэша вытесняется давно не использованная запись.
+ * Промахи чтения с реплики не запоминаются: строка может отсутствовать на ней только из-за отставания,
+ * и запись в кэше на время ttl скрыла бы ее от пользователя, который только что ее создал.
+ * Промах запроса, начатого до создания сущности, тоже не запоминается: перед запросом берется номер поколения,
+ * а при создании ID присваивается следующий номер.
+ */
+@Component
+@Slf4j
+public class NegativeLookupCache {
+    private final long ttlNanos;
+    private final int maxSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Key, Long> expirations;
+    private final Map<Key, Long> forgottenAt;
+    private long generation;
+    private long forgetFloor;
+
+    public NegativeLookupCache(@Value("${shareit.negative-cache.ttl:30s}") Duration ttl,
+                               @Value("${shareit.negative-cache.max-size:100000}") int maxSize) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+        this.expirations = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Long> eldest) {
+                return size() > NegativeLookupCache.this.maxSize;
+            }
+        };
+        this.forgottenAt = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Long> eldest) {
+                if (size() <= NegativeLookupCache.this.maxSize) {
+                    return false;
+                }
+                // Вытесненное создание заменяется нижней границей: отклоняются все запросы, начатые до него
+                forgetFloor = eldest.getValue();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Проверяет, известно ли, что сущность с указанным ID отсутствует.
+     *
+     * @param type тип сущности
+     * @param id   идентификатор сущности
+     * @return true, если ID недавно не был найден и с тех пор не создавался
+     */
+    public boolean isKnownMissing(EntityType type, Long id) {
+        if (id == null || ttlNanos <= 0) {
+            return false;
+        }
+        Key key = new Key(type, id);
+        lock.lock();
+        try {
+            Long expiresAt = expirations.get(key);
+            if (expiresAt == null) {
+                return false;
+            }
+            if (expiresAt - System.nanoTime() <= 0) {
+                expirations.remove(key);
+                return false;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return номер поколения, который нужно получить до поиска сущности и передать в {@link #markMissing}
+     */
+    public long generation() {
+        lock.lock();
+        try {
+            return generation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Запоминает, что сущность с указанным ID не была найдена.
+     * Если текущая транзакция читает с реплики или ID создан после начала поиска, промах не запоминается.
+     *
+     * @param type       тип сущности
+     * @param id         идентификатор сущности
+     * @param generation номер поколения, полученный до поиска сущности
+     */
+    public void markMissing(EntityType type, Long id, long generation) {
+        if (id == null || ttlNanos <= 0) {
+            return;
+        }
+        if (ReadWriteRoutingDataSource.isCurrentTransactionOnReplica()) {
+            log.debug("Отсутствие {} с ID {} прочитано с реплики и не запоминается", type, id);
+            return;
+        }
+        Key key = new Key(type, id);
+        lock.lock();
+        try {
+            if (forgottenAt(key) > generation) {
+                log.debug("{} с ID {} создан после начала поиска, промах не запоминается", type, id);
+                return;
+            }
+            put(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Запоминает, что сущность с указанным ID удалена.
+     * Внутри транзакции запись добавляется только после её фиксации.
+     *
+     * @param type тип сущности
+     * @param id   идентификатор сущности
+     */
+    public void markDeleted(EntityType type, Long id) {
+        if (id == null || ttlNanos <= 0) {
+            return;
+        }
+        Key key = new Key(type, id);
+        afterCommit(() -> {
+            lock.lock();
+            try {
+                put(key);
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Удаляет ID из кэша отсутствующих, например после создания сущности.
+     * Внутри транзакции запись удаляется только после её фиксации,
+     * чтобы параллельный запрос не вернул ID в кэш до того, как строка станет видна.
+     *
+     * @param type тип сущности
+     * @param id   идентификатор сущности
+     */
+    public void forget(EntityType type, Long id) {
+        if (id == null) {
+            return;
+        }
+        Key key = new Key(type, id);
+        evict(key);
+        afterCommit(() -> evict(key));
+    }
+
+    private void evict(Key key) {
+        lock.lock();
+        try {
+            forgottenAt.put(key, ++generation);
+            expirations.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long forgottenAt(Key key) {
+        Long forgotten = forgottenAt.get(key);
+        return forgotten != null ? forgotten : forgetFloor;
+    }
+
+    private void put(Key key) {
+        if (maxSize > 0) {
+            expirations.put(key, System.nanoTime() + ttlNanos);
+        }
+    }
+
+    /**
+     * Типы сущностей, для которых кэшируются отсутствующие ID.
+     */
+    public enum EntityType {
+        USER,
+        ITEM,
+        BOOKING
+    }
+
+    private record Key(EntityType type, long id) {
+    }
+}
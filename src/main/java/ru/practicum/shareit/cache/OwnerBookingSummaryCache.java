@@ -0,0 +1,127 @@
+package ru.practicum.shareit.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingStateCounts;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static ru.practicum.shareit.cache.TransactionCallbacks.afterCommit;
+
+/**
+ * Кэш числа бронирований по состояниям для вещей владельца.
+ * Создание и подтверждение бронирования сбрасывают запись владельца. Переходы между текущими,
+ * прошедшими и будущими бронированиями происходят со временем без записи в базу данных,
+ * поэтому записи живут недолго.
+ * Результат запроса, начатого до сброса записи того же владельца, в кэш не попадает: перед запросом
+ * берется номер поколения, а при сбросе владельцу присваивается следующий номер.
+ * Сбросы других владельцев сохранению не мешают.
+ */
+@Component
+@Slf4j
+public class OwnerBookingSummaryCache {
+    private final long ttlNanos;
+    private final int maxSize;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final Map<Long, Long> invalidatedAt = new ConcurrentHashMap<>();
+    private final AtomicLong invalidationFloor = new AtomicLong();
+
+    public OwnerBookingSummaryCache(@Value("${shareit.owner-summary-cache.ttl:5s}") Duration ttl,
+                                    @Value("${shareit.owner-summary-cache.max-size:10000}") int maxSize) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Возвращает сохраненные счетчики владельца.
+     *
+     * @param ownerId ID владельца вещей
+     * @return счетчики или пустое значение, если их нет в кэше или срок их жизни истек
+     */
+    public Optional<BookingStateCounts> find(Long ownerId) {
+        if (ownerId == null || ttlNanos <= 0) {
+            return Optional.empty();
+        }
+        Entry entry = entries.get(ownerId);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (entry.expiresAt() - System.nanoTime() <= 0) {
+            entries.remove(ownerId, entry);
+            return Optional.empty();
+        }
+        return Optional.of(entry.counts());
+    }
+
+    /**
+     * @return номер поколения, который нужно получить до запроса счетчиков и передать в {@link #put}
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Сохраняет счетчики владельца, если с начала их запроса его запись не сбрасывалась.
+     *
+     * @param ownerId    ID владельца вещей
+     * @param counts     счетчики бронирований
+     * @param generation номер поколения, полученный до запроса счетчиков
+     */
+    public void put(Long ownerId, BookingStateCounts counts, long generation) {
+        if (ownerId == null || ttlNanos <= 0) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            long now = System.nanoTime();
+            entries.values().removeIf(entry -> entry.expiresAt() - now <= 0);
+            if (entries.size() >= maxSize) {
+                log.debug("Кэш счетчиков бронирований заполнен, владелец с ID {} не добавлен", ownerId);
+                return;
+            }
+        }
+        Entry entry = new Entry(counts, System.nanoTime() + ttlNanos);
+        entries.put(ownerId, entry);
+        if (invalidatedAt(ownerId) > generation) {
+            entries.remove(ownerId, entry);
+        }
+    }
+
+    /**
+     * Сбрасывает счетчики владельца после изменения его бронирований.
+     * Внутри транзакции запись сбрасывается еще раз после её фиксации,
+     * чтобы параллельный запрос не сохранил счетчики, посчитанные до того, как изменение стало видно.
+     *
+     * @param ownerId ID владельца вещей
+     */
+    public void invalidate(Long ownerId) {
+        if (ownerId == null) {
+            return;
+        }
+        evict(ownerId);
+        afterCommit(() -> evict(ownerId));
+    }
+
+    private void evict(Long ownerId) {
+        if (invalidatedAt.size() >= maxSize) {
+            // Забытые сбросы заменяются нижней границей: отклоняются все запросы, начатые до очистки
+            invalidationFloor.set(generation.get());
+            invalidatedAt.clear();
+        }
+        invalidatedAt.put(ownerId, generation.incrementAndGet());
+        entries.remove(ownerId);
+    }
+
+    private long invalidatedAt(Long ownerId) {
+        Long invalidated = invalidatedAt.get(ownerId);
+        return invalidated != null ? invalidated : invalidationFloor.get();
+    }
+
+    private record Entry(BookingStateCounts counts, long expiresAt) {
+    }
+}
@@ -0,0 +1,171 @@
+package ru.practicum.shareit.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.Booking.BookingStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+import static ru.practicum.shareit.cache.TransactionCallbacks.afterCommit;
+
+/**
+ * Кэш сериализованных ответов для завершившихся бронирований.
+ * Бронирование, которое закончилось и было подтверждено или отклонено, больше не меняется,
+ * поэтому готовый JSON можно отдавать без обращения к базе данных и без сериализации.
+ * Вместе с ответом хранятся ID букера и владельца для проверки доступа.
+ * Меняться могут только вложенные данные вещи и букера, поэтому при их изменении записи вытесняются.
+ * Размер кэша ограничен суммарным объемом хранимых ответов, вытесняются давно не запрашиваемые записи.
+ * Ответ, загруженный до вытеснения, в кэш не попадает: перед загрузкой берется номер поколения,
+ * который увеличивается при каждом вытеснении.
+ */
+@Component
+public class PastBookingResponseCache {
+    private final long maxBytes;
+    private final Duration maxAge;
+    private final Map<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Lock lock = new ReentrantLock();
+    private long usedBytes;
+    private long generation;
+
+    public PastBookingResponseCache(@Value("${shareit.past-booking-cache.max-size:16MB}") DataSize maxSize,
+                                    @Value("${shareit.past-booking-cache.max-age:1d}") Duration maxAge) {
+        this.maxBytes = maxSize.toBytes();
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Проверяет, что бронирование больше не может измениться и его ответ можно кэшировать.
+     *
+     * @param booking бронирование
+     * @param now     текущее время
+     * @return true, если бронирование завершилось и подтверждено или отклонено
+     */
+    public boolean isImmutable(Booking booking, LocalDateTime now) {
+        return booking.getEnd().isBefore(now)
+                && (booking.getStatus() == BookingStatus.APPROVED || booking.getStatus() == BookingStatus.REJECTED);
+    }
+
+    /**
+     * Возвращает сохраненный ответ, если пользователь является букером или владельцем вещи.
+     *
+     * @param bookingId ID бронирования
+     * @param userId    ID пользователя, запрашивающего бронирование
+     * @return JSON бронирования или пустое значение, если его нет в кэше или пользователю он недоступен
+     */
+    public Optional<byte[]> find(Long bookingId, Long userId) {
+        Entry entry;
+        lock.lock();
+        try {
+            entry = entries.get(bookingId);
+        } finally {
+            lock.unlock();
+        }
+        if (entry == null || !(entry.bookerId() == userId || entry.ownerId() == userId)) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.json());
+    }
+
+    /**
+     * @return номер поколения, который нужно получить до загрузки бронирования и передать в {@link #put}
+     */
+    public long generation() {
+        lock.lock();
+        try {
+            return generation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Сохраняет сериализованный ответ для бронирования, если с начала его загрузки записи не вытеснялись.
+     * Ответы больше всего кэша не сохраняются.
+     *
+     * @param booking    бронирование
+     * @param json       JSON бронирования
+     * @param generation номер поколения, полученный до загрузки бронирования
+     */
+    public void put(Booking booking, byte[] json, long generation) {
+        if (json.length > maxBytes) {
+            return;
+        }
+        Entry entry = new Entry(json, booking.getBooker().getId(), booking.getItem().getOwner().getId(),
+                booking.getItem().getId());
+        lock.lock();
+        try {
+            if (this.generation != generation) {
+                return;
+            }
+            Entry previous = entries.put(booking.getId(), entry);
+            usedBytes += json.length - (previous == null ? 0 : previous.json().length);
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (usedBytes > maxBytes && iterator.hasNext()) {
+                usedBytes -= iterator.next().json().length;
+                iterator.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Вытесняет ответы, в которые входят данные пользователя как букера или владельца.
+     * Внутри транзакции записи вытесняются еще раз после ее фиксации,
+     * чтобы параллельный запрос не вернул в кэш старые данные.
+     *
+     * @param userId ID пользователя
+     */
+    public void evictUser(Long userId) {
+        evict(entry -> entry.bookerId() == userId || entry.ownerId() == userId);
+    }
+
+    /**
+     * Вытесняет ответы, в которые входят данные вещи.
+     *
+     * @param itemId ID вещи
+     */
+    public void evictItem(Long itemId) {
+        evict(entry -> entry.itemId() == itemId);
+    }
+
+    /**
+     * @return время, в течение которого клиент может не перезапрашивать завершившееся бронирование
+     */
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    private void evict(Predicate<Entry> predicate) {
+        Runnable eviction = () -> {
+            lock.lock();
+            try {
+                generation++;
+                entries.values().removeIf(entry -> {
+                    if (predicate.test(entry)) {
+                        usedBytes -= entry.json().length;
+                        return true;
+                    }
+                    return false;
+                });
+            } finally {
+                lock.unlock();
+            }
+        };
+        eviction.run();
+        afterCommit(eviction);
+    }
+
+    private record Entry(byte[] json, long bookerId, long ownerId, long itemId) {
+    }
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.concurrent;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Адаптивный лимит числа одновременно выполняющихся запросов по схеме AIMD.
+ * Если запрос успешно выполнился быстрее порога задержки, а лимит был загружен хотя бы наполовину,
+ * лимит растет на {@code 1 / limit}, то есть примерно на единицу за каждые {@code limit} запросов.
+ * Быстрые ошибки (ответы 4xx и 5xx) лимит не увеличивают: отказ проверки или отклонение запроса
+ * ничего не говорят о запасе мощности.
+ * Если запрос выполнился дольше порога, лимит умножается на коэффициент снижения.
+ * Лимит остается в границах от минимального до максимального.
+ * Запрос сверх лимита (с учетом доли приоритета, см. {@link RequestPriority}) не ждет, а сразу отклоняется.
+ */
+public class AimdConcurrencyLimiter {
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    public AimdConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold,
+                                  double backoffRatio) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Лимиты должны удовлетворять 1 <= min <= initial <= max: "
+                    + minLimit + ", " + initialLimit + ", " + maxLimit);
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Коэффициент снижения лимита должен быть от 0 до 1: " + backoffRatio);
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+    }
+
+    /**
+     * Занимает место для запроса, если текущая загрузка меньше доли лимита для его приоритета.
+     * Занятое место освобождается через {@link #release(long, boolean)} или {@link #releaseWithoutSample()}.
+     *
+     * @param priority приоритет запроса
+     * @return true, если запрос допущен
+     */
+    public boolean tryAcquire(RequestPriority priority) {
+        int allowed = Math.max(1, (int) (limit * priority.share()));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Освобождает место и учитывает длительность запроса при пересчете лимита.
+     *
+     * @param latencyNanos длительность запроса в наносекундах
+     * @param successful   true, если запрос завершился успешно (ответ 2xx или 3xx)
+     */
+    public void release(long latencyNanos, boolean successful) {
+        int current = inFlight.getAndDecrement();
+        synchronized (this) {
+            if (latencyNanos > latencyThresholdNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (successful && current * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+        }
+    }
+
+    /**
+     * Освобождает место без пересчета лимита, например для потоковой выгрузки,
+     * длительность которой определяется объемом данных, а не загрузкой сервиса.
+     */
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * @return текущий лимит, округленный вниз
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * @return число выполняющихся запросов
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.concurrent;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Замена менеджера транзакций автоконфигурации JPA на {@link DeadlineTransactionManager}.
+ * Свойства {@code spring.transaction.*} применяются к нему так же, как к стандартному.
+ */
+@Configuration
+public class DeadlineTransactionConfig {
+
+    @Bean
+    public PlatformTransactionManager transactionManager(
+            ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+        DeadlineTransactionManager transactionManager = new DeadlineTransactionManager();
+        transactionManagerCustomizers.ifAvailable(customizers -> customizers.customize(transactionManager));
+        return transactionManager;
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.concurrent;
+
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.Duration;
+
+/**
+ * Менеджер транзакций JPA, ограничивающий таймаут транзакции временем, оставшимся до крайнего срока
+ * HTTP-запроса (см. {@link RequestDeadline}). Таймаут транзакции Spring передает в подсказку
+ * {@code jakarta.persistence.query.timeout} запросов репозиториев, а по его истечении следующий запрос
+ * завершается {@link org.springframework.transaction.TransactionTimedOutException}.
+ * Явный таймаут {@code @Transactional(timeout = ...)} сохраняется, если он меньше оставшегося времени.
+ */
+public class DeadlineTransactionManager extends JpaTransactionManager {
+
+    @Override
+    protected int determineTimeout(TransactionDefinition definition) {
+        int timeout = super.determineTimeout(definition);
+        Duration remaining = RequestDeadline.remaining();
+        if (remaining == null) {
+            return timeout;
+        }
+        int deadlineTimeout = RequestDeadline.toTimeoutSeconds(remaining);
+        return timeout == TransactionDefinition.TIMEOUT_DEFAULT ? deadlineTimeout : Math.min(timeout, deadlineTimeout);
+    }
+}
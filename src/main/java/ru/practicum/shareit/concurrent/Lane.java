@@ -0,0 +1,37 @@
+package ru.practicum.shareit.concurrent;
+
+/**
+ * Класс нагрузки метода сервиса, определяющий полосу ограничения параллелизма (см. {@link LaneBulkheadAspect}).
+ */
+public enum Lane {
+    /**
+     * Чтение одной сущности по ID.
+     */
+    POINT_READ("point-read"),
+    /**
+     * Выборки списков и поиск.
+     */
+    LIST_READ("list-read"),
+    /**
+     * Потоковая выгрузка: соединение и транзакция удерживаются, пока ответ передается клиенту,
+     * поэтому число одновременных выгрузок ограничено долей пула, выделенной этой полосе.
+     */
+    STREAM("stream"),
+    /**
+     * Создание, изменение и удаление.
+     */
+    WRITE("write");
+
+    private final String key;
+
+    Lane(String key) {
+        this.key = key;
+    }
+
+    /**
+     * @return имя полосы в свойствах {@code shareit.lanes} и в теге метрик
+     */
+    public String key() {
+        return key;
+    }
+}
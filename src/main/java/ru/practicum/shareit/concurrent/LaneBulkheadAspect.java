@@ -0,0 +1,171 @@
+package ru.practicum.shareit.concurrent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограничение числа одновременных вызовов сервисов по классам нагрузки (см. {@link Lane}).
+ * Все полосы делят один пул соединений Hikari, но каждая занимает не больше своего лимита,
+ * поэтому всплеск медленных выборок списков не забирает соединения у чтения по ID и записи.
+ * Вызов, не получивший разрешение за время ожидания полосы, отклоняется с {@link ServiceUnavailableException}.
+ * Лимит и время ожидания задаются свойствами {@code shareit.lanes.<полоса>.max-concurrent}
+ * и {@code shareit.lanes.<полоса>.queue-timeout}.
+ * Сумма лимитов полос не может превышать {@code spring.datasource.hikari.maximum-pool-size}:
+ * иначе полосы не защищают друг друга от ожидания соединения, и приложение не запускается.
+ * Чтение по ID может выполнять выборки параллельно (см. {@link ParallelReads}), поэтому его лимит
+ * учитывается с множителем {@link ParallelReads#connectionsPerCall()}.
+ * Потоковая выгрузка удерживает соединение, пока ответ передается клиенту, поэтому число одновременных
+ * выгрузок ограничено долей пула, заданной лимитом полосы {@code stream}.
+ * Вложенные вызовы других сервисов выполняются в полосе внешнего вызова.
+ * Аспект выполняется до открытия транзакции, то есть ожидание разрешения не удерживает соединение.
+ * <p>
+ * Метрики с тегом {@value #LANE_TAG}: {@value #ACTIVE_METRIC}, {@value #QUEUED_METRIC}, {@value #LIMIT_METRIC},
+ * время ожидания {@value #WAIT_METRIC} и число отказов {@value #REJECTED_METRIC}.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@Slf4j
+public class LaneBulkheadAspect {
+    public static final String ACTIVE_METRIC = "shareit.lane.active";
+    public static final String QUEUED_METRIC = "shareit.lane.queued";
+    public static final String LIMIT_METRIC = "shareit.lane.limit";
+    public static final String WAIT_METRIC = "shareit.lane.wait";
+    public static final String REJECTED_METRIC = "shareit.lane.rejected";
+    public static final String LANE_TAG = "lane";
+
+    private static final ThreadLocal<Lane> CURRENT = new ThreadLocal<>();
+
+    private final Map<Lane, Bulkhead> bulkheads = new EnumMap<>(Lane.class);
+
+    public LaneBulkheadAspect(MeterRegistry registry,
+                              @Value("${shareit.lanes.point-read.max-concurrent:4}") int pointReadLimit,
+                              @Value("${shareit.lanes.point-read.queue-timeout:100ms}") Duration pointReadTimeout,
+                              @Value("${shareit.lanes.list-read.max-concurrent:2}") int listReadLimit,
+                              @Value("${shareit.lanes.list-read.queue-timeout:500ms}") Duration listReadTimeout,
+                              @Value("${shareit.lanes.write.max-concurrent:2}") int writeLimit,
+                              @Value("${shareit.lanes.write.queue-timeout:1s}") Duration writeTimeout,
+                              @Value("${shareit.lanes.stream.max-concurrent:2}") int streamLimit,
+                              @Value("${shareit.lanes.stream.queue-timeout:5s}") Duration streamTimeout,
+                              @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                              ParallelReads parallelReads) {
+        int totalLimit = pointReadLimit * parallelReads.connectionsPerCall() + listReadLimit + writeLimit
+                + streamLimit;
+        if (totalLimit > poolSize) {
+            throw new IllegalStateException("Сумма лимитов полос " + totalLimit
+                    + " превышает размер пула соединений " + poolSize);
+        }
+        bulkheads.put(Lane.POINT_READ, new Bulkhead(Lane.POINT_READ, pointReadLimit, pointReadTimeout, registry));
+        bulkheads.put(Lane.LIST_READ, new Bulkhead(Lane.LIST_READ, listReadLimit, listReadTimeout, registry));
+        bulkheads.put(Lane.WRITE, new Bulkhead(Lane.WRITE, writeLimit, writeTimeout, registry));
+        bulkheads.put(Lane.STREAM, new Bulkhead(Lane.STREAM, streamLimit, streamTimeout, registry));
+    }
+
+    @Around("execution(public * ru.practicum.shareit.user.service.UserService+.*(..))"
+            + " || execution(public * ru.practicum.shareit.item.service.ItemService+.*(..))"
+            + " || execution(public * ru.practicum.shareit.booking.service.BookingService+.*(..))")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (CURRENT.get() != null) {
+            return joinPoint.proceed();
+        }
+        Lane lane = lane(joinPoint);
+        Bulkhead bulkhead = bulkheads.get(lane);
+        bulkhead.acquire();
+        CURRENT.set(lane);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            CURRENT.remove();
+            bulkhead.release();
+        }
+    }
+
+    private static Lane lane(ProceedingJoinPoint joinPoint) {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        Class<?> targetClass = ClassUtils.getUserClass(joinPoint.getTarget());
+        Method method = AopUtils.getMostSpecificMethod(signature.getMethod(), targetClass);
+        WorkloadLane workloadLane = AnnotationUtils.findAnnotation(method, WorkloadLane.class);
+        return workloadLane == null ? Lane.POINT_READ : workloadLane.value();
+    }
+
+    private static final class Bulkhead {
+        private final Lane lane;
+        private final Semaphore permits;
+        private final Duration queueTimeout;
+        private final Timer wait;
+        private final Counter rejected;
+
+        Bulkhead(Lane lane, int limit, Duration queueTimeout, MeterRegistry registry) {
+            if (limit < 1) {
+                throw new IllegalArgumentException("Лимит полосы " + lane.key() + " должен быть положительным: "
+                        + limit);
+            }
+            this.lane = lane;
+            this.permits = new Semaphore(limit, true);
+            this.queueTimeout = queueTimeout;
+            this.wait = Timer.builder(WAIT_METRIC)
+                    .description("Время ожидания разрешения полосы")
+                    .tag(LANE_TAG, lane.key())
+                    .register(registry);
+            this.rejected = Counter.builder(REJECTED_METRIC)
+                    .description("Вызовы, отклоненные из-за заполнения полосы")
+                    .tag(LANE_TAG, lane.key())
+                    .register(registry);
+            Gauge.builder(ACTIVE_METRIC, permits, semaphore -> limit - semaphore.availablePermits())
+                    .description("Выполняющиеся вызовы полосы")
+                    .tag(LANE_TAG, lane.key())
+                    .register(registry);
+            Gauge.builder(QUEUED_METRIC, permits, Semaphore::getQueueLength)
+                    .description("Вызовы, ожидающие разрешения полосы")
+                    .tag(LANE_TAG, lane.key())
+                    .register(registry);
+            Gauge.builder(LIMIT_METRIC, () -> limit)
+                    .description("Лимит одновременных вызовов полосы")
+                    .tag(LANE_TAG, lane.key())
+                    .register(registry);
+        }
+
+        void acquire() {
+            long startedAt = System.nanoTime();
+            boolean acquired;
+            try {
+                acquired = permits.tryAcquire(queueTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+            wait.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            if (!acquired) {
+                rejected.increment();
+                log.debug("Полоса {} заполнена, вызов отклонен после ожидания {}", lane.key(), queueTimeout);
+                throw new ServiceUnavailableException("Сервис перегружен, повторите запрос позже", queueTimeout);
+            }
+        }
+
+        void release() {
+            permits.release();
+        }
+    }
+}
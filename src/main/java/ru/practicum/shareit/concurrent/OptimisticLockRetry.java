@@ -0,0 +1,84 @@
+package ru.practicum.shareit.concurrent;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.ConflictException;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Выполнение изменяющей операции с повтором при конфликте оптимистической блокировки.
+ * Каждая попытка выполняется в собственной транзакции: сущность перечитывается,
+ * изменения применяются к актуальной версии. Если все попытки завершились конфликтом,
+ * выбрасывается {@link ConflictException} (ответ 409).
+ * Внутри уже открытой транзакции операция выполняется один раз, так как повтор в ней невозможен.
+ */
+@Component
+@Slf4j
+public class OptimisticLockRetry {
+    private static final long BACKOFF_MILLIS = 10;
+
+    private final TransactionTemplate transaction;
+    private final int maxAttempts;
+
+    public OptimisticLockRetry(PlatformTransactionManager transactionManager,
+                               @Value("${shareit.optimistic-lock.max-attempts:3}") int maxAttempts) {
+        this.transaction = transactionManager == null ? null : new TransactionTemplate(transactionManager);
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    /**
+     * Создает экземпляр, выполняющий попытки без открытия транзакций.
+     *
+     * @param maxAttempts максимальное число попыток
+     * @return экземпляр без транзакций
+     */
+    public static OptimisticLockRetry withoutTransaction(int maxAttempts) {
+        return new OptimisticLockRetry(null, maxAttempts);
+    }
+
+    /**
+     * Выполняет операцию, повторяя ее при конфликте версий.
+     *
+     * @param conflictMessage сообщение об ошибке, если конфликт не удалось разрешить повторами
+     * @param action          операция
+     * @param <T>             тип результата
+     * @return результат операции
+     */
+    public <T> T execute(String conflictMessage, Supplier<T> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transaction == null ? action.get() : transaction.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.warn("Конфликт версий не разрешен за {} попыток: {}", attempt, e.getMessage());
+                    throw new ConflictException(conflictMessage);
+                }
+                log.debug("Конфликт версий, попытка {} из {}: {}", attempt, maxAttempts, e.getMessage());
+                backoff(attempt, conflictMessage);
+            }
+        }
+    }
+
+    /**
+     * Случайная пауза перед повтором, растущая с номером попытки,
+     * чтобы конкурирующие запросы не сталкивались снова в тот же момент.
+     */
+    private void backoff(int attempt, String conflictMessage) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(BACKOFF_MILLIS * attempt + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException(conflictMessage);
+        }
+    }
+}
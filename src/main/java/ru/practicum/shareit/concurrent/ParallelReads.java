@@ -0,0 +1,178 @@
+package ru.practicum.shareit.concurrent;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.monitoring.SqlStatementCounter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Выполнение независимых операций чтения.
+ * В параллельном режиме каждая операция запускается в отдельном виртуальном потоке
+ * в собственной транзакции только для чтения, то есть на отдельном соединении с базой данных.
+ * В последовательном режиме (по умолчанию) операции выполняются сразу в вызывающем потоке.
+ * SQL-запросы параллельных операций учитываются в счетчике HTTP-запроса вызывающего потока
+ * и ограничиваются его крайним сроком (см. {@link RequestDeadline}).
+ * Область запускает не больше {@value #MAX_FORKS} операций, поэтому вызов занимает не больше
+ * {@link #connectionsPerCall()} соединений одновременно; это учитывает проверка лимитов {@link LaneBulkheadAspect}.
+ */
+@Component
+@Slf4j
+public class ParallelReads {
+    public static final int MAX_FORKS = 3;
+
+    private final boolean enabled;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService executor;
+
+    public ParallelReads(PlatformTransactionManager transactionManager,
+                         @Value("${shareit.parallel-reads.enabled:false}") boolean enabled) {
+        this.enabled = enabled;
+        if (enabled) {
+            this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+            this.readOnlyTransaction.setReadOnly(true);
+            this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("parallel-read-", 0).factory());
+            log.info("Включено параллельное выполнение независимых операций чтения");
+        } else {
+            this.readOnlyTransaction = null;
+            this.executor = null;
+        }
+    }
+
+    /**
+     * Создает экземпляр, выполняющий операции последовательно в вызывающем потоке.
+     *
+     * @return последовательный экземпляр
+     */
+    public static ParallelReads sequential() {
+        return new ParallelReads(null, false);
+    }
+
+    /**
+     * @return наибольшее число соединений, одновременно занятых операциями одной области
+     */
+    public int connectionsPerCall() {
+        return enabled ? MAX_FORKS : 1;
+    }
+
+    /**
+     * Открывает область для запуска группы операций.
+     *
+     * @return новая область
+     */
+    public Scope open() {
+        return new Scope();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Область выполнения группы операций чтения.
+     * Результаты операций доступны после {@link #join()}. При ошибке одной из операций
+     * остальные отменяются, а ошибка пробрасывается из {@link #join()}.
+     * При закрытии области незавершенные операции отменяются.
+     */
+    public final class Scope implements AutoCloseable {
+        private final CompletionService<Object> completion;
+        private final List<Future<Object>> futures = new ArrayList<>();
+        private boolean joined;
+        private int forks;
+
+        private Scope() {
+            this.completion = enabled ? new ExecutorCompletionService<>(executor) : null;
+        }
+
+        /**
+         * Запускает операцию чтения.
+         * Запуск больше {@value #MAX_FORKS} операций в одной области отклоняется.
+         *
+         * @param task операция
+         * @param <T>  тип результата
+         * @return поставщик результата, доступный после {@link #join()}
+         */
+        public <T> Supplier<T> fork(Supplier<T> task) {
+            if (++forks > MAX_FORKS) {
+                throw new IllegalStateException("В области можно запустить не больше " + MAX_FORKS + " операций");
+            }
+            if (!enabled) {
+                T result = task.get();
+                return () -> result;
+            }
+            Supplier<T> counted = SqlStatementCounter.propagate(task);
+            Supplier<Object> inTransaction = RequestDeadline.propagate(
+                    () -> readOnlyTransaction.execute(status -> counted.get()));
+            Future<Object> future = completion.submit(inTransaction::get);
+            futures.add(future);
+            return () -> result(future);
+        }
+
+        /**
+         * Ожидает завершения всех операций.
+         * Первая же ошибка отменяет оставшиеся операции и пробрасывается вызывающему.
+         */
+        public void join() {
+            joined = true;
+            if (!enabled) {
+                return;
+            }
+            try {
+                for (int i = 0; i < futures.size(); i++) {
+                    Future<Object> done = completion.take();
+                    done.get();
+                }
+            } catch (InterruptedException e) {
+                cancelAll();
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Ожидание параллельных операций чтения прервано", e);
+            } catch (ExecutionException e) {
+                cancelAll();
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+
+        @Override
+        public void close() {
+            cancelAll();
+        }
+
+        private void cancelAll() {
+            futures.forEach(future -> future.cancel(true));
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> T result(Future<Object> future) {
+            if (!joined || !future.isDone()) {
+                throw new IllegalStateException("Результат операции чтения доступен только после join()");
+            }
+            try {
+                return (T) future.get();
+            } catch (InterruptedException | ExecutionException | CancellationException e) {
+                throw new IllegalStateException("Операция чтения завершилась с ошибкой", e);
+            }
+        }
+    }
+}
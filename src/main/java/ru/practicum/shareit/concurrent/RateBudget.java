@@ -0,0 +1,32 @@
+package ru.practicum.shareit.concurrent;
+
+/**
+ * Бюджет запросов пользователя, из которого расходуются токены (см. {@link TokenBucketRateLimiter}).
+ */
+public enum RateBudget {
+    /**
+     * Поиск вещей.
+     */
+    SEARCH("search"),
+    /**
+     * Выборки списков и выгрузки.
+     */
+    LIST("list"),
+    /**
+     * Создание и изменение вещей, бронирований и комментариев.
+     */
+    WRITE("write");
+
+    private final String key;
+
+    RateBudget(String key) {
+        this.key = key;
+    }
+
+    /**
+     * @return имя бюджета в свойствах {@code shareit.rate-limit} и в теге метрик
+     */
+    public String key() {
+        return key;
+    }
+}
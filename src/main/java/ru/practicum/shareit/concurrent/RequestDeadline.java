@@ -0,0 +1,81 @@
+package ru.practicum.shareit.concurrent;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Крайний срок обработки текущего HTTP-запроса.
+ * Срок задается в начале запроса по бюджету эндпоинта и действует в потоке запроса; операциям,
+ * выполняемым в других потоках, он передается через {@link #propagate(Supplier)}.
+ * По оставшемуся времени ограничиваются таймауты транзакций и SQL-запросов.
+ */
+public final class RequestDeadline {
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    /**
+     * Устанавливает крайний срок для текущего потока.
+     *
+     * @param budget время, отведенное на обработку запроса
+     */
+    public static void start(Duration budget) {
+        DEADLINE.set(System.nanoTime() + budget.toNanos());
+    }
+
+    /**
+     * Снимает крайний срок текущего потока.
+     */
+    public static void clear() {
+        DEADLINE.remove();
+    }
+
+    /**
+     * Возвращает время, оставшееся до крайнего срока.
+     *
+     * @return оставшееся время (отрицательное, если срок прошел) или null, если срок не задан
+     */
+    public static Duration remaining() {
+        Long deadline = DEADLINE.get();
+        return deadline == null ? null : Duration.ofNanos(deadline - System.nanoTime());
+    }
+
+    /**
+     * Оборачивает задачу так, чтобы она выполнялась с крайним сроком вызывающего потока.
+     *
+     * @param task задача
+     * @param <T>  тип результата
+     * @return обернутая задача
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        Long deadline = DEADLINE.get();
+        if (deadline == null) {
+            return task;
+        }
+        return () -> {
+            Long previous = DEADLINE.get();
+            DEADLINE.set(deadline);
+            try {
+                return task.get();
+            } finally {
+                if (previous == null) {
+                    DEADLINE.remove();
+                } else {
+                    DEADLINE.set(previous);
+                }
+            }
+        };
+    }
+
+    /**
+     * Переводит оставшееся время в целые секунды для таймаутов JDBC и транзакций.
+     *
+     * @param remaining оставшееся время
+     * @return число секунд, округленное вверх, не меньше одной
+     */
+    public static int toTimeoutSeconds(Duration remaining) {
+        long millis = remaining.toMillis();
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, (millis + 999) / 1000));
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.concurrent;
+
+/**
+ * Приоритет запроса при сбросе нагрузки (см. {@link AimdConcurrencyLimiter}).
+ * Запрос допускается, только пока число выполняющихся запросов меньше его доли текущего лимита,
+ * поэтому при перегрузке первыми отклоняются запросы с низким приоритетом.
+ */
+public enum RequestPriority {
+    /**
+     * Создание и подтверждение бронирований: могут занять весь лимит.
+     */
+    HIGH(1.0),
+    /**
+     * Остальные запросы.
+     */
+    NORMAL(0.9),
+    /**
+     * Поиск и выборки списков.
+     */
+    LOW(0.7);
+
+    private final double share;
+
+    RequestPriority(double share) {
+        this.share = share;
+    }
+
+    /**
+     * @return доля лимита, доступная запросам с этим приоритетом
+     */
+    public double share() {
+        return share;
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.concurrent;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Ограничение таймаута каждого SQL-запроса временем, оставшимся до крайнего срока HTTP-запроса
+ * (см. {@link RequestDeadline}). По истечении таймаута драйвер отменяет запрос на сервере БД
+ * (для Postgres - отдельным запросом отмены), и соединение освобождается, не дожидаясь окончания запроса.
+ * Если срок уже прошел, запрос не отправляется в базу.
+ * Таймаут, уже установленный на запросе (например, из таймаута транзакции), сохраняется, если он меньше.
+ */
+public class StatementDeadlineListener implements QueryExecutionListener {
+    static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Duration remaining = RequestDeadline.remaining();
+        if (remaining == null) {
+            return;
+        }
+        if (remaining.isNegative() || remaining.isZero()) {
+            throw new ServiceUnavailableException("Время обработки запроса истекло", RETRY_AFTER);
+        }
+        Statement statement = execInfo.getStatement();
+        int seconds = RequestDeadline.toTimeoutSeconds(remaining);
+        try {
+            int current = statement.getQueryTimeout();
+            if (current == 0 || seconds < current) {
+                statement.setQueryTimeout(seconds);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Не удалось установить таймаут SQL-запроса", e);
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+}
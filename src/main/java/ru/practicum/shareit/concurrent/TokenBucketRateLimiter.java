@@ -0,0 +1,133 @@
+package ru.practicum.shareit.concurrent;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Ограничение частоты запросов клиента по алгоритму token bucket.
+ * Клиент определяется ключом: ID пользователя или, для запросов без него, адресом клиента.
+ * У каждого клиента своя корзина на каждый бюджет: корзина вмещает {@code capacity} токенов
+ * и пополняется со скоростью {@code refill-per-second}, каждый запрос расходует один токен.
+ * Состояние корзины заменяется атомарно через compare-and-set, без блокировок.
+ * Отсутствующая корзина равносильна полной, поэтому корзины, успевшие пополниться, удаляются
+ * при превышении {@code maxBuckets}, но не чаще раза в {@link #PURGE_INTERVAL}, чтобы поток новых клиентов
+ * не превращал каждый запрос в обход всех корзин. Пока места нет, новые клиенты делят общую корзину бюджета,
+ * так что число корзин ограничено, а смена ключа не дает дополнительных токенов.
+ */
+public class TokenBucketRateLimiter {
+    static final Duration PURGE_INTERVAL = Duration.ofSeconds(1);
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final Object OVERFLOW_CLIENT = new Object();
+
+    private final Map<RateBudget, Limit> limits;
+    private final int maxBuckets;
+    private final Map<Key, AtomicReference<Bucket>> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastPurge = new AtomicLong(System.nanoTime() - PURGE_INTERVAL.toNanos());
+
+    public TokenBucketRateLimiter(Map<RateBudget, Limit> limits, int maxBuckets) {
+        this.limits = Map.copyOf(limits);
+        this.maxBuckets = maxBuckets;
+    }
+
+    /**
+     * Расходует токен из корзины клиента.
+     *
+     * @param budget бюджет запроса
+     * @param client ключ клиента: ID пользователя или адрес клиента
+     * @return результат: допущен ли запрос, сколько токенов осталось и когда появится следующий
+     */
+    public Result tryConsume(RateBudget budget, Object client) {
+        Limit limit = limits.get(budget);
+        if (limit == null) {
+            return new Result(true, Long.MAX_VALUE, Duration.ZERO);
+        }
+        Key key = new Key(budget, client);
+        AtomicReference<Bucket> reference = buckets.get(key);
+        if (reference == null) {
+            if (!hasRoom()) {
+                key = new Key(budget, OVERFLOW_CLIENT);
+            }
+            reference = buckets.computeIfAbsent(key,
+                    ignored -> new AtomicReference<>(new Bucket(limit.capacity(), System.nanoTime())));
+        }
+        while (true) {
+            Bucket current = reference.get();
+            long now = System.nanoTime();
+            double tokens = limit.refilled(current, now);
+            if (tokens < 1) {
+                long waitNanos = (long) Math.ceil((1 - tokens) / limit.refillPerSecond() * NANOS_PER_SECOND);
+                return new Result(false, 0, Duration.ofNanos(waitNanos));
+            }
+            if (reference.compareAndSet(current, new Bucket(tokens - 1, now))) {
+                return new Result(true, (long) (tokens - 1), Duration.ZERO);
+            }
+        }
+    }
+
+    /**
+     * @return число корзин в памяти
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * Проверяет, есть ли место для новой корзины, при необходимости удаляя пополнившиеся корзины.
+     * Обход корзин выполняет один поток не чаще раза в {@link #PURGE_INTERVAL}.
+     */
+    private boolean hasRoom() {
+        if (buckets.size() < maxBuckets) {
+            return true;
+        }
+        long now = System.nanoTime();
+        long last = lastPurge.get();
+        if (now - last < PURGE_INTERVAL.toNanos() || !lastPurge.compareAndSet(last, now)) {
+            return false;
+        }
+        buckets.entrySet().removeIf(entry -> {
+            Limit limit = limits.get(entry.getKey().budget());
+            return limit.refilled(entry.getValue().get(), now) >= limit.capacity();
+        });
+        return buckets.size() < maxBuckets;
+    }
+
+    /**
+     * Параметры корзин бюджета.
+     *
+     * @param capacity        емкость корзины, то есть допустимый всплеск запросов
+     * @param refillPerSecond пополнение в токенах в секунду, то есть допустимая средняя частота
+     */
+    public record Limit(int capacity, double refillPerSecond) {
+        public Limit {
+            if (capacity < 1 || refillPerSecond <= 0) {
+                throw new IllegalArgumentException("Емкость и скорость пополнения корзины должны быть положительными: "
+                        + capacity + ", " + refillPerSecond);
+            }
+        }
+
+        double refilled(Bucket bucket, long now) {
+            double elapsedSeconds = (double) Math.max(0, now - bucket.updatedAt()) / NANOS_PER_SECOND;
+            return Math.min(capacity, bucket.tokens() + elapsedSeconds * refillPerSecond);
+        }
+    }
+
+    /**
+     * Результат расхода токена.
+     *
+     * @param allowed    true, если запрос допущен
+     * @param remaining  число оставшихся целых токенов
+     * @param retryAfter время до появления следующего токена для отклоненного запроса
+     */
+    public record Result(boolean allowed, long remaining, Duration retryAfter) {
+    }
+
+    private record Key(RateBudget budget, Object client) {
+    }
+
+    private record Bucket(double tokens, long updatedAt) {
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.concurrent;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Полоса ограничения параллелизма, в которой выполняется метод сервиса.
+ * Методы без аннотации выполняются в полосе {@link Lane#POINT_READ}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface WorkloadLane {
+
+    /**
+     * @return полоса метода
+     */
+    Lane value();
+}
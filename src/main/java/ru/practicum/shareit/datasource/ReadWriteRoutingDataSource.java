@@ -0,0 +1,173 @@
+package ru.practicum.shareit.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Источник данных, направляющий транзакции только для чтения на реплику, а остальные - в основную базу.
+ * Чтение остается в основной базе, если:
+ * <ul>
+ *     <li>реплика отстает больше допустимого или недоступна (см. {@link ReplicaLagMonitor});</li>
+ *     <li>пользователь из заголовка {@value #USER_ID_HEADER} недавно выполнил запись
+ *     (чтение собственных изменений), окно задается {@code shareit.datasource.replica.read-your-writes}.</li>
+ * </ul>
+ * Признак транзакции только для чтения известен лишь после её начала,
+ * поэтому источник используется через {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy},
+ * который получает соединение при первом запросе.
+ * Число выбранных соединений по направлению и причине публикуется в метрике {@value #ROUTE_METRIC}.
+ * Транзакция, получившая соединение с реплики, отмечается, чтобы отсутствие строки, возможно вызванное
+ * отставанием реплики, не запоминалось как окончательное (см. {@link #isCurrentTransactionOnReplica()}).
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    public static final String ROUTE_METRIC = "shareit.datasource.routes";
+    static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final int PURGE_THRESHOLD = 10_000;
+    private static final Object REPLICA_READ_KEY = new Object();
+
+    enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final long readYourWritesNanos;
+    private final Map<Long, Long> recentWriters = new ConcurrentHashMap<>();
+    private final Counter writes;
+    private final Counter replicaReads;
+    private final Counter laggingReads;
+    private final Counter readYourWritesReads;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                      Duration readYourWrites, MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        this.readYourWritesNanos = readYourWrites.toNanos();
+        this.writes = routeCounter(meterRegistry, Route.PRIMARY, "write");
+        this.replicaReads = routeCounter(meterRegistry, Route.REPLICA, "read");
+        this.laggingReads = routeCounter(meterRegistry, Route.PRIMARY, "replica-lag");
+        this.readYourWritesReads = routeCounter(meterRegistry, Route.PRIMARY, "read-your-writes");
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Long userId = currentUserId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writes.increment();
+            rememberWriter(userId);
+            return Route.PRIMARY;
+        }
+        if (!lagMonitor.isReplicaUsable()) {
+            laggingReads.increment();
+            return Route.PRIMARY;
+        }
+        if (wroteRecently(userId)) {
+            readYourWritesReads.increment();
+            return Route.PRIMARY;
+        }
+        replicaReads.increment();
+        markReplicaRead();
+        return Route.REPLICA;
+    }
+
+    /**
+     * Проверяет, получила ли текущая транзакция соединение с реплики.
+     *
+     * @return true, если чтение текущей транзакции идет с реплики
+     */
+    public static boolean isCurrentTransactionOnReplica() {
+        return TransactionSynchronizationManager.hasResource(REPLICA_READ_KEY);
+    }
+
+    private static void markReplicaRead() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(REPLICA_READ_KEY)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(REPLICA_READ_KEY, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(REPLICA_READ_KEY);
+            }
+        });
+    }
+
+    /**
+     * Запоминает пользователя, выполняющего запись. Окно чтения из основной базы
+     * отсчитывается от фиксации транзакции, а вне транзакции - от получения соединения.
+     */
+    private void rememberWriter(Long userId) {
+        if (userId == null || readYourWritesNanos <= 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markWrite(userId);
+                }
+            });
+        } else {
+            markWrite(userId);
+        }
+    }
+
+    private void markWrite(Long userId) {
+        long now = System.nanoTime();
+        if (recentWriters.size() >= PURGE_THRESHOLD) {
+            recentWriters.values().removeIf(writtenAt -> now - writtenAt > readYourWritesNanos);
+        }
+        recentWriters.put(userId, now);
+    }
+
+    private boolean wroteRecently(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        Long writtenAt = recentWriters.get(userId);
+        if (writtenAt == null) {
+            return false;
+        }
+        if (System.nanoTime() - writtenAt > readYourWritesNanos) {
+            recentWriters.remove(userId, writtenAt);
+            return false;
+        }
+        return true;
+    }
+
+    private static Long currentUserId() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        String header = request.getHeader(USER_ID_HEADER);
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, Route route, String reason) {
+        return Counter.builder(ROUTE_METRIC)
+                .description("Соединения, выданные основной базой и репликой")
+                .tag("target", route.name().toLowerCase())
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
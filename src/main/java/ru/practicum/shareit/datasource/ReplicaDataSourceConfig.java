@@ -0,0 +1,84 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Разделение чтения и записи между основной базой и репликой.
+ * Включается заданием {@code shareit.datasource.replica.url}; без него приложение
+ * работает с единственным источником данных автоконфигурации Spring Boot.
+ * Основной пул настраивается стандартными свойствами {@code spring.datasource},
+ * пул реплики - свойствами {@code shareit.datasource.replica}, учетные данные
+ * и драйвер по умолчанию берутся у основной базы.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.datasource.replica.url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("shareit.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            DataSourceProperties properties,
+            @Value("${shareit.datasource.replica.url}") String url,
+            @Value("${shareit.datasource.replica.username:}") String username,
+            @Value("${shareit.datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .build();
+        if (!username.isEmpty()) {
+            dataSource.setUsername(username);
+            dataSource.setPassword(password);
+        }
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public ReplicaLagMonitor replicaLagMonitor(
+            @Qualifier("replicaDataSource") DataSource replica,
+            @Value("${shareit.datasource.replica.lag-query:" + ReplicaLagMonitor.POSTGRES_LAG_QUERY + "}")
+            String lagQuery,
+            @Value("${shareit.datasource.replica.max-lag:5s}") Duration maxLag,
+            @Value("${shareit.datasource.replica.lag-check-interval:1s}") Duration checkInterval,
+            MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(replica, lagQuery, maxLag, checkInterval, meterRegistry);
+    }
+
+    /**
+     * Источник данных приложения: соединение выбирается при первом запросе транзакции,
+     * когда уже известно, открыта ли она только для чтения.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagMonitor replicaLagMonitor,
+                                 @Value("${shareit.datasource.replica.read-your-writes:10s}") Duration readYourWrites,
+                                 MeterRegistry meterRegistry) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica,
+                replicaLagMonitor, readYourWrites, meterRegistry));
+    }
+}
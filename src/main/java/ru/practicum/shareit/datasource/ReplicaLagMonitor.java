@@ -0,0 +1,103 @@
+package ru.practicum.shareit.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Периодическая проверка отставания реплики от основной базы.
+ * Пока отставание не измерено, превышает допустимое или реплика недоступна,
+ * чтение с реплики запрещено и {@link ReadWriteRoutingDataSource} направляет его в основную базу.
+ * Текущее отставание в секундах публикуется в метрике {@value #LAG_METRIC}.
+ */
+@Slf4j
+public class ReplicaLagMonitor implements AutoCloseable {
+    public static final String LAG_METRIC = "shareit.datasource.replica.lag";
+
+    /**
+     * Отставание реплики Postgres в секундах. Если реплика воспроизвела все полученные изменения,
+     * отставание считается нулевым: иначе при простое основной базы время с последней транзакции
+     * росло бы без реального отставания. На основной базе (не в режиме восстановления) запрос возвращает 0.
+     */
+    public static final String POSTGRES_LAG_QUERY = "select coalesce(case"
+            + " when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0"
+            + " else extract(epoch from now() - pg_last_xact_replay_timestamp()) end, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String lagQuery;
+    private final Duration maxLag;
+    private final Duration checkInterval;
+    private volatile double lagSeconds = Double.NaN;
+    private volatile boolean usable;
+    private ScheduledExecutorService scheduler;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, Duration maxLag, Duration checkInterval,
+                             MeterRegistry meterRegistry) {
+        this.jdbcTemplate = new JdbcTemplate(replica);
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+        this.checkInterval = checkInterval;
+        Gauge.builder(LAG_METRIC, this, monitor -> monitor.lagSeconds)
+                .description("Отставание реплики от основной базы")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Запускает проверки в отдельном потоке. Первая проверка выполняется сразу,
+     * до её завершения чтение идет в основную базу.
+     */
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::check, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Проверяет, можно ли сейчас читать с реплики.
+     *
+     * @return true, если последняя проверка прошла успешно и отставание не больше допустимого
+     */
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    void check() {
+        boolean wasUsable = usable;
+        try {
+            Double lag = jdbcTemplate.queryForObject(lagQuery, Double.class);
+            lagSeconds = lag == null ? 0 : lag;
+            usable = lagSeconds * 1000 <= maxLag.toMillis();
+        } catch (RuntimeException e) {
+            lagSeconds = Double.NaN;
+            usable = false;
+            if (wasUsable) {
+                log.warn("Реплика недоступна, чтение переведено на основную базу: {}", e.getMessage());
+            }
+            return;
+        }
+        if (wasUsable && !usable) {
+            log.warn("Отставание реплики {} с превышает допустимое {}, чтение переведено на основную базу",
+                    lagSeconds, maxLag);
+        } else if (!wasUsable && usable) {
+            log.info("Чтение переведено на реплику, отставание {} с", lagSeconds);
+        }
+    }
+}
@@ -3,7 +3,7 @@ package ru.practicum.shareit.exception;
 /**
  * Исключение, выбрасываемое при конфликте данных (например, дублирование email).
  */
-public class ConflictException extends RuntimeException {
+public class ConflictException extends ShareItException {
     public ConflictException(String message) {
         super(message);
     }
@@ -1,12 +1,18 @@
 package ru.practicum.shareit.exception;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionTimedOutException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingRequestHeaderException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.time.Duration;
 import java.util.Map;
 
 /**
@@ -14,6 +20,8 @@ import java.util.Map;
  */
 @RestControllerAdvice
 public class ErrorHandler {
+    public static final String RATE_LIMIT_HEADER = "X-RateLimit-Limit";
+    public static final String RATE_LIMIT_REMAINING_HEADER = "X-RateLimit-Remaining";
 
     /**
      * Обрабатывает исключения валидации.
@@ -51,6 +59,47 @@ public class ErrorHandler {
         return Map.of("error", e.getMessage());
     }
 
+    /**
+     * Обрабатывает конфликты оптимистической блокировки, не разрешенные повтором.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> handleOptimisticLockingFailure(OptimisticLockingFailureException e) {
+        return Map.of("error", "Данные были изменены параллельным запросом, повторите запрос");
+    }
+
+    /**
+     * Обрабатывает отказы при перегрузке. Заголовок Retry-After сообщает клиенту, когда повторить запрос.
+     */
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<Map<String, String>> handleServiceUnavailable(ServiceUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds(e.getRetryAfter())))
+                .body(Map.of("error", e.getMessage()));
+    }
+
+    /**
+     * Обрабатывает истечение крайнего срока запроса: отмену SQL-запроса по таймауту и таймаут транзакции.
+     */
+    @ExceptionHandler({QueryTimeoutException.class, TransactionTimedOutException.class})
+    public ResponseEntity<Map<String, String>> handleTimeout(RuntimeException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", "Время обработки запроса истекло"));
+    }
+
+    /**
+     * Обрабатывает превышение частоты запросов пользователем.
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<Map<String, String>> handleTooManyRequests(TooManyRequestsException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds(e.getRetryAfter())))
+                .header(RATE_LIMIT_HEADER, String.valueOf(e.getLimit()))
+                .header(RATE_LIMIT_REMAINING_HEADER, "0")
+                .body(Map.of("error", e.getMessage()));
+    }
+
     /**
      * Обрабатывает исключения, связанные с некорректными данными.
      */
@@ -68,4 +117,11 @@ public class ErrorHandler {
     public Map<String, String> handleException(Exception e) {
         return Map.of("error", "Произошла непредвиденная ошибка: " + e.getMessage());
     }
-}
\ No newline at end of file
+
+    /**
+     * Значение Retry-After в целых секундах, не меньше одной.
+     */
+    private static long retryAfterSeconds(Duration retryAfter) {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+}
@@ -3,7 +3,7 @@ package ru.practicum.shareit.exception;
 /**
  * Исключение, выбрасываемое при попытке доступа к несуществующему ресурсу.
  */
-public class NotFoundException extends RuntimeException {
+public class NotFoundException extends ShareItException {
     public NotFoundException(String message) {
         super(message);
     }
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.exception;
+
+import java.time.Duration;
+
+/**
+ * Исключение, выбрасываемое при перегрузке, когда запрос отклоняется без выполнения.
+ */
+public class ServiceUnavailableException extends ShareItException {
+    private final Duration retryAfter;
+
+    public ServiceUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @return рекомендуемая пауза перед повтором запроса
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.exception;
+
+/**
+ * Базовое исключение предметной области.
+ * Не заполняет стек вызовов, если это не включено в {@link StackTraceSettings}.
+ */
+public abstract class ShareItException extends RuntimeException {
+    protected ShareItException(String message) {
+        super(message, null, false, StackTraceSettings.isEnabled());
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.exception;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Настройка заполнения стека вызовов для доменных исключений.
+ * По умолчанию стек не заполняется: исключения бросаются в штатном потоке обработки запросов
+ * и перехватываются {@link ErrorHandler}, который стек не использует.
+ * Для отладки стек включается свойством {@code shareit.exceptions.stack-traces}.
+ */
+@Component
+public class StackTraceSettings {
+    private static volatile boolean enabled = Boolean.getBoolean("shareit.exceptions.stack-traces");
+
+    public StackTraceSettings(@Value("${shareit.exceptions.stack-traces:false}") boolean enabled) {
+        setEnabled(enabled);
+    }
+
+    /**
+     * Проверяет, нужно ли заполнять стек вызовов у доменных исключений.
+     *
+     * @return true, если стек вызовов включен
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Включает или отключает заполнение стека вызовов у доменных исключений.
+     *
+     * @param enabled true, чтобы заполнять стек вызовов
+     */
+    public static void setEnabled(boolean enabled) {
+        StackTraceSettings.enabled = enabled;
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.exception;
+
+import java.time.Duration;
+
+/**
+ * Исключение, выбрасываемое, когда пользователь превысил допустимую частоту запросов.
+ */
+public class TooManyRequestsException extends ShareItException {
+    private final Duration retryAfter;
+    private final int limit;
+
+    public TooManyRequestsException(String message, Duration retryAfter, int limit) {
+        super(message);
+        this.retryAfter = retryAfter;
+        this.limit = limit;
+    }
+
+    /**
+     * @return время до появления возможности повторить запрос
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * @return допустимое число запросов подряд
+     */
+    public int getLimit() {
+        return limit;
+    }
+}
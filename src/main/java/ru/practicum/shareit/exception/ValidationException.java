@@ -3,7 +3,7 @@ package ru.practicum.shareit.exception;
 /**
  * Исключение, выбрасываемое при ошибках валидации данных.
  */
-public class ValidationException extends RuntimeException {
+public class ValidationException extends ShareItException {
     public ValidationException(String message) {
         super(message);
     }
@@ -1,15 +1,28 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.concurrent.RateBudget;
+import ru.practicum.shareit.concurrent.RequestPriority;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.web.LatencyBudget;
+import ru.practicum.shareit.web.NdjsonResponseWriter;
+import ru.practicum.shareit.web.RateLimited;
+import ru.practicum.shareit.web.SheddingPriority;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Контроллер для работы с вещами.
@@ -18,11 +31,13 @@ import java.util.List;
 @RequestMapping("/items")
 public class ItemController {
     private final ItemService itemService;
+    private final ObjectMapper objectMapper;
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
     @Autowired
-    public ItemController(ItemService itemService) {
+    public ItemController(ItemService itemService, ObjectMapper objectMapper) {
         this.itemService = itemService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -32,6 +47,7 @@ public class ItemController {
      * @param itemDto данные вещи
      * @return созданная вещь
      */
+    @RateLimited(RateBudget.WRITE)
     @PostMapping
     public ResponseEntity<ItemDto> createItem(@RequestHeader(USER_ID_HEADER) Long userId, @RequestBody ItemDto itemDto) {
         Item item = ItemMapper.toItem(itemDto);
@@ -47,6 +63,7 @@ public class ItemController {
      * @param itemDto данные для обновления
      * @return обновленная вещь
      */
+    @RateLimited(RateBudget.WRITE)
     @PatchMapping("/{itemId}")
     public ResponseEntity<ItemDto> updateItem(@RequestHeader(USER_ID_HEADER) Long userId,
                               @PathVariable Long itemId,
@@ -58,15 +75,32 @@ public class ItemController {
 
     /**
      * Получает вещь по идентификатору.
+     * Для пользователя, не являющегося владельцем, отвечает 304,
+     * если версия из {@code If-None-Match} совпадает с текущей.
+     * Отдельный запрос метки версии выполняется только для условных запросов,
+     * иначе ETag вычисляется по загруженной вещи и комментариям.
      *
-     * @param userId идентификатор пользователя, запрашивающего информацию
-     * @param itemId идентификатор вещи
+     * @param userId  идентификатор пользователя, запрашивающего информацию
+     * @param itemId  идентификатор вещи
+     * @param request текущий запрос
      * @return вещь с информацией о бронированиях и комментариях
      */
     @GetMapping("/{itemId}")
     public ResponseEntity<ItemDto> getItemById(@RequestHeader(USER_ID_HEADER) Long userId,
-                                              @PathVariable Long itemId) {
-        return ResponseEntity.ok(itemService.getItemWithBookingsAndComments(itemId, userId));
+                                              @PathVariable Long itemId,
+                                              WebRequest request) {
+        boolean conditional = request.getHeader(HttpHeaders.IF_NONE_MATCH) != null;
+        if (conditional) {
+            Optional<String> versionTag = itemService.getItemVersionTag(itemId, userId);
+            if (versionTag.isPresent() && request.checkNotModified(versionTag.get())) {
+                return null;
+            }
+        }
+        ItemDto itemDto = itemService.getItemWithBookingsAndComments(itemId, userId);
+        if (!conditional && itemDto.getVersionTag() != null) {
+            request.checkNotModified(itemDto.getVersionTag());
+        }
+        return ResponseEntity.ok(itemDto);
     }
 
     /**
@@ -75,6 +109,8 @@ public class ItemController {
      * @param userId идентификатор пользователя-владельца
      * @return список вещей
      */
+    @SheddingPriority(RequestPriority.LOW)
+    @RateLimited(RateBudget.LIST)
     @GetMapping
     public ResponseEntity<List<ItemDto>> getUserItems(@RequestHeader(USER_ID_HEADER) Long userId) {
         List<Item> items = itemService.getUserItems(userId);
@@ -87,12 +123,50 @@ public class ItemController {
      * @param text текст для поиска
      * @return список найденных вещей
      */
+    @SheddingPriority(RequestPriority.LOW)
+    @RateLimited(RateBudget.SEARCH)
+    @LatencyBudget("2s")
     @GetMapping("/search")
     public ResponseEntity<List<ItemDto>> searchItems(@RequestParam String text) {
         List<Item> items = itemService.searchItems(text);
         return ResponseEntity.ok(ItemMapper.toItemDtoList(items));
     }
 
+    /**
+     * Потоково выгружает вещи пользователя в формате NDJSON.
+     * Выбирается при заголовке {@code Accept: application/x-ndjson}.
+     *
+     * @param userId   идентификатор пользователя-владельца
+     * @param response HTTP-ответ
+     */
+    @SheddingPriority(value = RequestPriority.LOW, latencySampled = false)
+    @RateLimited(RateBudget.LIST)
+    @LatencyBudget("30s")
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamUserItems(@RequestHeader(USER_ID_HEADER) Long userId,
+                                HttpServletResponse response) throws IOException {
+        NdjsonResponseWriter writer = new NdjsonResponseWriter(objectMapper, response);
+        itemService.forEachUserItem(userId, item -> writer.write(ItemMapper.toItemDto(item)));
+        writer.finish();
+    }
+
+    /**
+     * Потоково выгружает найденные по тексту вещи в формате NDJSON.
+     * Выбирается при заголовке {@code Accept: application/x-ndjson}.
+     *
+     * @param text     текст для поиска
+     * @param response HTTP-ответ
+     */
+    @SheddingPriority(value = RequestPriority.LOW, latencySampled = false)
+    @RateLimited(RateBudget.SEARCH)
+    @LatencyBudget("30s")
+    @GetMapping(path = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamSearchItems(@RequestParam String text, HttpServletResponse response) throws IOException {
+        NdjsonResponseWriter writer = new NdjsonResponseWriter(objectMapper, response);
+        itemService.forEachSearchResult(text, item -> writer.write(ItemMapper.toItemDto(item)));
+        writer.finish();
+    }
+
     /**
      * Создает комментарий к вещи.
      *
@@ -101,6 +175,7 @@ public class ItemController {
      * @param commentDto данные комментария
      * @return созданный комментарий
      */
+    @RateLimited(RateBudget.WRITE)
     @PostMapping("/{itemId}/comment")
     public ResponseEntity<CommentDto> createComment(@RequestHeader(USER_ID_HEADER) Long userId,
                                                   @PathVariable Long itemId,
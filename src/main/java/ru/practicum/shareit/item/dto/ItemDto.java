@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.booking.dto.BookingDto;
@@ -22,6 +23,12 @@ public class ItemDto {
     private BookingDto nextBooking;
     private List<CommentDto> comments;
 
+    /**
+     * Метка версии для заголовка ETag; заполняется только для пользователя, не являющегося владельцем.
+     */
+    @JsonIgnore
+    private String versionTag;
+
     public ItemDto(Long id, String name, String description, Boolean available, Long ownerId, Long requestId) {
         this.id = id;
         this.name = name;
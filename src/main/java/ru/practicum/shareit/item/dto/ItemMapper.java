@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.dto;
 
+import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.User;
@@ -31,6 +32,20 @@ public class ItemMapper {
         return itemDto;
     }
 
+    /**
+     * Вычисляет метку версии вещи в том виде, в котором ее видит пользователь, не являющийся владельцем.
+     * Формат совпадает с {@code ItemRepository.findVersionTagForViewer}.
+     *
+     * @param item     объект вещи
+     * @param comments загруженные комментарии к вещи
+     * @return метка версии
+     */
+    public static String toVersionTag(Item item, List<Comment> comments) {
+        long lastCommentId = comments.stream().mapToLong(Comment::getId).max().orElse(0L);
+        long authorVersions = comments.stream().mapToLong(comment -> comment.getAuthor().getVersion()).sum();
+        return item.getVersion() + "-" + comments.size() + "-" + lastCommentId + "-" + authorVersions;
+    }
+
     /**
      * Преобразует ItemDto в Item.
      *
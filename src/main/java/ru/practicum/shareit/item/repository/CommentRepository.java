@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Comment;
@@ -18,6 +19,7 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
      * @param item вещь
      * @return список комментариев к вещи
      */
+    @EntityGraph(attributePaths = {"item", "item.owner", "item.request", "author"})
     List<Comment> findByItemOrderByCreatedDesc(Item item);
 
     /**
@@ -1,24 +1,36 @@
 package ru.practicum.shareit.item.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Репозиторий для работы с вещами.
  */
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    /**
+     * Число строк, получаемых из базы данных за одно обращение при потоковом чтении.
+     */
+    String STREAM_FETCH_SIZE = "100";
+
     /**
      * Поиск вещей по тексту в названии или описании.
      *
      * @param text текст для поиска
      * @return список вещей, содержащих текст в названии или описании
      */
+    @EntityGraph(attributePaths = {"owner", "request"})
     @Query("select i from Item i " +
             "where (upper(i.name) like upper(concat('%', ?1, '%')) " +
             "or upper(i.description) like upper(concat('%', ?1, '%'))) " +
@@ -31,5 +43,47 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
      * @param owner владелец вещей
      * @return список вещей, принадлежащих указанному владельцу
      */
+    @EntityGraph(attributePaths = {"owner", "request"})
     List<Item> findByOwnerOrderById(User owner);
+
+    /**
+     * Потоковый поиск вещей по тексту в названии или описании.
+     * Должен вызываться внутри транзакции, поток необходимо закрыть.
+     *
+     * @param text текст для поиска
+     * @return поток вещей, содержащих текст в названии или описании
+     */
+    @EntityGraph(attributePaths = {"owner", "request"})
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("select i from Item i " +
+            "where (upper(i.name) like upper(concat('%', ?1, '%')) " +
+            "or upper(i.description) like upper(concat('%', ?1, '%'))) " +
+            "and i.available = true")
+    Stream<Item> streamSearch(String text);
+
+    /**
+     * Потоковый поиск вещей по владельцу.
+     * Должен вызываться внутри транзакции, поток необходимо закрыть.
+     *
+     * @param owner владелец вещей
+     * @return поток вещей, принадлежащих указанному владельцу
+     */
+    @EntityGraph(attributePaths = {"owner", "request"})
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<Item> streamByOwnerOrderById(User owner);
+
+    /**
+     * Получение метки версии вещи в том виде, в котором ее видит пользователь, не являющийся владельцем:
+     * версия вещи, число и последний ID комментариев и сумма версий их авторов.
+     * Для владельца метка не возвращается, так как его представление зависит от текущего времени.
+     *
+     * @param itemId идентификатор вещи
+     * @param userId идентификатор пользователя, запрашивающего вещь
+     * @return метка версии или пустое значение, если вещь не найдена или пользователь ее владелец
+     */
+    @Query("select concat(cast(i.version as string), '-', cast(count(c.id) as string), '-', " +
+            "cast(coalesce(max(c.id), 0) as string), '-', cast(coalesce(sum(a.version), 0) as string)) " +
+            "from Item i left join Comment c on c.item = i left join c.author a " +
+            "where i.id = ?1 and i.owner.id <> ?2 group by i.id, i.version")
+    Optional<String> findVersionTagForViewer(Long itemId, Long userId);
 }
\ No newline at end of file
@@ -5,6 +5,8 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Интерфейс сервиса для работы с вещами.
@@ -54,6 +56,28 @@ public interface ItemService {
      */
     List<Item> searchItems(String text);
 
+    /**
+     * Передает вещи пользователя обработчику по одной, не собирая их в список.
+     * Обработчик вызывается внутри транзакции чтения, которая держит соединение из пула до конца обхода,
+     * поэтому одновременных вызовов не больше, чем мест в полосе
+     * {@link ru.practicum.shareit.concurrent.Lane#STREAM}.
+     *
+     * @param userId идентификатор пользователя-владельца
+     * @param action обработчик вещи
+     */
+    void forEachUserItem(Long userId, Consumer<Item> action);
+
+    /**
+     * Передает найденные по тексту вещи обработчику по одной, не собирая их в список.
+     * Обработчик вызывается внутри транзакции чтения, которая держит соединение из пула до конца обхода,
+     * поэтому одновременных вызовов не больше, чем мест в полосе
+     * {@link ru.practicum.shareit.concurrent.Lane#STREAM}.
+     *
+     * @param text   текст для поиска
+     * @param action обработчик вещи
+     */
+    void forEachSearchResult(String text, Consumer<Item> action);
+
     /**
      * Создает комментарий к вещи.
      *
@@ -80,4 +104,15 @@ public interface ItemService {
      * @return вещь с информацией о бронированиях и комментариях
      */
     ItemDto getItemWithBookingsAndComments(Long itemId, Long userId);
+
+    /**
+     * Получает метку версии вещи с комментариями для заголовка ETag, не загружая сами объекты.
+     * Для владельца вещи метка не выдается: его представление включает бронирования,
+     * которые становятся прошлыми или будущими с течением времени.
+     *
+     * @param itemId идентификатор вещи
+     * @param userId идентификатор пользователя, запрашивающего информацию
+     * @return метка версии или пустое значение
+     */
+    Optional<String> getItemVersionTag(Long itemId, Long userId);
 }
\ No newline at end of file
@@ -1,13 +1,21 @@
 package ru.practicum.shareit.item.service;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.Booking.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.cache.NegativeLookupCache;
+import ru.practicum.shareit.cache.PastBookingResponseCache;
+import ru.practicum.shareit.concurrent.OptimisticLockRetry;
+import ru.practicum.shareit.concurrent.Lane;
+import ru.practicum.shareit.concurrent.ParallelReads;
+import ru.practicum.shareit.concurrent.WorkloadLane;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
@@ -18,13 +26,22 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.logging.LogView;
+import ru.practicum.shareit.monitoring.ItemSearchEvent;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static ru.practicum.shareit.cache.NegativeLookupCache.EntityType.ITEM;
 
 /**
  * Реализация сервиса для работы с вещами.
@@ -38,15 +55,23 @@ public class ItemServiceImpl implements ItemService {
     private final UserService userService;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final NegativeLookupCache negativeLookupCache;
+    private final PastBookingResponseCache pastBookingResponseCache;
+    private final ParallelReads parallelReads;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final EntityManager entityManager;
+
+    private static final int STREAM_CLEAR_INTERVAL = 100;
 
     @Override
     @Transactional
+    @WorkloadLane(Lane.WRITE)
     public Item createItem(Long userId, Item item) {
-        log.info("Создание вещи пользователем с ID {}: {}", userId, item);
+        log.info("Создание вещи пользователем с ID {}: {}", userId, LogView.of(item));
 
         // Проверка существования пользователя
         User owner = userService.getUserById(userId);
-        log.debug("Найден владелец: {}", owner);
+        log.debug("Найден владелец: {}", LogView.of(owner));
 
         // Валидация обязательных полей
         validateItemFields(item);
@@ -57,7 +82,8 @@ public class ItemServiceImpl implements ItemService {
 
         // Сохранение
         Item savedItem = itemRepository.save(item);
-        log.info("Вещь успешно создана: {}", savedItem);
+        negativeLookupCache.forget(ITEM, savedItem.getId());
+        log.info("Вещь успешно создана: {}", LogView.of(savedItem));
         return savedItem;
     }
 
@@ -66,8 +92,8 @@ public class ItemServiceImpl implements ItemService {
      *
      * @param item проверяемая вещь
      */
-    private void validateItemFields(Item item) {
-        log.debug("Валидация полей вещи: {}", item);
+    void validateItemFields(Item item) {
+        log.debug("Валидация полей вещи: {}", LogView.of(item));
 
         if (item.getName() == null || item.getName().isBlank()) {
             log.warn("Попытка создания вещи с пустым названием");
@@ -87,14 +113,24 @@ public class ItemServiceImpl implements ItemService {
         log.debug("Валидация полей вещи успешно завершена");
     }
 
+    /**
+     * Каждая попытка выполняется в своей транзакции через {@link OptimisticLockRetry}:
+     * при параллельном изменении вещь перечитывается и изменения применяются повторно.
+     */
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
+    @WorkloadLane(Lane.WRITE)
     public Item updateItem(Long userId, Long itemId, Item item) {
-        log.info("Обновление вещи с ID {} пользователем с ID {}: {}", itemId, userId, item);
+        log.info("Обновление вещи с ID {} пользователем с ID {}: {}", itemId, userId, LogView.of(item));
+        return optimisticLockRetry.execute(
+                "Вещь с ID " + itemId + " изменяется параллельно, повторите запрос",
+                () -> applyItemUpdate(userId, itemId, item));
+    }
 
+    private Item applyItemUpdate(Long userId, Long itemId, Item item) {
         // Проверка существования вещи
         Item existingItem = getItemById(itemId);
-        log.debug("Найдена существующая вещь: {}", existingItem);
+        log.debug("Найдена существующая вещь: {}", LogView.of(existingItem));
 
         // Проверка, что пользователь является владельцем вещи
         if (!existingItem.getOwner().getId().equals(userId)) {
@@ -117,7 +153,8 @@ public class ItemServiceImpl implements ItemService {
             existingItem.setAvailable(item.getAvailable());
         }
 
-        Item updatedItem = itemRepository.save(existingItem);
+        Item updatedItem = itemRepository.saveAndFlush(existingItem);
+        pastBookingResponseCache.evictItem(itemId);
         log.info("Вещь с ID {} успешно обновлена", itemId);
         return updatedItem;
     }
@@ -125,22 +162,29 @@ public class ItemServiceImpl implements ItemService {
     @Override
     public Item getItemById(Long itemId) {
         log.debug("Получение вещи по ID: {}", itemId);
+        if (negativeLookupCache.isKnownMissing(ITEM, itemId)) {
+            log.debug("Вещь с ID {} отсутствует по данным кэша", itemId);
+            throw new NotFoundException("Вещь с ID " + itemId + " не найдена");
+        }
+        long generation = negativeLookupCache.generation();
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> {
                     log.warn("Вещь с ID {} не найдена", itemId);
+                    negativeLookupCache.markMissing(ITEM, itemId, generation);
                     return new NotFoundException("Вещь с ID " + itemId + " не найдена");
                 });
-        log.debug("Найдена вещь: {}", item);
+        log.debug("Найдена вещь: {}", LogView.of(item));
         return item;
     }
 
     @Override
+    @WorkloadLane(Lane.LIST_READ)
     public List<Item> getUserItems(Long userId) {
         log.info("Получение списка вещей пользователя с ID: {}", userId);
 
         // Проверка существования пользователя
         User owner = userService.getUserById(userId);
-        log.debug("Найден владелец: {}", owner);
+        log.debug("Найден владелец: {}", LogView.of(owner));
 
         List<Item> items = itemRepository.findByOwnerOrderById(owner);
         log.debug("Найдено {} вещей пользователя с ID {}", items.size(), userId);
@@ -148,7 +192,10 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @WorkloadLane(Lane.LIST_READ)
     public List<Item> searchItems(String text) {
+        ItemSearchEvent event = new ItemSearchEvent();
+        event.begin();
         log.info("Поиск вещей по тексту: '{}'", text);
 
         if (text == null || text.isBlank()) {
@@ -158,21 +205,77 @@ public class ItemServiceImpl implements ItemService {
 
         List<Item> items = itemRepository.search(text);
         log.debug("Найдено {} вещей по запросу '{}'", items.size(), text);
+        event.commit(text.length(), false, items.size());
         return items;
     }
 
+    @Override
+    @WorkloadLane(Lane.STREAM)
+    public void forEachUserItem(Long userId, Consumer<Item> action) {
+        log.info("Потоковое получение вещей пользователя с ID: {}", userId);
+
+        // Проверка существования пользователя
+        User owner = userService.getUserById(userId);
+        log.debug("Найден владелец: {}", LogView.of(owner));
+
+        try (Stream<Item> items = itemRepository.streamByOwnerOrderById(owner)) {
+            long count = consume(items, action);
+            log.debug("Передано {} вещей пользователя с ID {}", count, userId);
+        }
+    }
+
+    @Override
+    @WorkloadLane(Lane.STREAM)
+    public void forEachSearchResult(String text, Consumer<Item> action) {
+        ItemSearchEvent event = new ItemSearchEvent();
+        event.begin();
+        log.info("Потоковый поиск вещей по тексту: '{}'", text);
+
+        if (text == null || text.isBlank()) {
+            log.debug("Поисковый запрос пуст, вещи не передаются");
+            return;
+        }
+
+        try (Stream<Item> items = itemRepository.streamSearch(text)) {
+            long count = consume(items, action);
+            log.debug("Передано {} вещей по запросу '{}'", count, text);
+            event.commit(text.length(), true, count);
+        }
+    }
+
+    /**
+     * Передает вещи обработчику, очищая контекст персистентности после каждой порции строк,
+     * чтобы потребление памяти не зависело от числа строк. Вместе с вещами очищаются
+     * загруженные с ними владельцы и запросы.
+     *
+     * @param items  поток вещей
+     * @param action обработчик вещи
+     * @return число переданных вещей
+     */
+    private long consume(Stream<Item> items, Consumer<Item> action) {
+        long count = 0;
+        for (Iterator<Item> iterator = items.iterator(); iterator.hasNext(); count++) {
+            action.accept(iterator.next());
+            if ((count + 1) % STREAM_CLEAR_INTERVAL == 0) {
+                entityManager.clear();
+            }
+        }
+        return count;
+    }
+
     @Override
     @Transactional
+    @WorkloadLane(Lane.WRITE)
     public CommentDto createComment(Long userId, Long itemId, CommentDto commentDto) {
         log.info("Создание комментария пользователем с ID {} для вещи с ID {}: {}", userId, itemId, commentDto);
 
         // Проверка существования пользователя
         User author = userService.getUserById(userId);
-        log.debug("Найден автор комментария: {}", author);
+        log.debug("Найден автор комментария: {}", LogView.of(author));
 
         // Проверка существования вещи
         Item item = getItemById(itemId);
-        log.debug("Найдена вещь для комментария: {}", item);
+        log.debug("Найдена вещь для комментария: {}", LogView.of(item));
 
         // Проверка, что пользователь брал вещь в аренду и аренда завершена
         LocalDateTime now = LocalDateTime.now();
@@ -193,64 +296,101 @@ public class ItemServiceImpl implements ItemService {
         comment.setCreated(now);
 
         Comment savedComment = commentRepository.save(comment);
-        log.info("Комментарий успешно создан: {}", savedComment);
+        log.info("Комментарий успешно создан: {}", LogView.of(savedComment));
         return CommentMapper.toCommentDto(savedComment);
     }
 
     @Override
+    @WorkloadLane(Lane.LIST_READ)
     public List<CommentDto> getItemComments(Long itemId) {
         log.info("Получение комментариев для вещи с ID: {}", itemId);
 
         // Проверка существования вещи
         Item item = getItemById(itemId);
-        log.debug("Найдена вещь: {}", item);
+        log.debug("Найдена вещь: {}", LogView.of(item));
 
-        List<CommentDto> comments = commentRepository.findByItemOrderByCreatedDesc(item).stream()
-                .map(CommentMapper::toCommentDto)
-                .collect(Collectors.toList());
+        List<CommentDto> comments = findItemComments(item);
         log.debug("Найдено {} комментариев для вещи с ID {}", comments.size(), itemId);
         return comments;
     }
 
+    /**
+     * Комментарии и бронирования загружаются через {@link ParallelReads}: в параллельном режиме
+     * каждая выборка выполняется в своей транзакции, поэтому метод не удерживает собственную.
+     */
     @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public ItemDto getItemWithBookingsAndComments(Long itemId, Long userId) {
         log.info("Получение вещи с ID {} с бронированиями и комментариями для пользователя с ID {}", itemId, userId);
 
         // Проверка существования вещи
         Item item = getItemById(itemId);
-        log.debug("Найдена вещь: {}", item);
+        log.debug("Найдена вещь: {}", LogView.of(item));
 
         // Создаем DTO вещи
         ItemDto itemDto = ItemMapper.toItemDto(item);
 
-        // Получаем комментарии к вещи
-        List<CommentDto> comments = getItemComments(itemId);
-        itemDto.setComments(comments);
-        log.debug("Добавлены комментарии к вещи с ID {}: {}", itemId, comments.size());
-
-        // Если пользователь не является владельцем вещи, не добавляем информацию о бронированиях
-        if (!item.getOwner().getId().equals(userId)) {
-            log.debug("Пользователь с ID {} не является владельцем вещи с ID {}, информация о бронированиях не добавлена",
-                    userId, itemId);
-            return itemDto;
-        }
-
-        // Получаем последнее завершенное бронирование
+        // Информацию о бронированиях получает только владелец вещи
+        boolean isOwner = item.getOwner().getId().equals(userId);
         LocalDateTime now = LocalDateTime.now();
-        Booking lastBooking = bookingRepository.findFirstByItemAndEndBeforeOrderByEndDesc(item, now);
-        if (lastBooking != null) {
-            log.debug("Найдено последнее завершенное бронирование для вещи с ID {}: {}", itemId, lastBooking);
-            itemDto.setLastBooking(BookingMapper.toBookingDtoShort(lastBooking));
-        }
 
-        // Получаем ближайшее будущее бронирование
-        Booking nextBooking = bookingRepository.findFirstByItemAndStartAfterOrderByStartAsc(item, now);
-        if (nextBooking != null) {
-            log.debug("Найдено ближайшее будущее бронирование для вещи с ID {}: {}", itemId, nextBooking);
-            itemDto.setNextBooking(BookingMapper.toBookingDtoShort(nextBooking));
+        try (ParallelReads.Scope scope = parallelReads.open()) {
+            Supplier<List<Comment>> comments = scope.fork(() -> commentRepository.findByItemOrderByCreatedDesc(item));
+            Supplier<Booking> lastBooking = isOwner
+                    ? scope.fork(() -> bookingRepository.findFirstByItemAndEndBeforeOrderByEndDesc(item, now))
+                    : () -> null;
+            Supplier<Booking> nextBooking = isOwner
+                    ? scope.fork(() -> bookingRepository.findFirstByItemAndStartAfterOrderByStartAsc(item, now))
+                    : () -> null;
+            scope.join();
+
+            itemDto.setComments(comments.get().stream()
+                    .map(CommentMapper::toCommentDto)
+                    .collect(Collectors.toList()));
+            log.debug("Добавлены комментарии к вещи с ID {}: {}", itemId, itemDto.getComments().size());
+
+            if (!isOwner) {
+                itemDto.setVersionTag(ItemMapper.toVersionTag(item, comments.get()));
+                log.debug("Пользователь с ID {} не является владельцем вещи с ID {}, информация о бронированиях не добавлена",
+                        userId, itemId);
+                return itemDto;
+            }
+
+            // Последнее завершенное бронирование
+            if (lastBooking.get() != null) {
+                log.debug("Найдено последнее завершенное бронирование для вещи с ID {}: {}", itemId, lastBooking.get());
+                itemDto.setLastBooking(BookingMapper.toBookingDtoShort(lastBooking.get()));
+            }
+
+            // Ближайшее будущее бронирование
+            if (nextBooking.get() != null) {
+                log.debug("Найдено ближайшее будущее бронирование для вещи с ID {}: {}", itemId, nextBooking.get());
+                itemDto.setNextBooking(BookingMapper.toBookingDtoShort(nextBooking.get()));
+            }
         }
 
         log.debug("Вещь с ID {} успешно получена с бронированиями и комментариями", itemId);
         return itemDto;
     }
+
+    /**
+     * Получает комментарии к уже загруженной вещи.
+     *
+     * @param item вещь
+     * @return список комментариев
+     */
+    private List<CommentDto> findItemComments(Item item) {
+        return commentRepository.findByItemOrderByCreatedDesc(item).stream()
+                .map(CommentMapper::toCommentDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<String> getItemVersionTag(Long itemId, Long userId) {
+        if (negativeLookupCache.isKnownMissing(ITEM, itemId)) {
+            log.debug("Вещь с ID {} отсутствует по данным кэша", itemId);
+            return Optional.empty();
+        }
+        return itemRepository.findVersionTagForViewer(itemId, userId);
+    }
 }
\ No newline at end of file
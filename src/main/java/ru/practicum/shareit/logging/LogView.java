@@ -0,0 +1,61 @@
+package ru.practicum.shareit.logging;
+
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.util.function.Supplier;
+
+/**
+ * Краткие описания сущностей для аргументов логирования.
+ * Описание содержит ID сущности, ID связанных сущностей и ключевые поля, но не обходит связи
+ * и поэтому не вызывает загрузку ленивых ассоциаций. Строка строится только в {@code toString()},
+ * то есть только если уровень логирования включен:
+ * {@code log.debug("Найдена вещь: {}", LogView.of(item))}.
+ * Пользовательские данные (имена, email, тексты) в описания не попадают.
+ */
+public final class LogView {
+    private LogView() {
+    }
+
+    public static Object of(User user) {
+        return new Lazy(() -> user == null ? "null" : "User{id=" + user.getId() + "}");
+    }
+
+    public static Object of(Item item) {
+        return new Lazy(() -> item == null ? "null" : "Item{id=" + item.getId()
+                + ", ownerId=" + idOf(item.getOwner())
+                + ", available=" + item.getAvailable()
+                + (item.getRequest() == null ? "" : ", requestId=" + item.getRequest().getId())
+                + "}");
+    }
+
+    public static Object of(Booking booking) {
+        return new Lazy(() -> booking == null ? "null" : "Booking{id=" + booking.getId()
+                + ", itemId=" + (booking.getItem() == null ? null : booking.getItem().getId())
+                + ", bookerId=" + idOf(booking.getBooker())
+                + ", status=" + booking.getStatus()
+                + ", start=" + booking.getStart()
+                + ", end=" + booking.getEnd()
+                + "}");
+    }
+
+    public static Object of(Comment comment) {
+        return new Lazy(() -> comment == null ? "null" : "Comment{id=" + comment.getId()
+                + ", itemId=" + (comment.getItem() == null ? null : comment.getItem().getId())
+                + ", authorId=" + idOf(comment.getAuthor())
+                + "}");
+    }
+
+    private static Long idOf(User user) {
+        return user == null ? null : user.getId();
+    }
+
+    private record Lazy(Supplier<String> description) {
+        @Override
+        public String toString() {
+            return description.get();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Событие JFR: решение владельца по бронированию.
+ * Фиксируется только успешная смена статуса.
+ */
+@Name("ru.practicum.shareit.BookingApprove")
+@Label("Решение по бронированию")
+@Category({"ShareIt", "Бронирования"})
+public class BookingApproveEvent extends Event {
+    @Label("ID владельца")
+    public long userId;
+
+    @Label("ID бронирования")
+    public long bookingId;
+
+    @Label("Подтверждено")
+    public boolean approved;
+
+    /**
+     * Заполняет поля и записывает событие, если оно включено в текущей записи JFR.
+     */
+    public void commit(long userId, long bookingId, boolean approved) {
+        if (shouldCommit()) {
+            this.userId = userId;
+            this.bookingId = bookingId;
+            this.approved = approved;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Событие JFR: создание бронирования.
+ * Фиксируется только успешное создание, длительность события - время работы метода сервиса.
+ */
+@Name("ru.practicum.shareit.BookingCreate")
+@Label("Создание бронирования")
+@Category({"ShareIt", "Бронирования"})
+public class BookingCreateEvent extends Event {
+    @Label("ID букера")
+    public long userId;
+
+    @Label("ID вещи")
+    public long itemId;
+
+    @Label("ID бронирования")
+    public long bookingId;
+
+    /**
+     * Заполняет поля и записывает событие, если оно включено в текущей записи JFR.
+     */
+    public void commit(long userId, long itemId, long bookingId) {
+        if (shouldCommit()) {
+            this.userId = userId;
+            this.itemId = itemId;
+            this.bookingId = bookingId;
+            commit();
+        }
+    }
+}
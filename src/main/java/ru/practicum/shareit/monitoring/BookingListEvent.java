@@ -0,0 +1,45 @@
+package ru.practicum.shareit.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Событие JFR: выборка бронирований букера или владельца по состоянию, в том числе потоковая.
+ */
+@Name("ru.practicum.shareit.BookingList")
+@Label("Список бронирований")
+@Category({"ShareIt", "Бронирования"})
+public class BookingListEvent extends Event {
+    @Label("ID пользователя")
+    public long userId;
+
+    @Label("Роль")
+    public String role;
+
+    @Label("Состояние")
+    public String state;
+
+    @Label("Потоковая выдача")
+    public boolean streamed;
+
+    @Label("Число строк")
+    public long rows;
+
+    /**
+     * Заполняет поля и записывает событие, если оно включено в текущей записи JFR.
+     *
+     * @param role роль пользователя, см. {@link MetricRole}
+     */
+    public void commit(long userId, String role, String state, boolean streamed, long rows) {
+        if (shouldCommit()) {
+            this.userId = userId;
+            this.role = role;
+            this.state = state;
+            this.streamed = streamed;
+            this.rows = rows;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Событие JFR: поиск вещей по тексту, в том числе потоковый.
+ * Сам текст не записывается, только его длина.
+ */
+@Name("ru.practicum.shareit.ItemSearch")
+@Label("Поиск вещей")
+@Category({"ShareIt", "Вещи"})
+public class ItemSearchEvent extends Event {
+    @Label("Длина текста")
+    public int termLength;
+
+    @Label("Потоковая выдача")
+    public boolean streamed;
+
+    @Label("Найдено вещей")
+    public long hits;
+
+    /**
+     * Заполняет поля и записывает событие, если оно включено в текущей записи JFR.
+     */
+    public void commit(int termLength, boolean streamed, long hits) {
+        if (shouldCommit()) {
+            this.termLength = termLength;
+            this.streamed = streamed;
+            this.hits = hits;
+            commit();
+        }
+    }
+}
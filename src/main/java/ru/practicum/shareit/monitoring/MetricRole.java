@@ -0,0 +1,25 @@
+package ru.practicum.shareit.monitoring;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Роль пользователя, от имени которого выполняется метод сервиса.
+ * Значение попадает в тег {@code role} метрик вызова сервиса и запросов к репозиториям внутри него,
+ * чтобы отделять выборки владельца вещей от выборок букера.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface MetricRole {
+    String OWNER = "owner";
+    String BOOKER = "booker";
+
+    /**
+     * @return роль пользователя ({@link #OWNER} или {@link #BOOKER})
+     */
+    String value();
+}
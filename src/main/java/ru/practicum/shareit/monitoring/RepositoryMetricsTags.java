@@ -0,0 +1,20 @@
+package ru.practicum.shareit.monitoring;
+
+import io.micrometer.core.instrument.Tag;
+import org.springframework.boot.actuate.metrics.data.DefaultRepositoryTagsProvider;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Теги метрики запросов к репозиториям {@code spring.data.repository.invocations}.
+ * К стандартным тегам (репозиторий, метод, результат, исключение) добавляются состояние бронирований
+ * и роль пользователя вызова сервиса, внутри которого выполняется запрос.
+ */
+@Component
+public class RepositoryMetricsTags extends DefaultRepositoryTagsProvider {
+
+    @Override
+    public Iterable<Tag> repositoryTags(RepositoryMethodInvocation invocation) {
+        return ServiceMetricsAspect.currentTags().and(super.repositoryTags(invocation));
+    }
+}
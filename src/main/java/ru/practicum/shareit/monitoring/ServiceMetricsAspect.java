@@ -0,0 +1,135 @@
+package ru.practicum.shareit.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+
+/**
+ * Таймеры вызовов публичных методов сервисов пользователей, вещей и бронирований.
+ * Метрика {@value #TIMER_NAME} публикуется с гистограммой и тегами сервиса, метода, исключения,
+ * состояния бронирований ({@value #STATE_TAG}) и роли пользователя ({@value #ROLE_TAG}).
+ * Теги состояния и роли на время вызова становятся текущими для потока, и ими же помечаются
+ * запросы к репозиториям (см. {@link RepositoryMetricsTags}). Вложенный вызов другого сервиса без собственных
+ * состояния и роли, например получение пользователя при выборке бронирований владельца, наследует теги внешнего.
+ * Имя выполняемого метода сервиса доступно через {@link #currentMethod()}, например для журнала медленных SQL-запросов.
+ * Аспект выполняется снаружи транзакции, поэтому время вызова включает ее фиксацию.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceMetricsAspect {
+    public static final String TIMER_NAME = "shareit.service.calls";
+    public static final String STATE_TAG = "booking.state";
+    public static final String ROLE_TAG = "role";
+    static final String NONE = "none";
+    static final String UNKNOWN = "UNKNOWN";
+
+    private static final String STATE_PARAMETER = "state";
+    private static final Set<String> STATES = Set.of("ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED");
+    private static final Tags NO_CONTEXT = Tags.of(STATE_TAG, NONE, ROLE_TAG, NONE);
+    private static final ThreadLocal<Tags> CURRENT = new ThreadLocal<>();
+    private static final ThreadLocal<String> CURRENT_METHOD = new ThreadLocal<>();
+
+    private final MeterRegistry registry;
+
+    public ServiceMetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Возвращает теги состояния и роли вызова сервиса, выполняющегося в текущем потоке.
+     *
+     * @return теги {@value #STATE_TAG} и {@value #ROLE_TAG}, вне вызова сервиса со значениями {@value #NONE}
+     */
+    public static Tags currentTags() {
+        Tags tags = CURRENT.get();
+        return tags == null ? NO_CONTEXT : tags;
+    }
+
+    /**
+     * Возвращает метод сервиса, выполняющийся в текущем потоке.
+     *
+     * @return имя вида {@code BookingServiceImpl.getOwnerBookings} или null вне вызова сервиса
+     */
+    public static String currentMethod() {
+        return CURRENT_METHOD.get();
+    }
+
+    @Around("execution(public * ru.practicum.shareit.user.service.UserService+.*(..))"
+            + " || execution(public * ru.practicum.shareit.item.service.ItemService+.*(..))"
+            + " || execution(public * ru.practicum.shareit.booking.service.BookingService+.*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        Class<?> targetClass = ClassUtils.getUserClass(joinPoint.getTarget());
+        Method method = AopUtils.getMostSpecificMethod(signature.getMethod(), targetClass);
+        Tags previous = CURRENT.get();
+        Tags context = Tags.of(STATE_TAG, state(signature.getParameterNames(), joinPoint.getArgs()),
+                ROLE_TAG, role(method));
+        if (previous != null && context.equals(NO_CONTEXT)) {
+            context = previous;
+        }
+        CURRENT.set(context);
+        String previousMethod = CURRENT_METHOD.get();
+        CURRENT_METHOD.set(targetClass.getSimpleName() + "." + method.getName());
+        Timer.Sample sample = Timer.start(registry);
+        String exception = NONE;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(TIMER_NAME)
+                    .description("Время выполнения методов сервисов")
+                    .tags("service", targetClass.getSimpleName(), "method", method.getName(), "exception", exception)
+                    .tags(context)
+                    .publishPercentileHistogram()
+                    .register(registry));
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+            if (previousMethod == null) {
+                CURRENT_METHOD.remove();
+            } else {
+                CURRENT_METHOD.set(previousMethod);
+            }
+        }
+    }
+
+    /**
+     * Значение тега состояния берется из параметра {@code state}.
+     * Неизвестные состояния сводятся к одному значению, чтобы не плодить временные ряды.
+     */
+    private static String state(String[] parameterNames, Object[] args) {
+        if (parameterNames == null) {
+            return NONE;
+        }
+        for (int i = 0; i < parameterNames.length; i++) {
+            if (STATE_PARAMETER.equals(parameterNames[i]) && args[i] instanceof String state) {
+                String normalized = state.toUpperCase();
+                return STATES.contains(normalized) ? normalized : UNKNOWN;
+            }
+        }
+        return NONE;
+    }
+
+    private static String role(Method method) {
+        MetricRole role = AnnotationUtils.findAnnotation(method, MetricRole.class);
+        return role == null ? NONE : role.value();
+    }
+}
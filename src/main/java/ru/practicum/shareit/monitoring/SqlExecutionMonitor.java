@@ -0,0 +1,133 @@
+package ru.practicum.shareit.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.concurrent.StatementDeadlineListener;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Измерение времени выполнения SQL-запросов на уровне JDBC.
+ * Источник данных приложения оборачивается прокси, который замеряет каждый запрос:
+ * <ul>
+ *     <li>время попадает в таймер {@value #TIMER_NAME} с гистограммой по форме запроса
+ *     (см. {@link SqlStatementCounter#shapeOf(String)});</li>
+ *     <li>запросы дольше порога пишутся в лог с параметрами и вызвавшим методом сервиса;</li>
+ *     <li>доля запросов, заданная {@code shareit.sql-log.sample-rate}, пишется в лог независимо от длительности.</li>
+ * </ul>
+ * Заменяет {@code spring.jpa.show-sql}, который печатает каждый запрос.
+ * Тот же прокси ограничивает таймаут запросов крайним сроком HTTP-запроса (см. {@link StatementDeadlineListener}).
+ * Оборачиваются только конечные источники: делегирующие и маршрутизирующие источники поверх них
+ * не оборачиваются, чтобы запрос не учитывался дважды.
+ */
+@Component
+@Slf4j
+public class SqlExecutionMonitor implements BeanPostProcessor, QueryExecutionListener {
+    public static final String TIMER_NAME = "shareit.sql.execution";
+    static final String STATEMENT_TAG = "statement";
+
+    private static final String STARTED_AT = SqlExecutionMonitor.class.getName() + ".startedAt";
+    private static final int MAX_VALUE_LENGTH = 100;
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Duration slowThreshold;
+    private final double sampleRate;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public SqlExecutionMonitor(ObjectProvider<MeterRegistry> meterRegistry,
+                               @Value("${shareit.sql-log.slow-threshold:200ms}") Duration slowThreshold,
+                               @Value("${shareit.sql-log.sample-rate:0}") double sampleRate) {
+        this.meterRegistry = meterRegistry;
+        this.slowThreshold = slowThreshold;
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)
+                && !(bean instanceof DelegatingDataSource) && !(bean instanceof AbstractRoutingDataSource)) {
+            return ProxyDataSourceBuilder.create(beanName, dataSource)
+                    .listener(new StatementDeadlineListener())
+                    .listener(this)
+                    .build();
+        }
+        return bean;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(STARTED_AT, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long startedAt = execInfo.getCustomValue(STARTED_AT, Long.class);
+        if (startedAt == null) {
+            return;
+        }
+        long elapsed = System.nanoTime() - startedAt;
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            for (QueryInfo queryInfo : queryInfoList) {
+                timers.computeIfAbsent(queryInfo.getQuery(), sql -> Timer.builder(TIMER_NAME)
+                                .description("Время выполнения SQL-запросов")
+                                .tag(STATEMENT_TAG, SqlStatementCounter.shapeOf(sql))
+                                .publishPercentileHistogram()
+                                .register(registry))
+                        .record(elapsed, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (elapsed >= slowThreshold.toNanos()) {
+            log.warn("Медленный SQL-запрос, {} мс, метод {}: {}", TimeUnit.NANOSECONDS.toMillis(elapsed),
+                    ServiceMetricsAspect.currentMethod(), describe(queryInfoList));
+        } else if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            log.info("SQL-запрос, {} мкс, метод {}: {}", TimeUnit.NANOSECONDS.toMicros(elapsed),
+                    ServiceMetricsAspect.currentMethod(), describe(queryInfoList));
+        }
+    }
+
+    private static String describe(List<QueryInfo> queryInfoList) {
+        return queryInfoList.stream()
+                .map(queryInfo -> queryInfo.getQuery() + queryInfo.getParametersList().stream()
+                        .map(SqlExecutionMonitor::describeParameters)
+                        .collect(Collectors.joining(", ", " ", "")))
+                .collect(Collectors.joining("; "));
+    }
+
+    private static String describeParameters(List<ParameterSetOperation> operations) {
+        return operations.stream()
+                .filter(operation -> operation.getArgs().length > 0 && operation.getArgs()[0] instanceof Integer)
+                .sorted(Comparator.comparingInt(operation -> (Integer) operation.getArgs()[0]))
+                .map(operation -> operation.getArgs()[0] + "=" + describeValue(operation))
+                .collect(Collectors.joining(", ", "[", "]"));
+    }
+
+    private static String describeValue(ParameterSetOperation operation) {
+        if (ParameterSetOperation.isSetNullParameterOperation(operation) || operation.getArgs().length < 2) {
+            return "null";
+        }
+        String value = String.valueOf(operation.getArgs()[1]);
+        return value.length() > MAX_VALUE_LENGTH ? value.substring(0, MAX_VALUE_LENGTH) + "..." : value;
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.monitoring;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Добавляет число SQL-запросов в заголовок ответа перед записью тела.
+ * После записи тела заголовки уже отправлены, поэтому {@link SqlStatementCountFilter}
+ * может выставить заголовок сам только для ответов без тела.
+ */
+@ControllerAdvice
+public class SqlStatementCountAdvice implements ResponseBodyAdvice<Object> {
+    private final SqlStatementCountFilter filter;
+
+    public SqlStatementCountAdvice(SqlStatementCountFilter filter) {
+        this.filter = filter;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return filter.isResponseHeaderEnabled();
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && servletRequest.getServletRequest().getAttribute(SqlStatementCountFilter.STATEMENTS_ATTRIBUTE)
+                instanceof SqlStatementCounter.Statements statements) {
+            response.getHeaders().set(SqlStatementCountFilter.HEADER, String.valueOf(statements.getTotal()));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Подсчет SQL-запросов на каждый HTTP-запрос.
+ * Число запросов публикуется метрикой {@value #METRIC_NAME} с тегами метода и шаблона URI.
+ * Если включен заголовок ответа (режим разработки), число запросов отдается в {@value #HEADER}.
+ * Если запросов одной формы больше порога, в лог пишется предупреждение о возможной проблеме N+1.
+ */
+@Component
+@Slf4j
+public class SqlStatementCountFilter extends OncePerRequestFilter {
+    public static final String HEADER = "X-Sql-Statement-Count";
+    public static final String METRIC_NAME = "shareit.http.sql.statements";
+    public static final String STATEMENTS_ATTRIBUTE = SqlStatementCountFilter.class.getName() + ".statements";
+
+    private final boolean responseHeader;
+    private final int sameShapeThreshold;
+    private final ObjectProvider<MeterRegistry> registry;
+
+    public SqlStatementCountFilter(@Value("${shareit.sql-statements.response-header:false}") boolean responseHeader,
+                                   @Value("${shareit.sql-statements.same-shape-threshold:10}") int sameShapeThreshold,
+                                   ObjectProvider<MeterRegistry> registry) {
+        this.responseHeader = responseHeader;
+        this.sameShapeThreshold = sameShapeThreshold;
+        this.registry = registry;
+    }
+
+    /**
+     * @return true, если число запросов отдается в заголовке ответа
+     */
+    boolean isResponseHeaderEnabled() {
+        return responseHeader;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementCounter.Statements statements = SqlStatementCounter.start();
+        request.setAttribute(STATEMENTS_ATTRIBUTE, statements);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlStatementCounter.stop();
+            if (responseHeader && !response.isCommitted()) {
+                response.setHeader(HEADER, String.valueOf(statements.getTotal()));
+            }
+            report(request, statements);
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlStatementCounter.Statements statements) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        MeterRegistry meterRegistry = registry.getIfAvailable();
+        if (meterRegistry != null) {
+            DistributionSummary.builder(METRIC_NAME)
+                    .description("Число SQL-запросов на один HTTP-запрос")
+                    .tags("method", request.getMethod(), "uri", uri)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(statements.getTotal());
+        }
+        statements.getRepeated(sameShapeThreshold).forEach((shape, count) ->
+                log.warn("Возможна проблема N+1: {} {} выполнил {} одинаковых SQL-запросов: {}",
+                        request.getMethod(), uri, count, shape));
+    }
+}
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.monitoring;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Подсчет SQL-запросов, выполненных Hibernate в рамках одного HTTP-запроса.
+ * Счетчик регистрируется в Hibernate как {@link StatementInspector} и учитывает запросы,
+ * пока для потока открыт подсчет (см. {@link #start()}). Запросы группируются по форме:
+ * SQL с параметрами-заполнителями, в котором списки {@code in (?, ?, ...)} сведены к одному виду.
+ * Много запросов одной формы за один HTTP-запрос обычно означает проблему N+1.
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector, HibernatePropertiesCustomizer {
+    private static final ThreadLocal<Statements> CURRENT = new ThreadLocal<>();
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+
+    /**
+     * Открывает подсчет запросов для текущего потока.
+     *
+     * @return счетчик запросов, в который будут попадать выполненные потоком запросы
+     */
+    public static Statements start() {
+        Statements statements = new Statements();
+        CURRENT.set(statements);
+        return statements;
+    }
+
+    /**
+     * Закрывает подсчет запросов для текущего потока.
+     */
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Оборачивает операцию так, чтобы ее запросы учитывались в счетчике текущего потока,
+     * даже если она выполняется в другом потоке.
+     *
+     * @param task операция
+     * @param <T>  тип результата
+     * @return операция, учитывающая запросы в счетчике вызывающего потока
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        Statements statements = CURRENT.get();
+        if (statements == null) {
+            return task;
+        }
+        return () -> {
+            Statements previous = CURRENT.get();
+            CURRENT.set(statements);
+            try {
+                return task.get();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Statements statements = CURRENT.get();
+        if (statements != null) {
+            statements.record(sql);
+        }
+        return sql;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    static String shapeOf(String sql) {
+        String collapsed = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        return PARAMETER_LIST.matcher(collapsed).replaceAll("(?...)");
+    }
+
+    /**
+     * Запросы, выполненные в рамках одного HTTP-запроса.
+     * Запросы могут учитываться из нескольких потоков, например при параллельном чтении.
+     */
+    public static final class Statements {
+        private final AtomicInteger total = new AtomicInteger();
+        private final Map<String, AtomicInteger> byShape = new ConcurrentHashMap<>();
+
+        private Statements() {
+        }
+
+        void record(String sql) {
+            total.incrementAndGet();
+            byShape.computeIfAbsent(shapeOf(sql), shape -> new AtomicInteger()).incrementAndGet();
+        }
+
+        /**
+         * @return общее число выполненных запросов
+         */
+        public int getTotal() {
+            return total.get();
+        }
+
+        /**
+         * Возвращает формы запросов, выполненных больше указанного числа раз.
+         *
+         * @param threshold допустимое число запросов одной формы
+         * @return число запросов по формам, превысившим порог
+         */
+        public Map<String, Integer> getRepeated(int threshold) {
+            Map<String, Integer> repeated = new LinkedHashMap<>();
+            byShape.forEach((shape, count) -> {
+                if (count.get() > threshold) {
+                    repeated.put(shape, count.get());
+                }
+            });
+            return repeated;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Событие JFR: получение пользователя по ID, в том числе при проверках внутри других операций.
+ */
+@Name("ru.practicum.shareit.UserLookup")
+@Label("Получение пользователя")
+@Category({"ShareIt", "Пользователи"})
+public class UserLookupEvent extends Event {
+    @Label("ID пользователя")
+    public long userId;
+
+    @Label("Найден")
+    public boolean found;
+
+    @Label("Отсутствие известно из кэша")
+    public boolean cachedMiss;
+
+    /**
+     * Заполняет поля и записывает событие, если оно включено в текущей записи JFR.
+     */
+    public void commit(long userId, boolean found, boolean cachedMiss) {
+        if (shouldCommit()) {
+            this.userId = userId;
+            this.found = found;
+            this.cachedMiss = cachedMiss;
+            commit();
+        }
+    }
+}
@@ -11,6 +11,7 @@ import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
@@ -34,6 +35,7 @@ public class ItemRequest {
 
     @ManyToOne
     @JoinColumn(name = "requestor_id", nullable = false)
+    @ToString.Exclude
     private User requestor;
 
     @Column(name = "created", nullable = false)
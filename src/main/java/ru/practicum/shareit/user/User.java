@@ -6,14 +6,17 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 /**
  * Класс, представляющий пользователя сервиса.
  */
 @Entity
+@DynamicUpdate
 @Table(name = "users")
 @Data
 @AllArgsConstructor
@@ -28,4 +31,15 @@ public class User {
 
     @Column(name = "email", nullable = false, unique = true)
     private String email;
+
+    /**
+     * Версия записи: увеличивается при каждом изменении, используется как ETag.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    public User(Long id, String name, String email) {
+        this(id, name, email, 0L);
+    }
 }
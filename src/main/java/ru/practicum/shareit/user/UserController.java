@@ -1,13 +1,18 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.concurrent.RequestPriority;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.web.SheddingPriority;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Контроллер для работы с пользователями.
@@ -51,13 +56,27 @@ public class UserController {
 
     /**
      * Получает пользователя по идентификатору.
+     * Отвечает 304, если версия из {@code If-None-Match} совпадает с текущей.
+     * Отдельный запрос метки версии выполняется только для условных запросов,
+     * иначе ETag вычисляется по загруженному пользователю.
      *
-     * @param userId идентификатор пользователя
+     * @param userId  идентификатор пользователя
+     * @param request текущий запрос
      * @return пользователь
      */
     @GetMapping("/{userId}")
-    public ResponseEntity<UserDto> getUserById(@PathVariable Long userId) {
+    public ResponseEntity<UserDto> getUserById(@PathVariable Long userId, WebRequest request) {
+        boolean conditional = request.getHeader(HttpHeaders.IF_NONE_MATCH) != null;
+        if (conditional) {
+            Optional<String> versionTag = userService.getUserVersionTag(userId);
+            if (versionTag.isPresent() && request.checkNotModified(versionTag.get())) {
+                return null;
+            }
+        }
         User user = userService.getUserById(userId);
+        if (!conditional) {
+            request.checkNotModified(UserMapper.toVersionTag(user));
+        }
         return ResponseEntity.ok(UserMapper.toUserDto(user));
     }
 
@@ -66,6 +85,7 @@ public class UserController {
      *
      * @return список пользователей
      */
+    @SheddingPriority(RequestPriority.LOW)
     @GetMapping
     public ResponseEntity<List<UserDto>> getAllUsers() {
         List<User> users = userService.getAllUsers();
@@ -24,6 +24,17 @@ public class UserMapper {
         );
     }
 
+    /**
+     * Вычисляет метку версии пользователя для заголовка ETag.
+     * Формат совпадает с {@code UserService.getUserVersionTag}.
+     *
+     * @param user объект пользователя
+     * @return метка версии
+     */
+    public static String toVersionTag(User user) {
+        return String.valueOf(user.getVersion());
+    }
+
     /**
      * Преобразует UserDto в User.
      *
@@ -1,12 +1,23 @@
 package ru.practicum.shareit.user.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.user.User;
 
+import java.util.Optional;
+
 /**
  * Репозиторий для работы с пользователями.
  */
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    /**
+     * Получение версии пользователя без загрузки самой сущности.
+     *
+     * @param id идентификатор пользователя
+     * @return версия пользователя
+     */
+    @Query("select u.version from User u where u.id = ?1")
+    Optional<Long> findVersionById(Long id);
 }
\ No newline at end of file
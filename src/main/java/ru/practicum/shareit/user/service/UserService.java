@@ -3,6 +3,7 @@ package ru.practicum.shareit.user.service;
 import ru.practicum.shareit.user.User;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Интерфейс сервиса для работы с пользователями.
@@ -34,6 +35,14 @@ public interface UserService {
      */
     User getUserById(Long userId);
 
+    /**
+     * Получает метку версии пользователя для заголовка ETag, не загружая сам объект.
+     *
+     * @param userId идентификатор пользователя
+     * @return метка версии или пустое значение, если пользователь не найден
+     */
+    Optional<String> getUserVersionTag(Long userId);
+
     /**
      * Получает список всех пользователей.
      *
@@ -4,16 +4,27 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.cache.NegativeLookupCache;
+import ru.practicum.shareit.cache.PastBookingResponseCache;
+import ru.practicum.shareit.concurrent.Lane;
+import ru.practicum.shareit.concurrent.OptimisticLockRetry;
+import ru.practicum.shareit.concurrent.WorkloadLane;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.logging.LogView;
+import ru.practicum.shareit.monitoring.UserLookupEvent;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.regex.Pattern;
 
+import static ru.practicum.shareit.cache.NegativeLookupCache.EntityType.USER;
+
 /**
  * Реализация сервиса для работы с пользователями.
  */
@@ -23,15 +34,19 @@ import java.util.regex.Pattern;
 @Slf4j
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final NegativeLookupCache negativeLookupCache;
+    private final PastBookingResponseCache pastBookingResponseCache;
+    private final OptimisticLockRetry optimisticLockRetry;
 
     // Регулярное выражение для проверки формата email
-    private static final Pattern EMAIL_PATTERN = Pattern.compile(
+    static final Pattern EMAIL_PATTERN = Pattern.compile(
             "^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,6}$");
 
     @Override
     @Transactional
+    @WorkloadLane(Lane.WRITE)
     public User createUser(User user) {
-        log.info("Создание пользователя: {}", user);
+        log.info("Создание пользователя: {}", LogView.of(user));
 
         // Проверка наличия email
         if (user.getEmail() == null || user.getEmail().isBlank()) {
@@ -47,7 +62,8 @@ public class UserServiceImpl implements UserService {
 
         try {
             User savedUser = userRepository.save(user);
-            log.info("Пользователь успешно создан: {}", savedUser);
+            negativeLookupCache.forget(USER, savedUser.getId());
+            log.info("Пользователь успешно создан: {}", LogView.of(savedUser));
             return savedUser;
         } catch (DataIntegrityViolationException e) {
             log.warn("Конфликт при создании пользователя с email {}: {}", user.getEmail(), e.getMessage());
@@ -55,14 +71,24 @@ public class UserServiceImpl implements UserService {
         }
     }
 
+    /**
+     * Каждая попытка выполняется в своей транзакции через {@link OptimisticLockRetry}:
+     * при параллельном изменении пользователь перечитывается и изменения применяются повторно.
+     */
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
+    @WorkloadLane(Lane.WRITE)
     public User updateUser(Long userId, User user) {
-        log.info("Обновление пользователя с ID {}: {}", userId, user);
+        log.info("Обновление пользователя с ID {}: {}", userId, LogView.of(user));
+        return optimisticLockRetry.execute(
+                "Пользователь с ID " + userId + " изменяется параллельно, повторите запрос",
+                () -> applyUserUpdate(userId, user));
+    }
 
+    private User applyUserUpdate(Long userId, User user) {
         // Проверка существования пользователя
         User existingUser = getUserById(userId);
-        log.debug("Найден существующий пользователь: {}", existingUser);
+        log.debug("Найден существующий пользователь: {}", LogView.of(existingUser));
 
         // Проверка формата email, если он передан
         if (user.getEmail() != null) {
@@ -89,7 +115,8 @@ public class UserServiceImpl implements UserService {
         }
 
         try {
-            User updatedUser = userRepository.save(existingUser);
+            User updatedUser = userRepository.saveAndFlush(existingUser);
+            pastBookingResponseCache.evictUser(userId);
             log.info("Пользователь с ID {} успешно обновлен", userId);
             return updatedUser;
         } catch (DataIntegrityViolationException e) {
@@ -101,17 +128,38 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public User getUserById(Long userId) {
+        UserLookupEvent event = new UserLookupEvent();
+        event.begin();
         log.debug("Получение пользователя по ID: {}", userId);
+        if (negativeLookupCache.isKnownMissing(USER, userId)) {
+            log.debug("Пользователь с ID {} отсутствует по данным кэша", userId);
+            event.commit(userId, false, true);
+            throw new NotFoundException("Пользователь с ID " + userId + " не найден");
+        }
+        long generation = negativeLookupCache.generation();
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> {
                     log.warn("Пользователь с ID {} не найден", userId);
+                    negativeLookupCache.markMissing(USER, userId, generation);
+                    event.commit(userId, false, false);
                     return new NotFoundException("Пользователь с ID " + userId + " не найден");
                 });
-        log.debug("Найден пользователь: {}", user);
+        log.debug("Найден пользователь: {}", LogView.of(user));
+        event.commit(userId, true, false);
         return user;
     }
 
     @Override
+    public Optional<String> getUserVersionTag(Long userId) {
+        if (negativeLookupCache.isKnownMissing(USER, userId)) {
+            log.debug("Пользователь с ID {} отсутствует по данным кэша", userId);
+            return Optional.empty();
+        }
+        return userRepository.findVersionById(userId).map(String::valueOf);
+    }
+
+    @Override
+    @WorkloadLane(Lane.LIST_READ)
     public List<User> getAllUsers() {
         log.info("Получение списка всех пользователей");
         List<User> users = userRepository.findAll();
@@ -121,11 +169,14 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional
+    @WorkloadLane(Lane.WRITE)
     public void deleteUser(Long userId) {
         log.info("Удаление пользователя с ID: {}", userId);
         // Проверка существования пользователя
         getUserById(userId);
         userRepository.deleteById(userId);
+        negativeLookupCache.markDeleted(USER, userId);
+        pastBookingResponseCache.evictUser(userId);
         log.info("Пользователь с ID {} успешно удален", userId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.zalando.logbook.Correlation;
+import org.zalando.logbook.HttpLogWriter;
+import org.zalando.logbook.Logbook;
+import org.zalando.logbook.Precorrelation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Запись HTTP-обмена Logbook в лог из фонового потока.
+ * Поток запроса только кладет готовое сообщение в ограниченный буфер и никогда не ждет ввода-вывода логгера.
+ * Если буфер заполнен, сообщение отбрасывается и учитывается в счетчике {@value #DROPPED_METRIC}:
+ * потеря части логов при всплеске нагрузки лучше, чем рост задержки ответов.
+ * Сообщения пишутся с уровнем INFO в логгер {@code org.zalando.logbook.Logbook}.
+ */
+@Slf4j
+public class AsyncHttpLogWriter implements HttpLogWriter, AutoCloseable {
+    static final String DROPPED_METRIC = "shareit.http.log.dropped";
+    static final String QUEUE_METRIC = "shareit.http.log.queue";
+
+    private static final Logger LOGBOOK_LOG = LoggerFactory.getLogger(Logbook.class);
+    private static final long CLOSE_TIMEOUT_SECONDS = 5;
+
+    private final BlockingQueue<String> queue;
+    private final Consumer<String> output;
+    private final Counter dropped;
+    private final Thread worker;
+
+    /**
+     * @param capacity      число сообщений, ожидающих записи
+     * @param meterRegistry реестр метрик
+     */
+    public AsyncHttpLogWriter(int capacity, MeterRegistry meterRegistry) {
+        this(capacity, meterRegistry, LOGBOOK_LOG::info);
+    }
+
+    AsyncHttpLogWriter(int capacity, MeterRegistry meterRegistry, Consumer<String> output) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.output = output;
+        this.dropped = Counter.builder(DROPPED_METRIC)
+                .description("HTTP-обмены, не попавшие в лог из-за переполнения буфера")
+                .register(meterRegistry);
+        Gauge.builder(QUEUE_METRIC, queue, BlockingQueue::size)
+                .description("HTTP-обмены, ожидающие записи в лог")
+                .register(meterRegistry);
+        this.worker = Thread.ofPlatform().name("http-log-writer").daemon().start(this::drain);
+    }
+
+    @Override
+    public boolean isActive() {
+        return LOGBOOK_LOG.isInfoEnabled();
+    }
+
+    @Override
+    public void write(Precorrelation precorrelation, String request) {
+        enqueue(request);
+    }
+
+    @Override
+    public void write(Correlation correlation, String response) {
+        enqueue(response);
+    }
+
+    /**
+     * Останавливает фоновый поток, дописав сообщения, которые уже были в буфере.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(CLOSE_TIMEOUT_SECONDS));
+        List<String> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.forEach(this::output);
+    }
+
+    private void enqueue(String message) {
+        if (!queue.offer(message)) {
+            dropped.increment();
+        }
+    }
+
+    private void drain() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                output(queue.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void output(String message) {
+        try {
+            output.accept(message);
+        } catch (RuntimeException e) {
+            log.warn("Не удалось записать HTTP-обмен в лог: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.JsonGeneratorDelegate;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvGenerator;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Построчная запись объектов в тело ответа в формате CSV.
+ * Колонки и их порядок берутся из класса строки, заголовок пишется первой строкой
+ * даже при пустой выгрузке. Как и {@link NdjsonResponseWriter}, ответ начинается только при первой записи.
+ * Строковые ячейки, которые табличный редактор принял бы за формулу (начинаются с {@code =}, {@code +},
+ * {@code -}, {@code @}, табуляции или возврата каретки), записываются с префиксом {@code '}.
+ */
+public class CsvResponseWriter implements StreamingResponseWriter {
+    private static final String CONTENT_TYPE = "text/csv";
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .enable(CsvGenerator.Feature.STRICT_CHECK_FOR_QUOTING)
+            .build();
+
+    private final CsvSchema schema;
+    private final ObjectWriter objectWriter;
+    private final HttpServletResponse response;
+    private final String fileName;
+    private JsonGenerator generator;
+
+    /**
+     * @param response HTTP-ответ
+     * @param rowType  класс строки выгрузки
+     * @param fileName имя файла для заголовка {@code Content-Disposition}
+     */
+    public CsvResponseWriter(HttpServletResponse response, Class<?> rowType, String fileName) {
+        this.schema = CSV_MAPPER.schemaFor(rowType).withoutHeader();
+        this.objectWriter = CSV_MAPPER.writer(schema).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.response = response;
+        this.fileName = fileName;
+    }
+
+    @Override
+    public void write(Object value) {
+        try {
+            objectWriter.writeValue(generator(), value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        generator().flush();
+    }
+
+    private JsonGenerator generator() throws IOException {
+        if (generator == null) {
+            response.setContentType(CONTENT_TYPE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    ContentDisposition.attachment().filename(fileName).build().toString());
+            OutputStream outputStream = response.getOutputStream();
+            outputStream.write(header().getBytes(StandardCharsets.UTF_8));
+            generator = new FormulaEscapingGenerator(CSV_MAPPER.getFactory().createGenerator(outputStream));
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+        return generator;
+    }
+
+    private String header() {
+        return StreamSupport.stream(schema.spliterator(), false)
+                .map(CsvSchema.Column::getName)
+                .collect(Collectors.joining(String.valueOf(schema.getColumnSeparator()), "",
+                        String.valueOf(schema.getLineSeparator())));
+    }
+
+    /**
+     * Экранирует строковые ячейки, начинающиеся с символа формулы.
+     */
+    private static final class FormulaEscapingGenerator extends JsonGeneratorDelegate {
+
+        private FormulaEscapingGenerator(JsonGenerator delegate) {
+            super(delegate, false);
+        }
+
+        @Override
+        public void writeString(String text) throws IOException {
+            super.writeString(escape(text));
+        }
+
+        @Override
+        public void writeString(char[] buffer, int offset, int len) throws IOException {
+            writeString(new String(buffer, offset, len));
+        }
+
+        private static String escape(String text) {
+            if (text == null || text.isEmpty() || FORMULA_PREFIXES.indexOf(text.charAt(0)) < 0) {
+                return text;
+            }
+            return "'" + text;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.web;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.zalando.logbook.HttpLogWriter;
+import org.zalando.logbook.HttpRequest;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * Настройка журналирования HTTP-обмена через Logbook.
+ * Исключения по путям и ограничение размера тел задаются стандартными свойствами
+ * {@code logbook.predicate.exclude} и {@code logbook.write.max-body-size}.
+ */
+@Configuration
+public class HttpLoggingConfig {
+
+    /**
+     * Выборка запросов для журналирования. Для запросов вне выборки Logbook не копирует тела
+     * и не форматирует сообщения, поэтому их обработка не тратит на журналирование ничего.
+     * Заменяет одноименный бин автоконфигурации Logbook, исключения по путям из свойств продолжают действовать.
+     *
+     * @param sampleRate доля журналируемых запросов: 0 - журналирование выключено, 1 - все запросы
+     * @return условие журналирования запроса
+     */
+    @Bean
+    public Predicate<HttpRequest> requestCondition(@Value("${shareit.http-logging.sample-rate:1}") double sampleRate) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("Доля журналируемых запросов должна быть от 0 до 1: " + sampleRate);
+        }
+        if (sampleRate == 1) {
+            return request -> true;
+        }
+        return request -> ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    @Bean
+    public HttpLogWriter httpLogWriter(@Value("${shareit.http-logging.buffer-size:1024}") int bufferSize,
+                                       MeterRegistry meterRegistry) {
+        return new AsyncHttpLogWriter(bufferSize, meterRegistry);
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.web;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Время, отведенное эндпоинту на обработку запроса (см. {@link RequestBudgetInterceptor}).
+ * Эндпоинты без аннотации получают бюджет {@code shareit.request-budget.default}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface LatencyBudget {
+
+    /**
+     * @return бюджет в формате свойств Spring Boot, например {@code 2s} или {@code 500ms}
+     */
+    String value();
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import ru.practicum.shareit.concurrent.AimdConcurrencyLimiter;
+import ru.practicum.shareit.concurrent.RequestPriority;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Сброс нагрузки перед контроллерами пользователей, вещей и бронирований.
+ * Число одновременно обрабатываемых запросов ограничено адаптивным лимитом {@link AimdConcurrencyLimiter},
+ * который подстраивается под измеренное время ответа. Запрос сверх лимита сразу получает ответ 503
+ * с заголовком Retry-After, а не ждет в очереди потоков Tomcat и пула соединений.
+ * Приоритет эндпоинта задается аннотацией {@link SheddingPriority}: при перегрузке первыми отклоняются
+ * поиск и выборки списков, последними - создание и подтверждение бронирований.
+ * Время потоковых выгрузок определяется объемом данных, а не загрузкой сервиса, поэтому они занимают место
+ * в лимите, но не влияют на его пересчет. Лимит растет только от успешных ответов: быстрые 4xx
+ * (ошибки проверки, 404, 429) не означают, что сервис может принять больше запросов.
+ * <p>
+ * Метрики: текущий лимит {@value #LIMIT_METRIC}, выполняющиеся запросы {@value #IN_FLIGHT_METRIC}
+ * и отклоненные запросы {@value #REJECTED_METRIC} с тегом приоритета.
+ */
+@Component
+public class LoadSheddingInterceptor implements HandlerInterceptor {
+    public static final String LIMIT_METRIC = "shareit.concurrency.limit";
+    public static final String IN_FLIGHT_METRIC = "shareit.concurrency.in-flight";
+    public static final String REJECTED_METRIC = "shareit.concurrency.rejected";
+
+    private static final String STARTED_AT = LoadSheddingInterceptor.class.getName() + ".startedAt";
+    private static final String SAMPLED = LoadSheddingInterceptor.class.getName() + ".sampled";
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final boolean enabled;
+    private final AimdConcurrencyLimiter limiter;
+    private final Map<RequestPriority, Counter> rejected = new EnumMap<>(RequestPriority.class);
+
+    public LoadSheddingInterceptor(@Value("${shareit.concurrency-limit.enabled:true}") boolean enabled,
+                                   @Value("${shareit.concurrency-limit.initial-limit:20}") int initialLimit,
+                                   @Value("${shareit.concurrency-limit.min-limit:4}") int minLimit,
+                                   @Value("${shareit.concurrency-limit.max-limit:200}") int maxLimit,
+                                   @Value("${shareit.concurrency-limit.latency-threshold:250ms}")
+                                   Duration latencyThreshold,
+                                   @Value("${shareit.concurrency-limit.backoff-ratio:0.9}") double backoffRatio,
+                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        this.enabled = enabled;
+        this.limiter = new AimdConcurrencyLimiter(initialLimit, minLimit, maxLimit, latencyThreshold, backoffRatio);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            Gauge.builder(LIMIT_METRIC, limiter, AimdConcurrencyLimiter::getLimit)
+                    .description("Адаптивный лимит одновременно обрабатываемых запросов")
+                    .register(registry);
+            Gauge.builder(IN_FLIGHT_METRIC, limiter, AimdConcurrencyLimiter::getInFlight)
+                    .description("Одновременно обрабатываемые запросы")
+                    .register(registry);
+            for (RequestPriority priority : RequestPriority.values()) {
+                rejected.put(priority, Counter.builder(REJECTED_METRIC)
+                        .description("Запросы, отклоненные при перегрузке")
+                        .tag("priority", priority.name().toLowerCase())
+                        .register(registry));
+            }
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!enabled || request.getDispatcherType() != DispatcherType.REQUEST
+                || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        RequestPriority priority = priority(handlerMethod);
+        if (!limiter.tryAcquire(priority)) {
+            Counter counter = rejected.get(priority);
+            if (counter != null) {
+                counter.increment();
+            }
+            throw new ServiceUnavailableException("Сервис перегружен, повторите запрос позже", RETRY_AFTER);
+        }
+        request.setAttribute(STARTED_AT, System.nanoTime());
+        request.setAttribute(SAMPLED, sampled(handlerMethod));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(STARTED_AT) instanceof Long startedAt) {
+            request.removeAttribute(STARTED_AT);
+            if (Boolean.TRUE.equals(request.getAttribute(SAMPLED))) {
+                limiter.release(System.nanoTime() - startedAt, ex == null && response.getStatus() < 400);
+            } else {
+                limiter.releaseWithoutSample();
+            }
+        }
+    }
+
+    private static RequestPriority priority(HandlerMethod handlerMethod) {
+        SheddingPriority annotation = handlerMethod.getMethodAnnotation(SheddingPriority.class);
+        return annotation == null ? RequestPriority.NORMAL : annotation.value();
+    }
+
+    private static boolean sampled(HandlerMethod handlerMethod) {
+        SheddingPriority annotation = handlerMethod.getMethodAnnotation(SheddingPriority.class);
+        return annotation == null || annotation.latencySampled();
+    }
+}
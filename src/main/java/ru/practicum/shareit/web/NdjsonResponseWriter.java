@@ -0,0 +1,68 @@
+package ru.practicum.shareit.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Построчная запись объектов в тело ответа в формате NDJSON (один JSON-объект на строку).
+ * Каждый объект сериализуется сразу в выходной поток ответа, поэтому объем памяти не зависит
+ * от числа записей, а медленный клиент притормаживает чтение из базы данных через блокирующую запись.
+ * Ответ начинается только при первой записи: исключение, выброшенное до нее,
+ * обрабатывается {@link ru.practicum.shareit.exception.ErrorHandler} как обычно.
+ */
+public class NdjsonResponseWriter implements StreamingResponseWriter {
+    private static final SerializedString LINE_SEPARATOR = new SerializedString("\n");
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter objectWriter;
+    private final HttpServletResponse response;
+    private JsonGenerator generator;
+
+    public NdjsonResponseWriter(ObjectMapper objectMapper, HttpServletResponse response) {
+        this.objectMapper = objectMapper;
+        this.objectWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.response = response;
+    }
+
+    @Override
+    public void write(Object value) {
+        try {
+            objectWriter.writeValue(generator(), value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Завершает ответ, дописывая перевод строки после последнего объекта.
+     *
+     * @throws IOException при ошибке записи в ответ
+     */
+    @Override
+    public void finish() throws IOException {
+        JsonGenerator jsonGenerator = generator();
+        if (jsonGenerator.getOutputContext().getEntryCount() > 0) {
+            jsonGenerator.writeRaw('\n');
+        }
+        jsonGenerator.flush();
+    }
+
+    private JsonGenerator generator() throws IOException {
+        if (generator == null) {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            generator = objectMapper.getFactory().createGenerator(response.getOutputStream());
+            generator.setRootValueSeparator(LINE_SEPARATOR);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+        return generator;
+    }
+}
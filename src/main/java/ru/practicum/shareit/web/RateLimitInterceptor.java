@@ -0,0 +1,128 @@
+package ru.practicum.shareit.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import ru.practicum.shareit.concurrent.RateBudget;
+import ru.practicum.shareit.concurrent.TokenBucketRateLimiter;
+import ru.practicum.shareit.concurrent.TokenBucketRateLimiter.Limit;
+import ru.practicum.shareit.exception.ErrorHandler;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Ограничение частоты запросов каждого пользователя, определяемого по заголовку {@value #USER_ID_HEADER}.
+ * Эндпоинт расходует токены бюджета, заданного аннотацией {@link RateLimited}; у поиска, выборок списков
+ * и записи бюджеты раздельные, так что исчерпавший поиск пользователь может создавать бронирования.
+ * Когда корзина пуста, запрос получает ответ 429 с заголовками Retry-After и
+ * {@value ErrorHandler#RATE_LIMIT_HEADER}. Допущенные запросы получают в ответе
+ * {@value ErrorHandler#RATE_LIMIT_HEADER} и {@value ErrorHandler#RATE_LIMIT_REMAINING_HEADER}.
+ * Эндпоинты, которые не принимают заголовок пользователя (например, поиск), расходуют корзину адреса клиента
+ * независимо от заголовка: иначе клиент получал бы новую корзину, подставляя каждый раз новый ID.
+ * Запросы без заголовка или с нечисловым значением также расходуют корзину адреса.
+ * <p>
+ * Метрики: отклоненные запросы {@value #REJECTED_METRIC} с тегом бюджета и число корзин {@value #BUCKETS_METRIC}.
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+    public static final String REJECTED_METRIC = "shareit.rate-limit.rejected";
+    public static final String BUCKETS_METRIC = "shareit.rate-limit.buckets";
+    static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private final boolean enabled;
+    private final Map<RateBudget, Limit> limits = new EnumMap<>(RateBudget.class);
+    private final TokenBucketRateLimiter limiter;
+    private final Map<RateBudget, Counter> rejected = new EnumMap<>(RateBudget.class);
+
+    public RateLimitInterceptor(@Value("${shareit.rate-limit.enabled:true}") boolean enabled,
+                                @Value("${shareit.rate-limit.search.capacity:20}") int searchCapacity,
+                                @Value("${shareit.rate-limit.search.refill-per-second:5}") double searchRefill,
+                                @Value("${shareit.rate-limit.list.capacity:30}") int listCapacity,
+                                @Value("${shareit.rate-limit.list.refill-per-second:10}") double listRefill,
+                                @Value("${shareit.rate-limit.write.capacity:20}") int writeCapacity,
+                                @Value("${shareit.rate-limit.write.refill-per-second:5}") double writeRefill,
+                                @Value("${shareit.rate-limit.max-buckets:100000}") int maxBuckets,
+                                ObjectProvider<MeterRegistry> meterRegistry) {
+        this.enabled = enabled;
+        limits.put(RateBudget.SEARCH, new Limit(searchCapacity, searchRefill));
+        limits.put(RateBudget.LIST, new Limit(listCapacity, listRefill));
+        limits.put(RateBudget.WRITE, new Limit(writeCapacity, writeRefill));
+        this.limiter = new TokenBucketRateLimiter(limits, maxBuckets);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            Gauge.builder(BUCKETS_METRIC, limiter, TokenBucketRateLimiter::size)
+                    .description("Корзины токенов клиентов в памяти")
+                    .register(registry);
+            for (RateBudget budget : RateBudget.values()) {
+                rejected.put(budget, Counter.builder(REJECTED_METRIC)
+                        .description("Запросы, отклоненные из-за превышения частоты")
+                        .tag("budget", budget.key())
+                        .register(registry));
+            }
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!enabled || request.getDispatcherType() != DispatcherType.REQUEST
+                || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        RateLimited rateLimited = handlerMethod.getMethodAnnotation(RateLimited.class);
+        if (rateLimited == null) {
+            return true;
+        }
+        RateBudget budget = rateLimited.value();
+        int capacity = limits.get(budget).capacity();
+        TokenBucketRateLimiter.Result result = limiter.tryConsume(budget, client(request, handlerMethod));
+        if (!result.allowed()) {
+            Counter counter = rejected.get(budget);
+            if (counter != null) {
+                counter.increment();
+            }
+            throw new TooManyRequestsException("Превышена допустимая частота запросов, повторите запрос позже",
+                    result.retryAfter(), capacity);
+        }
+        response.setHeader(ErrorHandler.RATE_LIMIT_HEADER, String.valueOf(capacity));
+        response.setHeader(ErrorHandler.RATE_LIMIT_REMAINING_HEADER, String.valueOf(result.remaining()));
+        return true;
+    }
+
+    /**
+     * Определяет ключ корзины: ID пользователя из заголовка, если эндпоинт его принимает, иначе адрес клиента.
+     * Адрес хранится строкой, поэтому его корзина не совпадает с корзиной пользователя.
+     */
+    private static Object client(HttpServletRequest request, HandlerMethod handlerMethod) {
+        String header = request.getHeader(USER_ID_HEADER);
+        if (header != null && acceptsUserHeader(handlerMethod)) {
+            try {
+                return Long.valueOf(header.trim());
+            } catch (NumberFormatException e) {
+                // Нечисловой заголовок не идентифицирует пользователя
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private static boolean acceptsUserHeader(HandlerMethod handlerMethod) {
+        for (MethodParameter parameter : handlerMethod.getMethodParameters()) {
+            RequestHeader requestHeader = parameter.getParameterAnnotation(RequestHeader.class);
+            if (requestHeader != null && USER_ID_HEADER.equalsIgnoreCase(requestHeader.value())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.web;
+
+import ru.practicum.shareit.concurrent.RateBudget;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Бюджет частоты запросов пользователя, из которого расходует эндпоинт (см. {@link RateLimitInterceptor}).
+ * Эндпоинты без аннотации частоту запросов не ограничивают.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RateLimited {
+
+    /**
+     * @return бюджет эндпоинта
+     */
+    RateBudget value();
+}
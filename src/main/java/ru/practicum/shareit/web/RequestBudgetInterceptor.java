@@ -0,0 +1,58 @@
+package ru.practicum.shareit.web;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import ru.practicum.shareit.concurrent.RequestDeadline;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Установка крайнего срока обработки запроса по бюджету эндпоинта (см. {@link LatencyBudget}).
+ * Срок ограничивает таймауты транзакций и SQL-запросов (см. {@link RequestDeadline}),
+ * так что запрос, исчерпавший бюджет, отменяется в базе и освобождает соединение.
+ * Потоковые выгрузки при отключении клиента прерываются ошибкой записи в ответ, остальные запросы
+ * ограничены бюджетом.
+ */
+@Component
+public class RequestBudgetInterceptor implements HandlerInterceptor {
+    private final boolean enabled;
+    private final Duration defaultBudget;
+    private final Map<Method, Duration> budgets = new ConcurrentHashMap<>();
+
+    public RequestBudgetInterceptor(@Value("${shareit.request-budget.enabled:true}") boolean enabled,
+                                    @Value("${shareit.request-budget.default:5s}") Duration defaultBudget) {
+        this.enabled = enabled;
+        this.defaultBudget = defaultBudget;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (enabled && request.getDispatcherType() == DispatcherType.REQUEST
+                && handler instanceof HandlerMethod handlerMethod) {
+            RequestDeadline.start(budget(handlerMethod));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        RequestDeadline.clear();
+    }
+
+    private Duration budget(HandlerMethod handlerMethod) {
+        return budgets.computeIfAbsent(handlerMethod.getMethod(), method -> {
+            LatencyBudget annotation = handlerMethod.getMethodAnnotation(LatencyBudget.class);
+            return annotation == null ? defaultBudget : DurationStyle.detectAndParse(annotation.value());
+        });
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.web;
+
+import ru.practicum.shareit.concurrent.RequestPriority;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Приоритет эндпоинта при сбросе нагрузки (см. {@link LoadSheddingInterceptor}).
+ * Эндпоинты без аннотации имеют приоритет {@link RequestPriority#NORMAL}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SheddingPriority {
+
+    /**
+     * @return приоритет эндпоинта
+     */
+    RequestPriority value();
+
+    /**
+     * @return false, если длительность запроса не должна влиять на лимит, например для потоковой выгрузки
+     */
+    boolean latencySampled() default true;
+}
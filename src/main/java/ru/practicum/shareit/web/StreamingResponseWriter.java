@@ -0,0 +1,26 @@
+package ru.practicum.shareit.web;
+
+import java.io.IOException;
+
+/**
+ * Построчная запись объектов в тело ответа по мере их получения.
+ * Запись блокируется, пока клиент не прочитает ответ, а объекты поступают из открытой транзакции,
+ * поэтому медленный клиент удерживает соединение с базой данных. Число одновременных выгрузок
+ * ограничено полосой {@link ru.practicum.shareit.concurrent.Lane#STREAM}.
+ */
+public interface StreamingResponseWriter {
+
+    /**
+     * Записывает объект отдельной строкой.
+     *
+     * @param value записываемый объект
+     */
+    void write(Object value);
+
+    /**
+     * Завершает ответ и сбрасывает буферы.
+     *
+     * @throws IOException при ошибке записи в ответ
+     */
+    void finish() throws IOException;
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.web;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Настройка Spring MVC.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+    private final ObjectProvider<RequestBudgetInterceptor> requestBudgetInterceptor;
+    private final ObjectProvider<RateLimitInterceptor> rateLimitInterceptor;
+    private final ObjectProvider<LoadSheddingInterceptor> loadSheddingInterceptor;
+
+    public WebConfig(ObjectProvider<RequestBudgetInterceptor> requestBudgetInterceptor,
+                     ObjectProvider<RateLimitInterceptor> rateLimitInterceptor,
+                     ObjectProvider<LoadSheddingInterceptor> loadSheddingInterceptor) {
+        this.requestBudgetInterceptor = requestBudgetInterceptor;
+        this.rateLimitInterceptor = rateLimitInterceptor;
+        this.loadSheddingInterceptor = loadSheddingInterceptor;
+    }
+
+    /**
+     * Подключает крайний срок обработки, ограничение частоты запросов пользователей и сброс нагрузки
+     * к контроллерам пользователей, вещей и бронирований. Частота проверяется до сброса нагрузки,
+     * чтобы запросы сверх бюджета пользователя не занимали места в общем лимите.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        requestBudgetInterceptor.ifAvailable(interceptor -> registry.addInterceptor(interceptor)
+                .addPathPatterns("/users/**", "/items/**", "/bookings/**"));
+        rateLimitInterceptor.ifAvailable(interceptor -> registry.addInterceptor(interceptor)
+                .addPathPatterns("/users/**", "/items/**", "/bookings/**"));
+        loadSheddingInterceptor.ifAvailable(interceptor -> registry.addInterceptor(interceptor)
+                .addPathPatterns("/users/**", "/items/**", "/bookings/**"));
+    }
+
+    /**
+     * Разрешает JSON-конвертеру писать ответы с типом {@code application/x-ndjson}.
+     * Нужно, чтобы ошибки потоковых эндпоинтов отдавались клиенту, запросившему NDJSON,
+     * в виде одной JSON-строки, а не заканчивались ответом 406.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.stream()
+                .filter(MappingJackson2HttpMessageConverter.class::isInstance)
+                .map(MappingJackson2HttpMessageConverter.class::cast)
+                .forEach(converter -> {
+                    List<MediaType> mediaTypes = new ArrayList<>(converter.getSupportedMediaTypes());
+                    mediaTypes.add(MediaType.APPLICATION_NDJSON);
+                    converter.setSupportedMediaTypes(mediaTypes);
+                });
+    }
+}
@@ -3,6 +3,7 @@ CREATE TABLE IF NOT EXISTS users (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
   name VARCHAR(255) NOT NULL,
   email VARCHAR(512) NOT NULL,
+  version BIGINT NOT NULL DEFAULT 0,
   CONSTRAINT pk_user PRIMARY KEY (id),
   CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
 );
@@ -25,6 +26,7 @@ CREATE TABLE IF NOT EXISTS items (
   is_available BOOLEAN NOT NULL,
   owner_id BIGINT NOT NULL,
   request_id BIGINT,
+  version BIGINT NOT NULL DEFAULT 0,
   CONSTRAINT pk_item PRIMARY KEY (id),
   CONSTRAINT fk_item_owner FOREIGN KEY (owner_id) REFERENCES users (id),
   CONSTRAINT fk_item_request FOREIGN KEY (request_id) REFERENCES requests (id)
@@ -38,11 +40,36 @@ CREATE TABLE IF NOT EXISTS bookings (
   item_id BIGINT NOT NULL,
   booker_id BIGINT NOT NULL,
   status VARCHAR(20) NOT NULL,
+  change_version BIGINT NOT NULL DEFAULT 0,
+  version BIGINT NOT NULL DEFAULT 0,
   CONSTRAINT pk_booking PRIMARY KEY (id),
   CONSTRAINT fk_booking_item FOREIGN KEY (item_id) REFERENCES items (id),
   CONSTRAINT fk_booking_booker FOREIGN KEY (booker_id) REFERENCES users (id)
 );
 
+-- Booking change feed: version is taken from the counter at commit of create and status change.
+-- The counter row lock is held until commit, so versions become visible in increasing order.
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS change_version BIGINT NOT NULL DEFAULT 0;
+CREATE INDEX IF NOT EXISTS idx_booking_change_version ON bookings (change_version);
+CREATE TABLE IF NOT EXISTS booking_change_counter (
+  id INTEGER NOT NULL,
+  last_version BIGINT NOT NULL,
+  CONSTRAINT pk_booking_change_counter PRIMARY KEY (id)
+);
+INSERT INTO booking_change_counter (id, last_version)
+SELECT 1, (SELECT COALESCE(MAX(change_version), 0) FROM bookings)
+WHERE NOT EXISTS (SELECT 1 FROM booking_change_counter WHERE id = 1);
+-- Rows created before the change feed get distinct versions above all issued ones,
+-- so the initial sync with since=0 returns them
+UPDATE bookings SET change_version = (SELECT last_version FROM booking_change_counter WHERE id = 1) + id
+WHERE change_version = 0;
+UPDATE booking_change_counter SET last_version = (SELECT MAX(change_version) FROM bookings)
+WHERE id = 1 AND last_version < (SELECT COALESCE(MAX(change_version), 0) FROM bookings);
+
+-- Owner booking summary: items of the owner, then their bookings
+CREATE INDEX IF NOT EXISTS idx_item_owner ON items (owner_id);
+CREATE INDEX IF NOT EXISTS idx_booking_item ON bookings (item_id);
+
 -- Comments table
 CREATE TABLE IF NOT EXISTS comments (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
@@ -53,4 +80,9 @@ CREATE TABLE IF NOT EXISTS comments (
   CONSTRAINT pk_comment PRIMARY KEY (id),
   CONSTRAINT fk_comment_item FOREIGN KEY (item_id) REFERENCES items (id),
   CONSTRAINT fk_comment_author FOREIGN KEY (author_id) REFERENCES users (id)
-);
\ No newline at end of file
+);
+
+-- Optimistic lock versions, also used as ETags of GET responses
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,369 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.Booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.monitoring.SqlStatementCountFilter;
+import ru.practicum.shareit.monitoring.SqlStatementCounter;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Регрессионные тесты числа SQL-запросов для всех эндпоинтов.
+ * База заполняется объемом данных, на котором проблема N+1 заметна сразу:
+ * у владельца {@value #ITEMS} вещей и {@value #BOOKINGS} бронирований в разных состояниях,
+ * у вещей есть комментарии, часть вещей создана по запросам разных пользователей. Для каждого эндпоинта задана верхняя граница числа запросов,
+ * не зависящая от объема данных; ее превышение роняет сборку.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EndpointQueryCountTest {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final int ITEMS = 20;
+    private static final int BOOKERS = 10;
+    private static final int BOOKINGS = 200;
+    private static final int REQUESTS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User owner;
+    private User booker;
+    private List<Item> items;
+    private Booking pastBooking;
+    private Booking waitingBooking;
+
+    @BeforeAll
+    void seed() {
+        LocalDateTime now = LocalDateTime.now();
+        owner = userRepository.save(new User(null, "Query Owner", "query.owner@example.com"));
+        List<User> bookers = new ArrayList<>();
+        for (int i = 0; i < BOOKERS; i++) {
+            bookers.add(new User(null, "Query Booker " + i, "query.booker" + i + "@example.com"));
+        }
+        bookers = userRepository.saveAll(bookers);
+        booker = bookers.get(0);
+
+        List<ItemRequest> requests = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            ItemRequest request = new ItemRequest(null, "Query request " + i, bookers.get(i), now.minusDays(2));
+            transactionTemplate.executeWithoutResult(status -> entityManager.persist(request));
+            requests.add(request);
+        }
+
+        items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(new Item(null, "Query drill " + i, "Query item " + i, true, owner,
+                    i % 2 == 0 ? requests.get(i / 2 % REQUESTS) : null));
+        }
+        items = itemRepository.saveAll(items);
+
+        List<Booking> bookings = new ArrayList<>();
+        BookingStatus[] statuses = BookingStatus.values();
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDateTime start = now.plusDays(i % 3 - 1).minusHours(i % 5 + 2);
+            Booking booking = new Booking(null, start, start.plusHours(i % 3 == 1 ? 48 : 1),
+                    items.get(i % ITEMS), bookers.get(i % BOOKERS), statuses[i / BOOKERS % statuses.length]);
+            booking.setChangeVersion(i + 1);
+            bookings.add(booking);
+        }
+        bookings = bookingRepository.saveAll(bookings);
+        pastBooking = bookings.stream()
+                .filter(booking -> booking.getEnd().isBefore(now) && booking.getStatus() == BookingStatus.APPROVED
+                        && booking.getBooker().getId().equals(booker.getId()))
+                .findFirst()
+                .orElseThrow();
+        waitingBooking = bookings.stream()
+                .filter(booking -> booking.getStart().isAfter(now) && booking.getStatus() == BookingStatus.WAITING)
+                .findFirst()
+                .orElseThrow();
+
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < ITEMS * 3; i++) {
+            comments.add(new Comment(null, "Query comment " + i, items.get(i % ITEMS), bookers.get(i % BOOKERS),
+                    now.minusDays(1)));
+        }
+        commentRepository.saveAll(comments);
+    }
+
+    /**
+     * Создание пользователя: только вставка.
+     */
+    @Test
+    void createUser() throws Exception {
+        UserDto user = new UserDto(null, "Created", "query.created@example.com");
+        assertStatements(post("/users").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(user)), 1);
+    }
+
+    /**
+     * Обновление пользователя: чтение и частичный UPDATE.
+     */
+    @Test
+    void updateUser() throws Exception {
+        User user = userRepository.save(new User(null, "To update", "query.update@example.com"));
+        UserDto patch = new UserDto(null, "Updated", null);
+        assertStatements(patch("/users/" + user.getId()).contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(patch)), 2);
+    }
+
+    /**
+     * Получение пользователя одним запросом: без If-None-Match метка версии не запрашивается.
+     */
+    @Test
+    void getUserById() throws Exception {
+        assertStatements(get("/users/" + owner.getId()), 1);
+    }
+
+    /**
+     * Список пользователей одним запросом.
+     */
+    @Test
+    void getAllUsers() throws Exception {
+        assertStatements(get("/users"), 1);
+    }
+
+    /**
+     * Удаление пользователя без вещей.
+     */
+    @Test
+    void deleteUser() throws Exception {
+        User user = userRepository.save(new User(null, "To delete", "query.delete@example.com"));
+        assertStatements(delete("/users/" + user.getId()), 2);
+    }
+
+    /**
+     * Создание вещи: проверка владельца и вставка.
+     */
+    @Test
+    void createItem() throws Exception {
+        ItemDto item = new ItemDto();
+        item.setName("Created item");
+        item.setDescription("Created description");
+        item.setAvailable(true);
+        assertStatements(post("/items").header(USER_ID_HEADER, owner.getId()).contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(item)), 2);
+    }
+
+    /**
+     * Обновление вещи: чтение вместе с владельцем и частичный UPDATE.
+     */
+    @Test
+    void updateItem() throws Exception {
+        ItemDto patch = new ItemDto();
+        patch.setDescription("Updated description");
+        assertStatements(patch("/items/" + items.get(ITEMS - 1).getId()).header(USER_ID_HEADER, owner.getId())
+                .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(patch)), 2);
+    }
+
+    /**
+     * Вещь для владельца: вещь, комментарии, последнее и следующее бронирования.
+     */
+    @Test
+    void getItemByIdAsOwner() throws Exception {
+        assertStatements(get("/items/" + items.get(0).getId()).header(USER_ID_HEADER, owner.getId()), 5);
+    }
+
+    /**
+     * Вещь для другого пользователя: без бронирований.
+     */
+    @Test
+    void getItemByIdAsBooker() throws Exception {
+        assertStatements(get("/items/" + items.get(0).getId()).header(USER_ID_HEADER, booker.getId()), 3);
+    }
+
+    /**
+     * Вещи владельца с бронированиями и комментариями: число запросов не зависит от числа вещей.
+     */
+    @Test
+    void getUserItems() throws Exception {
+        assertStatements(get("/items").header(USER_ID_HEADER, owner.getId()), 2);
+    }
+
+    /**
+     * Потоковая выгрузка вещей владельца: запросы, по которым созданы вещи, загружаются тем же запросом.
+     */
+    @Test
+    void streamUserItems() throws Exception {
+        assertStatements(get("/items").header(USER_ID_HEADER, owner.getId())
+                .accept(MediaType.APPLICATION_NDJSON), 2);
+    }
+
+    /**
+     * Поиск вещей вместе с владельцами и запросами одним запросом.
+     */
+    @Test
+    void searchItems() throws Exception {
+        assertStatements(get("/items/search").param("text", "query"), 1);
+    }
+
+    /**
+     * Потоковый поиск вещей вместе с владельцами и запросами.
+     */
+    @Test
+    void streamSearchItems() throws Exception {
+        assertStatements(get("/items/search").param("text", "query").accept(MediaType.APPLICATION_NDJSON), 1);
+    }
+
+    /**
+     * Добавление комментария: пользователь, вещь, проверка бронирования и вставка.
+     */
+    @Test
+    void createComment() throws Exception {
+        CommentDto comment = new CommentDto();
+        comment.setText("New comment");
+        assertStatements(post("/items/" + pastBooking.getItem().getId() + "/comment")
+                .header(USER_ID_HEADER, booker.getId()).contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(comment)), 4);
+    }
+
+    /**
+     * Создание бронирования: пользователь, вещь, вставка и при фиксации счетчик версий и версия бронирования.
+     */
+    @Test
+    void createBooking() throws Exception {
+        BookingDto booking = new BookingDto(null, LocalDateTime.now().plusDays(10), LocalDateTime.now().plusDays(11),
+                items.get(1).getId());
+        assertStatements(post("/bookings").header(USER_ID_HEADER, booker.getId())
+                .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(booking)), 5);
+    }
+
+    /**
+     * Подтверждение бронирования: чтение, UPDATE и при фиксации счетчик версий и версия бронирования.
+     */
+    @Test
+    void approveBooking() throws Exception {
+        assertStatements(patch("/bookings/" + waitingBooking.getId()).header(USER_ID_HEADER, owner.getId())
+                .param("approved", "true"), 4);
+    }
+
+    /**
+     * Получение бронирования одним чтением вместе с вещью и букером.
+     */
+    @Test
+    void getBookingById() throws Exception {
+        assertStatements(get("/bookings/" + pastBooking.getId()).header(USER_ID_HEADER, owner.getId()), 1);
+    }
+
+    /**
+     * Изменения бронирований одним запросом вместе с вещами и букерами.
+     */
+    @Test
+    void getBookingChanges() throws Exception {
+        assertStatements(get("/bookings/changes").header(USER_ID_HEADER, owner.getId()), 2);
+    }
+
+    /**
+     * Бронирования букера в каждом состоянии: вещи и пользователи загружаются тем же запросом.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
+    void getUserBookings(String state) throws Exception {
+        assertStatements(get("/bookings").param("state", state).header(USER_ID_HEADER, booker.getId()), 2);
+    }
+
+    /**
+     * Бронирования владельца в каждом состоянии: вещи и пользователи загружаются тем же запросом.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
+    void getOwnerBookings(String state) throws Exception {
+        assertStatements(get("/bookings/owner").param("state", state).header(USER_ID_HEADER, owner.getId()), 2);
+    }
+
+    /**
+     * Потоковая выгрузка бронирований букера.
+     */
+    @Test
+    void streamUserBookings() throws Exception {
+        assertStatements(get("/bookings").header(USER_ID_HEADER, booker.getId())
+                .accept(MediaType.APPLICATION_NDJSON), 2);
+    }
+
+    /**
+     * Потоковая выгрузка бронирований владельца.
+     */
+    @Test
+    void streamOwnerBookings() throws Exception {
+        assertStatements(get("/bookings/owner").header(USER_ID_HEADER, owner.getId())
+                .accept(MediaType.APPLICATION_NDJSON), 2);
+    }
+
+    /**
+     * Выгрузка бронирований владельца в CSV.
+     */
+    @Test
+    void exportOwnerBookings() throws Exception {
+        assertStatements(get("/bookings/owner/export").param("format", "csv")
+                .header(USER_ID_HEADER, owner.getId()), 2);
+    }
+
+    private void assertStatements(RequestBuilder request, int maxStatements) throws Exception {
+        MvcResult result = mockMvc.perform(request).andExpect(status().is2xxSuccessful()).andReturn();
+        SqlStatementCounter.Statements statements = (SqlStatementCounter.Statements)
+                result.getRequest().getAttribute(SqlStatementCountFilter.STATEMENTS_ATTRIBUTE);
+        assertTrue(statements.getTotal() <= maxStatements, () -> String.format(
+                "%s %s выполнил %d SQL-запросов, допустимо не больше %d",
+                result.getRequest().getMethod(), result.getRequest().getRequestURI(),
+                statements.getTotal(), maxStatements));
+    }
+}
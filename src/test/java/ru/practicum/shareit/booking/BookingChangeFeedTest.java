@@ -0,0 +1,137 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.Booking.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тесты ленты изменений бронирований на реальной базе данных:
+ * порядок версий при параллельных транзакциях и версии бронирований, созданных до появления ленты.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingChangeFeedTest {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        long suffix = System.nanoTime();
+        User owner = userRepository.save(new User(null, "Feed Owner", "feed.owner" + suffix + "@example.com"));
+        booker = userRepository.save(new User(null, "Feed Booker", "feed.booker" + suffix + "@example.com"));
+        item = itemRepository.save(new Item(null, "Feed item", "Feed item", true, owner, null));
+    }
+
+    /**
+     * Тест на транзакцию, начавшую изменение раньше, а зафиксированную позже другой.
+     * Клиент, синхронизировавшийся между фиксациями, получает её изменение при следующем запросе.
+     */
+    @Test
+    void findChangedSince_TransactionCommittedLater_ShouldNotBeSkipped() throws Exception {
+        // Подготовка
+        CountDownLatch firstSaved = new CountDownLatch(1);
+        CountDownLatch commitFirst = new CountDownLatch(1);
+        CompletableFuture<Booking> first = CompletableFuture.supplyAsync(() ->
+                transactionTemplate.execute(status -> {
+                    Booking booking = bookingRepository.save(newBooking());
+                    bookingRepository.markChanged(booking.getId());
+                    firstSaved.countDown();
+                    await(commitFirst);
+                    return booking;
+                }));
+        assertTrue(firstSaved.await(5, TimeUnit.SECONDS));
+        Booking second = transactionTemplate.execute(status -> {
+            Booking booking = bookingRepository.save(newBooking());
+            bookingRepository.markChanged(booking.getId());
+            return booking;
+        });
+
+        // Действие
+        List<Booking> beforeFirstCommit = bookingRepository.findChangedSince(booker, 0, Limit.of(10));
+        long token = beforeFirstCommit.get(beforeFirstCommit.size() - 1).getChangeVersion();
+        commitFirst.countDown();
+        Booking committedLater = first.get(5, TimeUnit.SECONDS);
+        List<Booking> afterFirstCommit = bookingRepository.findChangedSince(booker, token, Limit.of(10));
+
+        // Проверка
+        assertEquals(List.of(second.getId()), beforeFirstCommit.stream().map(Booking::getId).toList());
+        assertEquals(List.of(committedLater.getId()), afterFirstCommit.stream().map(Booking::getId).toList());
+    }
+
+    /**
+     * Тест на бронирования, созданные до появления ленты изменений с версией 0.
+     * Миграция схемы выдает им версии, поэтому начальная синхронизация с since=0 их возвращает.
+     */
+    @Test
+    void schemaMigration_ShouldAssignVersionsToExistingBookings() {
+        // Подготовка
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        Booking booking = bookingRepository.save(newBooking());
+        Booking another = bookingRepository.save(newBooking());
+        jdbcTemplate.update("update bookings set change_version = 0 where id in (?, ?)",
+                booking.getId(), another.getId());
+
+        // Действие
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        List<Booking> changes = bookingRepository.findChangedSince(booker, 0, Limit.of(10));
+
+        // Проверка
+        assertEquals(List.of(booking.getId(), another.getId()), changes.stream().map(Booking::getId).toList());
+        assertTrue(changes.get(0).getChangeVersion() < changes.get(1).getChangeVersion());
+        Long counter = jdbcTemplate.queryForObject("select last_version from booking_change_counter where id = 1",
+                Long.class);
+        assertTrue(counter >= changes.get(1).getChangeVersion());
+    }
+
+    private Booking newBooking() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        return new Booking(null, start, start.plusDays(1), item, booker, BookingStatus.WAITING);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
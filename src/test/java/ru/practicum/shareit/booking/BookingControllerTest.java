@@ -6,11 +6,13 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.cache.PastBookingResponseCache;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -18,9 +20,13 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
@@ -28,8 +34,15 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -48,6 +61,9 @@ class BookingControllerTest {
     @MockBean
     private BookingService bookingService;
 
+    @MockBean
+    private PastBookingResponseCache pastBookingResponseCache;
+
     private User user;
     private User owner;
     private Item item;
@@ -162,6 +178,62 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.status", is(booking.getStatus().toString())));
     }
 
+    @Test
+    void getBookingById_WithMatchingETag_ShouldReturnNotModified() throws Exception {
+        when(bookingService.getBookingVersionTag(user.getId(), booking.getId())).thenReturn(Optional.of("2-0-1"));
+
+        mockMvc.perform(get("/bookings/{bookingId}", booking.getId())
+                .header(USER_ID_HEADER, user.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"2-0-1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2-0-1\""));
+        verify(bookingService, never()).getBookingById(anyLong(), anyLong());
+    }
+
+    @Test
+    void getBookingById_WithoutIfNoneMatch_ShouldComputeETagFromBooking() throws Exception {
+        booking.setVersion(3);
+        when(bookingService.getBookingById(user.getId(), booking.getId())).thenReturn(booking);
+
+        mockMvc.perform(get("/bookings/{bookingId}", booking.getId())
+                .header(USER_ID_HEADER, user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3-0-0\""));
+        verify(bookingService, never()).getBookingVersionTag(anyLong(), anyLong());
+    }
+
+    @Test
+    void getBookingById_WithCachedPastBooking_ShouldServeCachedJson() throws Exception {
+        when(pastBookingResponseCache.find(booking.getId(), user.getId()))
+                .thenReturn(Optional.of("{\"id\":1}".getBytes(StandardCharsets.UTF_8)));
+        when(pastBookingResponseCache.getMaxAge()).thenReturn(Duration.ofDays(1));
+
+        mockMvc.perform(get("/bookings/{bookingId}", booking.getId())
+                .header(USER_ID_HEADER, user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=86400, private"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().string("{\"id\":1}"));
+        verify(bookingService, never()).getBookingById(anyLong(), anyLong());
+        verify(bookingService, never()).getBookingVersionTag(anyLong(), anyLong());
+    }
+
+    @Test
+    void getBookingById_WithPastApprovedBooking_ShouldCacheSerializedResponse() throws Exception {
+        when(bookingService.getBookingById(user.getId(), booking.getId())).thenReturn(booking);
+        when(pastBookingResponseCache.isImmutable(eq(booking), any(LocalDateTime.class))).thenReturn(true);
+        when(pastBookingResponseCache.getMaxAge()).thenReturn(Duration.ofDays(1));
+        when(pastBookingResponseCache.generation()).thenReturn(7L);
+
+        byte[] body = mockMvc.perform(get("/bookings/{bookingId}", booking.getId())
+                .header(USER_ID_HEADER, user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.CACHE_CONTROL))
+                .andExpect(jsonPath("$.id", is(booking.getId().intValue())))
+                .andReturn().getResponse().getContentAsByteArray();
+        verify(pastBookingResponseCache).put(booking, body, 7L);
+    }
+
     @Test
     void getBookingById_WithNonExistentId_ShouldReturnNotFound() throws Exception {
         when(bookingService.getBookingById(anyLong(), anyLong()))
@@ -209,6 +281,22 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].id", is(booking.getId().intValue())));
     }
 
+    @Test
+    void getOwnerBookingSummary_ShouldReturnCountsPerState() throws Exception {
+        when(bookingService.getOwnerBookingSummary(owner.getId()))
+                .thenReturn(new BookingStateCounts(6, 1, 2, 3, 1, 1));
+
+        mockMvc.perform(get("/bookings/owner/summary")
+                .header(USER_ID_HEADER, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.all", is(6)))
+                .andExpect(jsonPath("$.current", is(1)))
+                .andExpect(jsonPath("$.past", is(2)))
+                .andExpect(jsonPath("$.future", is(3)))
+                .andExpect(jsonPath("$.waiting", is(1)))
+                .andExpect(jsonPath("$.rejected", is(1)));
+    }
+
     @Test
     void getOwnerBookings_WithInvalidState_ShouldReturnBadRequest() throws Exception {
         when(bookingService.getOwnerBookings(anyLong(), eq("INVALID")))
@@ -219,4 +307,129 @@ class BookingControllerTest {
                 .param("state", "INVALID"))
                 .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    @Test
+    void streamOwnerBookings_ShouldWriteOneJsonObjectPerLine() throws Exception {
+        Booking secondBooking = new Booking(2L, booking.getStart(), booking.getEnd(), item, user,
+                Booking.BookingStatus.APPROVED);
+        doAnswer(invocation -> {
+            Consumer<Booking> action = invocation.getArgument(2);
+            action.accept(booking);
+            action.accept(secondBooking);
+            return null;
+        }).when(bookingService).forEachOwnerBooking(eq(owner.getId()), eq("ALL"), any());
+
+        String body = mockMvc.perform(get("/bookings/owner")
+                .header(USER_ID_HEADER, owner.getId())
+                .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(1L, objectMapper.readValue(lines[0], BookingResponseDto.class).getId());
+        assertEquals(Booking.BookingStatus.APPROVED, objectMapper.readValue(lines[1], BookingResponseDto.class).getStatus());
+    }
+
+    @Test
+    void streamUserBookings_WithInvalidState_ShouldReturnBadRequest() throws Exception {
+        doThrow(new ValidationException("Неизвестное состояние: INVALID"))
+                .when(bookingService).forEachUserBooking(anyLong(), eq("INVALID"), any());
+
+        mockMvc.perform(get("/bookings")
+                .header(USER_ID_HEADER, user.getId())
+                .param("state", "INVALID")
+                .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Неизвестное состояние: INVALID")));
+    }
+
+    @Test
+    void exportOwnerBookings_AsCsv_ShouldWriteHeaderAndRows() throws Exception {
+        booking.setStart(LocalDateTime.of(2024, 5, 1, 10, 0));
+        booking.setEnd(LocalDateTime.of(2024, 5, 2, 10, 0, 30));
+        doAnswer(invocation -> {
+            Consumer<Booking> action = invocation.getArgument(2);
+            action.accept(booking);
+            return null;
+        }).when(bookingService).forEachOwnerBooking(eq(owner.getId()), eq("PAST"), any());
+
+        String body = mockMvc.perform(get("/bookings/owner/export")
+                .header(USER_ID_HEADER, owner.getId())
+                .param("state", "PAST")
+                .param("format", "csv"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("id,start,end,status,itemId,itemName,bookerId,bookerName,bookerEmail", lines[0]);
+        assertEquals("1,2024-05-01T10:00:00,2024-05-02T10:00:30,WAITING,1,Item,1,User,user@example.com", lines[1]);
+    }
+
+    @Test
+    void exportOwnerBookings_AsCsv_ShouldEscapeFormulaCells() throws Exception {
+        booking.setStart(LocalDateTime.of(2024, 5, 1, 10, 0));
+        booking.setEnd(LocalDateTime.of(2024, 5, 2, 10, 0, 30));
+        booking.getItem().setName("=HYPERLINK(A1)");
+        booking.getBooker().setName("@SUM(1+1)");
+        booking.getBooker().setEmail("-1+1@example.com");
+        doAnswer(invocation -> {
+            Consumer<Booking> action = invocation.getArgument(2);
+            action.accept(booking);
+            return null;
+        }).when(bookingService).forEachOwnerBooking(eq(owner.getId()), eq("PAST"), any());
+
+        String body = mockMvc.perform(get("/bookings/owner/export")
+                .header(USER_ID_HEADER, owner.getId())
+                .param("state", "PAST")
+                .param("format", "csv"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("1,2024-05-01T10:00:00,2024-05-02T10:00:30,WAITING,1,'=HYPERLINK(A1),1,'@SUM(1+1),"
+                + "'-1+1@example.com", lines[1]);
+    }
+
+    @Test
+    void exportOwnerBookings_WithUnknownFormat_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/bookings/owner/export")
+                .header(USER_ID_HEADER, owner.getId())
+                .param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Неизвестный формат выгрузки: xml")));
+    }
+
+    @Test
+    void getBookingChanges_ShouldReturnChangesAndNextToken() throws Exception {
+        booking.setChangeVersion(17L);
+        when(bookingService.getBookingChanges(user.getId(), 5L, 1)).thenReturn(List.of(booking));
+
+        mockMvc.perform(get("/bookings/changes")
+                .header(USER_ID_HEADER, user.getId())
+                .param("since", "5")
+                .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bookings", hasSize(1)))
+                .andExpect(jsonPath("$.bookings[0].id", is(1)))
+                .andExpect(jsonPath("$.nextToken", is(17)))
+                .andExpect(jsonPath("$.hasMore", is(true)));
+    }
+
+    @Test
+    void getBookingChanges_WithoutChanges_ShouldKeepToken() throws Exception {
+        when(bookingService.getBookingChanges(user.getId(), 5L, 100)).thenReturn(List.of());
+
+        mockMvc.perform(get("/bookings/changes")
+                .header(USER_ID_HEADER, user.getId())
+                .param("since", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bookings", hasSize(0)))
+                .andExpect(jsonPath("$.nextToken", is(5)))
+                .andExpect(jsonPath("$.hasMore", is(false)));
+    }
+}
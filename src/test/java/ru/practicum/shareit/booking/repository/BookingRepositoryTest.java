@@ -4,10 +4,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.Booking.BookingStatus;
+import ru.practicum.shareit.booking.BookingStateCounts;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.User;
@@ -15,6 +17,7 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -276,4 +279,111 @@ class BookingRepositoryTest {
         // Проверка
         assertFalse(notExists);
     }
-}
\ No newline at end of file
+
+    @Test
+    void streamByItemOwner_ShouldStreamAllOwnerBookingsSortedByStart() {
+        // Действие
+        List<Booking> bookings;
+        try (Stream<Booking> stream = bookingRepository.streamByItemOwner(owner, Sort.by(Sort.Direction.DESC, "start"))) {
+            bookings = stream.toList();
+        }
+
+        // Проверка
+        assertEquals(5, bookings.size());
+        assertEquals(rejectedBooking.getId(), bookings.get(0).getId());
+        assertEquals(pastBooking.getId(), bookings.get(4).getId());
+    }
+
+    @Test
+    void streamPastByItemOwner_ShouldStreamPastBookings() {
+        // Действие
+        List<Booking> bookings;
+        try (Stream<Booking> stream = bookingRepository.streamPastByItemOwner(
+                owner, now, Sort.by(Sort.Direction.DESC, "start"))) {
+            bookings = stream.toList();
+        }
+
+        // Проверка
+        assertEquals(1, bookings.size());
+        assertEquals(pastBooking.getId(), bookings.get(0).getId());
+    }
+
+    @Test
+    void streamByBookerAndStatus_ShouldStreamBookingsWithStatus() {
+        // Действие
+        List<Booking> bookings;
+        try (Stream<Booking> stream = bookingRepository.streamByBookerAndStatus(
+                booker, BookingStatus.WAITING, Sort.by(Sort.Direction.DESC, "start"))) {
+            bookings = stream.toList();
+        }
+
+        // Проверка
+        assertEquals(1, bookings.size());
+        assertEquals(waitingBooking.getId(), bookings.get(0).getId());
+    }
+
+    @Test
+    void findChangedSince_ShouldReturnBookerAndOwnerChangesInVersionOrder() {
+        // Подготовка
+        long since = 10;
+        currentBooking.setChangeVersion(since);
+        waitingBooking.setStatus(BookingStatus.APPROVED);
+        waitingBooking.setChangeVersion(since + 1);
+        pastBooking.setChangeVersion(since + 2);
+        bookingRepository.flush();
+
+        // Действие
+        List<Booking> ownerChanges = bookingRepository.findChangedSince(owner, since, Limit.of(10));
+        List<Booking> bookerChanges = bookingRepository.findChangedSince(booker, since, Limit.of(1));
+
+        // Проверка
+        assertEquals(List.of(waitingBooking, pastBooking), ownerChanges);
+        assertEquals(List.of(waitingBooking), bookerChanges);
+    }
+
+    @Test
+    void findVersionTag_ShouldBeAvailableOnlyToBookerAndOwner() {
+        // Подготовка
+        User stranger = userRepository.save(new User(null, "Stranger", "stranger@example.com"));
+        bookingRepository.flush();
+
+        // Действие
+        String bookerTag = bookingRepository.findVersionTag(waitingBooking.getId(), booker.getId()).orElseThrow();
+        waitingBooking.setStatus(BookingStatus.APPROVED);
+        bookingRepository.flush();
+
+        // Проверка
+        assertEquals("0-0-0", bookerTag);
+        assertEquals("1-0-0", bookingRepository.findVersionTag(waitingBooking.getId(), owner.getId()).orElseThrow());
+        assertTrue(bookingRepository.findVersionTag(waitingBooking.getId(), stranger.getId()).isEmpty());
+    }
+
+    @Test
+    void countStatesByItemOwner_ShouldMatchStateQueries() {
+        // Действие
+        BookingStateCounts counts = bookingRepository.countStatesByItemOwner(owner.getId(), now,
+                BookingStatus.WAITING, BookingStatus.REJECTED);
+
+        // Проверка
+        Sort sort = Sort.by(Sort.Direction.DESC, "start");
+        assertEquals(bookingRepository.findByItemOwner(owner, sort).size(), counts.all());
+        assertEquals(bookingRepository.findCurrentByItemOwner(owner, now, sort).size(), counts.current());
+        assertEquals(bookingRepository.findPastByItemOwner(owner, now, sort).size(), counts.past());
+        assertEquals(bookingRepository.findFutureByItemOwner(owner, now, sort).size(), counts.future());
+        assertEquals(bookingRepository.findByItemOwnerAndStatus(owner, BookingStatus.WAITING, sort).size(),
+                counts.waiting());
+        assertEquals(bookingRepository.findByItemOwnerAndStatus(owner, BookingStatus.REJECTED, sort).size(),
+                counts.rejected());
+        assertEquals(new BookingStateCounts(5, 1, 1, 3, 1, 1), counts);
+    }
+
+    @Test
+    void countStatesByItemOwner_WithoutBookings_ShouldReturnZeros() {
+        // Действие
+        BookingStateCounts counts = bookingRepository.countStatesByItemOwner(booker.getId(), now,
+                BookingStatus.WAITING, BookingStatus.REJECTED);
+
+        // Проверка
+        assertEquals(new BookingStateCounts(0, 0, 0, 0, 0, 0), counts);
+    }
+}
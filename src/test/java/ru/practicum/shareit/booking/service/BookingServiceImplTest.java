@@ -1,15 +1,21 @@
 package ru.practicum.shareit.booking.service;
 
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.Booking.BookingStatus;
+import ru.practicum.shareit.booking.BookingStateCounts;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.cache.NegativeLookupCache;
+import ru.practicum.shareit.cache.OwnerBookingSummaryCache;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
@@ -17,8 +23,11 @@ import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,6 +35,9 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -43,6 +55,16 @@ class BookingServiceImplTest {
     @Mock
     private ItemService itemService;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private NegativeLookupCache negativeLookupCache = new NegativeLookupCache(Duration.ofMinutes(1), 100);
+
+    @Spy
+    private OwnerBookingSummaryCache ownerBookingSummaryCache =
+            new OwnerBookingSummaryCache(Duration.ofMinutes(1), 100);
+
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -436,4 +458,122 @@ class BookingServiceImplTest {
 
         assertTrue(exception.getMessage().contains("Неизвестное состояние: INVALID"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void forEachOwnerBooking_ShouldPassEachBookingAndClearContextPeriodically() {
+        // Подготовка
+        Booking secondBooking = new Booking(2L, start, end, item, user, BookingStatus.APPROVED);
+        List<Booking> bookings = new ArrayList<>(Collections.nCopies(249, booking));
+        bookings.add(secondBooking);
+        when(userService.getUserById(owner.getId())).thenReturn(owner);
+        when(bookingRepository.streamFutureByItemOwner(eq(owner), any(LocalDateTime.class), any(Sort.class)))
+                .thenReturn(bookings.stream());
+        List<Booking> received = new ArrayList<>();
+
+        // Действие
+        bookingService.forEachOwnerBooking(owner.getId(), "future", received::add);
+
+        // Проверка
+        assertEquals(bookings, received);
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void forEachUserBooking_WithInvalidState_ShouldThrowValidationException() {
+        // Подготовка
+        when(userService.getUserById(user.getId())).thenReturn(user);
+
+        // Действие и проверка
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> bookingService.forEachUserBooking(user.getId(), "UNKNOWN", b -> { }));
+        assertEquals("Неизвестное состояние: UNKNOWN", exception.getMessage());
+    }
+
+    @Test
+    void approveBooking_ShouldMarkBookingChanged() {
+        // Подготовка
+        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+        when(bookingRepository.save(booking)).thenReturn(booking);
+
+        // Действие
+        bookingService.approveBooking(owner.getId(), booking.getId(), false);
+
+        // Проверка
+        verify(bookingRepository).markChanged(booking.getId());
+        assertEquals(BookingStatus.REJECTED, booking.getStatus());
+    }
+
+    @Test
+    void getBookingChanges_ShouldReturnChangesAfterVersion() {
+        // Подготовка
+        when(userService.getUserById(user.getId())).thenReturn(user);
+        when(bookingRepository.findChangedSince(user, 10L, Limit.of(50))).thenReturn(List.of(booking));
+
+        // Действие
+        List<Booking> changes = bookingService.getBookingChanges(user.getId(), 10L, 50);
+
+        // Проверка
+        assertEquals(List.of(booking), changes);
+    }
+
+    @Test
+    void getBookingChanges_WithInvalidSize_ShouldThrowValidationException() {
+        // Действие и проверка
+        assertThrows(ValidationException.class, () -> bookingService.getBookingChanges(user.getId(), 0L, 0));
+        assertThrows(ValidationException.class, () -> bookingService.getBookingChanges(user.getId(), -1L, 10));
+        verify(bookingRepository, never()).findChangedSince(any(), anyLong(), any());
+    }
+
+    @Test
+    void getOwnerBookingSummary_Twice_ShouldQueryOnce() {
+        // Подготовка
+        BookingStateCounts counts = new BookingStateCounts(6, 1, 1, 3, 1, 1);
+        when(userService.getUserById(owner.getId())).thenReturn(owner);
+        when(bookingRepository.countStatesByItemOwner(eq(owner.getId()), any(LocalDateTime.class),
+                eq(BookingStatus.WAITING), eq(BookingStatus.REJECTED))).thenReturn(counts);
+
+        // Действие
+        BookingStateCounts first = bookingService.getOwnerBookingSummary(owner.getId());
+        BookingStateCounts second = bookingService.getOwnerBookingSummary(owner.getId());
+
+        // Проверка
+        assertEquals(counts, first);
+        assertEquals(counts, second);
+        verify(bookingRepository, times(1)).countStatesByItemOwner(eq(owner.getId()), any(LocalDateTime.class),
+                eq(BookingStatus.WAITING), eq(BookingStatus.REJECTED));
+    }
+
+    @Test
+    void createAndApproveBooking_ShouldInvalidateOwnerSummary() {
+        // Подготовка
+        Booking inputBooking = new Booking(null, start, end, item, null, null);
+        when(userService.getUserById(user.getId())).thenReturn(user);
+        when(itemService.getItemById(item.getId())).thenReturn(item);
+        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        ownerBookingSummaryCache.put(owner.getId(), new BookingStateCounts(0, 0, 0, 0, 0, 0),
+                ownerBookingSummaryCache.generation());
+
+        // Действие
+        bookingService.createBooking(user.getId(), inputBooking);
+        boolean afterCreate = ownerBookingSummaryCache.find(owner.getId()).isEmpty();
+        ownerBookingSummaryCache.put(owner.getId(), new BookingStateCounts(1, 0, 0, 1, 1, 0),
+                ownerBookingSummaryCache.generation());
+        bookingService.approveBooking(owner.getId(), booking.getId(), true);
+
+        // Проверка
+        assertTrue(afterCreate);
+        assertTrue(ownerBookingSummaryCache.find(owner.getId()).isEmpty());
+        verify(ownerBookingSummaryCache, times(2)).invalidate(owner.getId());
+    }
+
+    @Test
+    void getOwnerBookingSummary_WithNonExistentUser_ShouldThrowNotFoundException() {
+        // Подготовка
+        when(userService.getUserById(99L)).thenThrow(new NotFoundException("Пользователь с ID 99 не найден"));
+
+        // Действие и проверка
+        assertThrows(NotFoundException.class, () -> bookingService.getOwnerBookingSummary(99L));
+        verify(bookingRepository, never()).countStatesByItemOwner(anyLong(), any(), any(), any());
+    }
+}
@@ -0,0 +1,145 @@
+package ru.practicum.shareit.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.practicum.shareit.cache.NegativeLookupCache.EntityType.BOOKING;
+import static ru.practicum.shareit.cache.NegativeLookupCache.EntityType.ITEM;
+import static ru.practicum.shareit.cache.NegativeLookupCache.EntityType.USER;
+
+/**
+ * Тесты для {@link NegativeLookupCache}
+ */
+class NegativeLookupCacheTest {
+
+    /**
+     * Тест на запоминание отсутствующего ID.
+     * Проверяет, что ID помечается только для своего типа сущности.
+     */
+    @Test
+    void markMissing_ShouldBeVisibleForSameTypeOnly() {
+        // Подготовка
+        NegativeLookupCache cache = new NegativeLookupCache(Duration.ofMinutes(1), 10);
+
+        // Действие
+        cache.markMissing(ITEM, 42L, cache.generation());
+
+        // Проверка
+        assertTrue(cache.isKnownMissing(ITEM, 42L));
+        assertFalse(cache.isKnownMissing(USER, 42L));
+        assertFalse(cache.isKnownMissing(BOOKING, 42L));
+        assertFalse(cache.isKnownMissing(ITEM, null));
+    }
+
+    /**
+     * Тест на удаление ID из кэша после создания сущности.
+     */
+    @Test
+    void forget_ShouldRemoveMissingMark() {
+        // Подготовка
+        NegativeLookupCache cache = new NegativeLookupCache(Duration.ofMinutes(1), 10);
+        cache.markMissing(USER, 1L, cache.generation());
+
+        // Действие
+        cache.forget(USER, 1L);
+
+        // Проверка
+        assertFalse(cache.isKnownMissing(USER, 1L));
+    }
+
+    /**
+     * Тест на истечение времени жизни записи.
+     */
+    @Test
+    void isKnownMissing_AfterTtl_ShouldReturnFalse() throws InterruptedException {
+        // Подготовка
+        NegativeLookupCache cache = new NegativeLookupCache(Duration.ofMillis(20), 10);
+        cache.markMissing(BOOKING, 7L, cache.generation());
+
+        // Действие
+        Thread.sleep(50);
+
+        // Проверка
+        assertFalse(cache.isKnownMissing(BOOKING, 7L));
+    }
+
+    /**
+     * Тест на ограничение размера кэша.
+     * Проверяет, что при заполнении вытесняется давно не использованный ID.
+     */
+    @Test
+    void markMissing_WhenFull_ShouldEvictLeastRecentlyUsed() {
+        // Подготовка
+        NegativeLookupCache cache = new NegativeLookupCache(Duration.ofMinutes(1), 2);
+        cache.markMissing(USER, 1L, cache.generation());
+        cache.markMissing(USER, 2L, cache.generation());
+        cache.isKnownMissing(USER, 1L);
+
+        // Действие
+        cache.markMissing(USER, 3L, cache.generation());
+
+        // Проверка
+        assertTrue(cache.isKnownMissing(USER, 1L));
+        assertFalse(cache.isKnownMissing(USER, 2L));
+        assertTrue(cache.isKnownMissing(USER, 3L));
+    }
+
+    /**
+     * Тест на промах поиска, начатого до создания сущности.
+     * Проверяет, что такой промах не скрывает созданный ID, а промахи других ID запоминаются.
+     */
+    @Test
+    void markMissing_StartedBeforeForget_ShouldBeDropped() {
+        // Подготовка
+        NegativeLookupCache cache = new NegativeLookupCache(Duration.ofMinutes(1), 10);
+        long generation = cache.generation();
+        cache.forget(ITEM, 5L);
+
+        // Действие
+        cache.markMissing(ITEM, 5L, generation);
+        cache.markMissing(ITEM, 6L, generation);
+
+        // Проверка
+        assertFalse(cache.isKnownMissing(ITEM, 5L));
+        assertTrue(cache.isKnownMissing(ITEM, 6L));
+    }
+
+    /**
+     * Тест на вытеснение записей о созданных ID.
+     * Проверяет, что после вытеснения отклоняются все промахи поисков, начатых до него.
+     */
+    @Test
+    void markMissing_AfterForgetEviction_ShouldDropOlderSearches() {
+        // Подготовка
+        NegativeLookupCache cache = new NegativeLookupCache(Duration.ofMinutes(1), 1);
+        long generation = cache.generation();
+        cache.forget(USER, 1L);
+        cache.forget(USER, 2L);
+
+        // Действие
+        cache.markMissing(USER, 1L, generation);
+        cache.markMissing(USER, 3L, cache.generation());
+
+        // Проверка
+        assertFalse(cache.isKnownMissing(USER, 1L));
+        assertTrue(cache.isKnownMissing(USER, 3L));
+    }
+
+    /**
+     * Тест на отключение кэша нулевым временем жизни.
+     */
+    @Test
+    void markMissing_WithZeroTtl_ShouldBeDisabled() {
+        // Подготовка
+        NegativeLookupCache cache = new NegativeLookupCache(Duration.ZERO, 10);
+
+        // Действие
+        cache.markMissing(ITEM, 1L, cache.generation());
+
+        // Проверка
+        assertFalse(cache.isKnownMissing(ITEM, 1L));
+    }
+}
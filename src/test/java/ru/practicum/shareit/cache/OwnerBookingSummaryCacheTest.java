@@ -0,0 +1,87 @@
+package ru.practicum.shareit.cache;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.BookingStateCounts;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тесты для {@link OwnerBookingSummaryCache}
+ */
+class OwnerBookingSummaryCacheTest {
+    private final BookingStateCounts counts = new BookingStateCounts(5, 1, 1, 3, 1, 1);
+
+    /**
+     * Тест на сохранение и сброс счетчиков владельца.
+     * Сброс затрагивает только запись указанного владельца.
+     */
+    @Test
+    void invalidate_ShouldRemoveOnlyThisOwner() {
+        // Подготовка
+        OwnerBookingSummaryCache cache = new OwnerBookingSummaryCache(Duration.ofMinutes(1), 10);
+        cache.put(1L, counts, cache.generation());
+        cache.put(2L, counts, cache.generation());
+
+        // Действие
+        cache.invalidate(1L);
+
+        // Проверка
+        assertTrue(cache.find(1L).isEmpty());
+        assertEquals(Optional.of(counts), cache.find(2L));
+    }
+
+    /**
+     * Тест на отказ от сохранения счетчиков, посчитанных до сброса.
+     */
+    @Test
+    void put_AfterInvalidation_ShouldNotStoreStaleCounts() {
+        // Подготовка
+        OwnerBookingSummaryCache cache = new OwnerBookingSummaryCache(Duration.ofMinutes(1), 10);
+        long generation = cache.generation();
+        cache.invalidate(1L);
+
+        // Действие
+        cache.put(1L, counts, generation);
+
+        // Проверка
+        assertTrue(cache.find(1L).isEmpty());
+    }
+
+    /**
+     * Тест на сохранение счетчиков после сброса другого владельца.
+     * Сброс одного владельца не отклоняет запросы, начатые для других.
+     */
+    @Test
+    void put_AfterOtherOwnerInvalidation_ShouldStoreCounts() {
+        // Подготовка
+        OwnerBookingSummaryCache cache = new OwnerBookingSummaryCache(Duration.ofMinutes(1), 10);
+        long generation = cache.generation();
+        cache.invalidate(2L);
+
+        // Действие
+        cache.put(1L, counts, generation);
+
+        // Проверка
+        assertEquals(Optional.of(counts), cache.find(1L));
+    }
+
+    /**
+     * Тест на истечение времени жизни записи.
+     */
+    @Test
+    void find_AfterTtl_ShouldReturnEmpty() throws InterruptedException {
+        // Подготовка
+        OwnerBookingSummaryCache cache = new OwnerBookingSummaryCache(Duration.ofMillis(20), 10);
+        cache.put(1L, counts, cache.generation());
+
+        // Действие
+        Thread.sleep(40);
+
+        // Проверка
+        assertTrue(cache.find(1L).isEmpty());
+    }
+}
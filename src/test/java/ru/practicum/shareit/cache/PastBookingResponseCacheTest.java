@@ -0,0 +1,138 @@
+package ru.practicum.shareit.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.Booking.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тесты для {@link PastBookingResponseCache}
+ */
+class PastBookingResponseCacheTest {
+    private final User owner = new User(1L, "Owner", "owner@example.com");
+    private final User booker = new User(2L, "Booker", "booker@example.com");
+    private final Item item = new Item(10L, "Item", "Description", true, owner, null);
+    private final LocalDateTime now = LocalDateTime.now();
+
+    /**
+     * Тест на определение неизменяемого бронирования.
+     * Проверяет, что кэшируются только завершившиеся подтвержденные или отклоненные бронирования.
+     */
+    @Test
+    void isImmutable_ShouldAcceptOnlyFinishedFinalBookings() {
+        // Подготовка
+        PastBookingResponseCache cache = new PastBookingResponseCache(DataSize.ofKilobytes(1), Duration.ofDays(1));
+
+        // Проверка
+        assertTrue(cache.isImmutable(booking(1L, now.minusDays(1), BookingStatus.APPROVED), now));
+        assertTrue(cache.isImmutable(booking(1L, now.minusDays(1), BookingStatus.REJECTED), now));
+        assertFalse(cache.isImmutable(booking(1L, now.minusDays(1), BookingStatus.WAITING), now));
+        assertFalse(cache.isImmutable(booking(1L, now.plusDays(1), BookingStatus.APPROVED), now));
+    }
+
+    /**
+     * Тест на проверку доступа к сохраненному ответу.
+     * Проверяет, что ответ отдается только букеру и владельцу вещи.
+     */
+    @Test
+    void find_ShouldReturnJsonOnlyToBookerAndOwner() {
+        // Подготовка
+        PastBookingResponseCache cache = new PastBookingResponseCache(DataSize.ofKilobytes(1), Duration.ofDays(1));
+        byte[] json = "{\"id\":1}".getBytes();
+
+        // Действие
+        cache.put(booking(1L, now.minusDays(1), BookingStatus.APPROVED), json, cache.generation());
+
+        // Проверка
+        assertArrayEquals(json, cache.find(1L, booker.getId()).orElseThrow());
+        assertArrayEquals(json, cache.find(1L, owner.getId()).orElseThrow());
+        assertTrue(cache.find(1L, 3L).isEmpty());
+        assertTrue(cache.find(2L, booker.getId()).isEmpty());
+    }
+
+    /**
+     * Тест на ограничение объема кэша.
+     * Проверяет, что при превышении объема вытесняется давно не запрашиваемый ответ.
+     */
+    @Test
+    void put_ShouldEvictLeastRecentlyUsedWhenFull() {
+        // Подготовка
+        PastBookingResponseCache cache = new PastBookingResponseCache(DataSize.ofBytes(10), Duration.ofDays(1));
+        cache.put(booking(1L, now.minusDays(1), BookingStatus.APPROVED), new byte[4], cache.generation());
+        cache.put(booking(2L, now.minusDays(1), BookingStatus.APPROVED), new byte[4], cache.generation());
+        cache.find(1L, booker.getId());
+
+        // Действие
+        cache.put(booking(3L, now.minusDays(1), BookingStatus.APPROVED), new byte[4], cache.generation());
+        cache.put(booking(4L, now.minusDays(1), BookingStatus.APPROVED), new byte[11], cache.generation());
+
+        // Проверка
+        assertTrue(cache.find(1L, booker.getId()).isPresent());
+        assertTrue(cache.find(2L, booker.getId()).isEmpty());
+        assertTrue(cache.find(3L, booker.getId()).isPresent());
+        assertTrue(cache.find(4L, booker.getId()).isEmpty());
+    }
+
+    /**
+     * Тест на вытеснение ответов при изменении вложенных данных.
+     */
+    @Test
+    void evict_ShouldRemoveEntriesOfChangedUserOrItem() {
+        // Подготовка
+        PastBookingResponseCache cache = new PastBookingResponseCache(DataSize.ofKilobytes(1), Duration.ofDays(1));
+        Item otherItem = new Item(11L, "Other", "Description", true, owner, null);
+        cache.put(booking(1L, now.minusDays(1), BookingStatus.APPROVED), new byte[4], cache.generation());
+        cache.put(new Booking(2L, now.minusDays(2), now.minusDays(1), otherItem, owner, BookingStatus.APPROVED),
+                new byte[4], cache.generation());
+
+        // Действие
+        cache.evictItem(item.getId());
+
+        // Проверка
+        assertTrue(cache.find(1L, booker.getId()).isEmpty());
+        assertTrue(cache.find(2L, owner.getId()).isPresent());
+
+        // Действие
+        cache.evictUser(owner.getId());
+
+        // Проверка
+        assertTrue(cache.find(2L, owner.getId()).isEmpty());
+    }
+
+    /**
+     * Тест на сохранение ответа, загруженного до вытеснения.
+     * Проверяет, что такой ответ не возвращает в кэш устаревшие данные.
+     */
+    @Test
+    void put_AfterEviction_ShouldNotStoreStaleJson() {
+        // Подготовка
+        PastBookingResponseCache cache = new PastBookingResponseCache(DataSize.ofKilobytes(1), Duration.ofDays(1));
+        long generation = cache.generation();
+        cache.evictUser(booker.getId());
+
+        // Действие
+        cache.put(booking(1L, now.minusDays(1), BookingStatus.APPROVED), new byte[4], generation);
+
+        // Проверка
+        assertTrue(cache.find(1L, booker.getId()).isEmpty());
+
+        // Действие
+        cache.put(booking(1L, now.minusDays(1), BookingStatus.APPROVED), new byte[4], cache.generation());
+
+        // Проверка
+        assertTrue(cache.find(1L, booker.getId()).isPresent());
+    }
+
+    private Booking booking(Long id, LocalDateTime end, BookingStatus status) {
+        return new Booking(id, end.minusDays(1), end, item, booker, status);
+    }
+}
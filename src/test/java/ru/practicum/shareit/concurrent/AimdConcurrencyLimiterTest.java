@@ -0,0 +1,94 @@
+package ru.practicum.shareit.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тесты для {@link AimdConcurrencyLimiter}
+ */
+class AimdConcurrencyLimiterTest {
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(1).toNanos();
+
+    /**
+     * Тест на рост лимита при быстрых ответах под нагрузкой и снижение при медленных.
+     */
+    @Test
+    void release_ShouldIncreaseOnFastAndDecreaseOnSlowResponses() {
+        // Подготовка
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(10, 2, 20, Duration.ofMillis(100), 0.5);
+
+        // Действие
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire(RequestPriority.HIGH));
+        }
+        for (int i = 0; i < 10; i++) {
+            limiter.release(FAST, true);
+        }
+        int increased = limiter.getLimit();
+        assertTrue(limiter.tryAcquire(RequestPriority.HIGH));
+        limiter.release(SLOW, true);
+        int decreased = limiter.getLimit();
+
+        // Проверка
+        assertEquals(10, increased);
+        assertEquals(5, decreased);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    /**
+     * Тест на быстрые ошибки под нагрузкой.
+     * Проверяет, что они не увеличивают лимит, а медленная ошибка снижает его.
+     */
+    @Test
+    void release_FastFailures_ShouldNotIncreaseLimit() {
+        // Подготовка
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(4, 1, 20, Duration.ofMillis(100), 0.5);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire(RequestPriority.HIGH));
+        }
+
+        // Действие
+        for (int i = 0; i < 4; i++) {
+            limiter.release(FAST, false);
+        }
+        int afterFastFailures = limiter.getLimit();
+        assertTrue(limiter.tryAcquire(RequestPriority.HIGH));
+        limiter.release(SLOW, false);
+
+        // Проверка
+        assertEquals(4, afterFastFailures);
+        assertEquals(2, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    /**
+     * Тест на сброс нагрузки по приоритетам.
+     * При лимите 10 запросы с низким приоритетом допускаются до 7 одновременных,
+     * а создание бронирований может занять весь лимит.
+     */
+    @Test
+    void tryAcquire_ShouldRejectLowPriorityFirst() {
+        // Подготовка
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(10, 1, 10, Duration.ofMillis(100), 0.9);
+        for (int i = 0; i < 7; i++) {
+            assertTrue(limiter.tryAcquire(RequestPriority.LOW));
+        }
+
+        // Действие
+        boolean low = limiter.tryAcquire(RequestPriority.LOW);
+        boolean normal = limiter.tryAcquire(RequestPriority.NORMAL);
+        boolean high = limiter.tryAcquire(RequestPriority.HIGH);
+
+        // Проверка
+        assertFalse(low);
+        assertTrue(normal);
+        assertTrue(high);
+        assertEquals(9, limiter.getInFlight());
+    }
+}
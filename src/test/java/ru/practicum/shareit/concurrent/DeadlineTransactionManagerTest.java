@@ -0,0 +1,45 @@
+package ru.practicum.shareit.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Тесты для {@link DeadlineTransactionManager}
+ */
+class DeadlineTransactionManagerTest {
+    private final DeadlineTransactionManager transactionManager = new DeadlineTransactionManager();
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    /**
+     * Тест на таймаут транзакции по оставшемуся времени запроса.
+     * Без крайнего срока таймаут не задается, явный меньший таймаут сохраняется.
+     */
+    @Test
+    void determineTimeout_ShouldUseRemainingRequestBudget() {
+        // Подготовка
+        DefaultTransactionDefinition unbounded = new DefaultTransactionDefinition();
+        DefaultTransactionDefinition explicit = new DefaultTransactionDefinition();
+        explicit.setTimeout(1);
+
+        // Действие
+        int withoutDeadline = transactionManager.determineTimeout(unbounded);
+        RequestDeadline.start(Duration.ofMillis(2500));
+        int withDeadline = transactionManager.determineTimeout(unbounded);
+        int withExplicit = transactionManager.determineTimeout(explicit);
+
+        // Проверка
+        assertEquals(TransactionDefinition.TIMEOUT_DEFAULT, withoutDeadline);
+        assertEquals(3, withDeadline);
+        assertEquals(1, withExplicit);
+    }
+}
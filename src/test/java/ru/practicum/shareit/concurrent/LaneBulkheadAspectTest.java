@@ -0,0 +1,103 @@
+package ru.practicum.shareit.concurrent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тесты для {@link LaneBulkheadAspect}
+ */
+class LaneBulkheadAspectTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    /**
+     * Тест на отказ при заполненной полосе.
+     * Пока единственное место полосы выборок списков занято, следующая выборка отклоняется,
+     * а чтение по ID выполняется в своей полосе.
+     */
+    @Test
+    void limit_LaneFull_ShouldRejectOnlyThisLane() throws Exception {
+        // Подготовка
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        UserServiceImpl target = mock(UserServiceImpl.class);
+        when(target.getAllUsers()).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        User user = new User(1L, "Lane User", "lane@example.com");
+        when(target.getUserById(1L)).thenReturn(user);
+        UserService service = proxy(target);
+        CompletableFuture<List<User>> slowList = CompletableFuture.supplyAsync(service::getAllUsers);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Действие
+        ServiceUnavailableException rejected = assertThrows(ServiceUnavailableException.class,
+                service::getAllUsers);
+        User found = service.getUserById(1L);
+        release.countDown();
+
+        // Проверка
+        assertEquals(Duration.ofMillis(20), rejected.getRetryAfter());
+        assertEquals(user, found);
+        assertEquals(List.of(), slowList.get(5, TimeUnit.SECONDS));
+        assertEquals(1, registry.get(LaneBulkheadAspect.REJECTED_METRIC)
+                .tag(LaneBulkheadAspect.LANE_TAG, Lane.LIST_READ.key()).counter().count());
+        assertEquals(0, registry.get(LaneBulkheadAspect.ACTIVE_METRIC)
+                .tag(LaneBulkheadAspect.LANE_TAG, Lane.LIST_READ.key()).gauge().value());
+    }
+
+    /**
+     * Тест на проверку лимитов полос при запуске.
+     * Сумма лимитов больше пула соединений отклоняется.
+     */
+    @Test
+    void constructor_LimitsExceedPool_ShouldFail() {
+        // Действие и проверка
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> new LaneBulkheadAspect(registry, 4, Duration.ofMillis(20), 2, Duration.ofMillis(20),
+                        3, Duration.ofMillis(20), 2, Duration.ofMillis(20), 10, ParallelReads.sequential()));
+        assertTrue(exception.getMessage().contains("11"));
+    }
+
+    /**
+     * Тест на учет параллельных выборок в проверке лимитов.
+     * При включенных параллельных выборках чтение по ID занимает несколько соединений.
+     */
+    @Test
+    void constructor_ParallelReadsExceedPool_ShouldFail() {
+        // Подготовка
+        ParallelReads parallelReads = mock(ParallelReads.class);
+        when(parallelReads.connectionsPerCall()).thenReturn(ParallelReads.MAX_FORKS);
+
+        // Действие и проверка
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> new LaneBulkheadAspect(registry, 4, Duration.ofMillis(20), 2, Duration.ofMillis(20),
+                        2, Duration.ofMillis(20), 2, Duration.ofMillis(20), 10, parallelReads));
+        assertTrue(exception.getMessage().contains("18"));
+    }
+
+    private UserService proxy(UserServiceImpl target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(new LaneBulkheadAspect(registry, 2, Duration.ofMillis(20), 1, Duration.ofMillis(20),
+                1, Duration.ofMillis(20), 1, Duration.ofMillis(20), 5, ParallelReads.sequential()));
+        return factory.getProxy();
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.concurrent;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.User;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Тесты для {@link OptimisticLockRetry}
+ */
+class OptimisticLockRetryTest {
+
+    /**
+     * Тест на повтор операции после конфликта версий.
+     */
+    @Test
+    void execute_ShouldRetryAfterConflict() {
+        // Подготовка
+        OptimisticLockRetry retry = OptimisticLockRetry.withoutTransaction(3);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Действие
+        String result = retry.execute("conflict", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException(User.class, 1L);
+            }
+            return "ok";
+        });
+
+        // Проверка
+        assertEquals("ok", result);
+        assertEquals(3, attempts.get());
+    }
+
+    /**
+     * Тест на исчерпание попыток.
+     * Проверяет, что после последней неудачной попытки выбрасывается ConflictException.
+     */
+    @Test
+    void execute_WhenAttemptsExhausted_ShouldThrowConflictException() {
+        // Подготовка
+        OptimisticLockRetry retry = OptimisticLockRetry.withoutTransaction(2);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Действие и проверка
+        ConflictException exception = assertThrows(ConflictException.class, () -> retry.execute("conflict", () -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(User.class, 1L);
+        }));
+        assertEquals("conflict", exception.getMessage());
+        assertEquals(2, attempts.get());
+    }
+
+    /**
+     * Тест на то, что прочие ошибки не повторяются.
+     */
+    @Test
+    void execute_WithOtherException_ShouldNotRetry() {
+        // Подготовка
+        OptimisticLockRetry retry = OptimisticLockRetry.withoutTransaction(3);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Действие и проверка
+        assertThrows(NotFoundException.class, () -> retry.execute("conflict", () -> {
+            attempts.incrementAndGet();
+            throw new NotFoundException("not found");
+        }));
+        assertEquals(1, attempts.get());
+    }
+}
@@ -0,0 +1,145 @@
+package ru.practicum.shareit.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Тесты для {@link ParallelReads}
+ */
+class ParallelReadsTest {
+    private final ParallelReads parallelReads = new ParallelReads(mock(PlatformTransactionManager.class), true);
+
+    @AfterEach
+    void tearDown() {
+        parallelReads.shutdown();
+    }
+
+    /**
+     * Тест на последовательный режим.
+     * Проверяет, что операции выполняются сразу в вызывающем потоке.
+     */
+    @Test
+    void fork_InSequentialMode_ShouldRunInCallerThread() {
+        // Подготовка
+        ParallelReads sequential = ParallelReads.sequential();
+        Thread caller = Thread.currentThread();
+
+        // Действие
+        try (ParallelReads.Scope scope = sequential.open()) {
+            Supplier<Thread> thread = scope.fork(Thread::currentThread);
+            scope.join();
+
+            // Проверка
+            assertSame(caller, thread.get());
+        }
+    }
+
+    /**
+     * Тест на параллельный режим.
+     * Проверяет, что операции выполняются одновременно в виртуальных потоках.
+     */
+    @Test
+    void fork_InParallelMode_ShouldRunConcurrentlyOnVirtualThreads() {
+        // Подготовка
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        Supplier<Thread> task = () -> {
+            bothStarted.countDown();
+            await(bothStarted);
+            return Thread.currentThread();
+        };
+
+        // Действие
+        try (ParallelReads.Scope scope = parallelReads.open()) {
+            Supplier<Thread> first = scope.fork(task);
+            Supplier<Thread> second = scope.fork(task);
+            scope.join();
+
+            // Проверка
+            assertTrue(first.get().isVirtual());
+            assertTrue(second.get().isVirtual());
+            assertNotSame(first.get(), second.get());
+        }
+    }
+
+    /**
+     * Тест на ошибку одной из операций.
+     * Проверяет, что ошибка пробрасывается из join, а оставшиеся операции отменяются.
+     */
+    @Test
+    void join_WhenTaskFails_ShouldRethrowAndCancelOthers() {
+        // Подготовка
+        CountDownLatch slowStarted = new CountDownLatch(1);
+
+        // Действие и проверка
+        try (ParallelReads.Scope scope = parallelReads.open()) {
+            scope.fork(() -> {
+                slowStarted.countDown();
+                try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            });
+            scope.fork(() -> {
+                await(slowStarted);
+                throw new IllegalArgumentException("Ошибка чтения");
+            });
+
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, scope::join);
+            assertEquals("Ошибка чтения", exception.getMessage());
+        }
+    }
+
+    /**
+     * Тест на доступ к результату до join.
+     */
+    @Test
+    void result_BeforeJoin_ShouldThrow() {
+        try (ParallelReads.Scope scope = parallelReads.open()) {
+            Supplier<String> result = scope.fork(() -> "значение");
+
+            assertThrows(IllegalStateException.class, result::get);
+        }
+    }
+
+    /**
+     * Тест на ограничение числа операций в области.
+     * Проверяет, что вызов не занимает больше соединений, чем учтено в лимитах полос.
+     */
+    @Test
+    void fork_OverLimit_ShouldThrow() {
+        // Подготовка
+        ParallelReads sequential = ParallelReads.sequential();
+
+        // Действие и проверка
+        try (ParallelReads.Scope scope = sequential.open()) {
+            for (int i = 0; i < ParallelReads.MAX_FORKS; i++) {
+                scope.fork(() -> "значение");
+            }
+            assertThrows(IllegalStateException.class, () -> scope.fork(() -> "значение"));
+        }
+        assertEquals(ParallelReads.MAX_FORKS, parallelReads.connectionsPerCall());
+        assertEquals(1, sequential.connectionsPerCall());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
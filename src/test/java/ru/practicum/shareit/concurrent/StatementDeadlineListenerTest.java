@@ -0,0 +1,74 @@
+package ru.practicum.shareit.concurrent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+import ru.practicum.shareit.monitoring.SqlExecutionMonitor;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тесты для {@link StatementDeadlineListener}
+ */
+class StatementDeadlineListenerTest {
+    private static final String HEAVY_QUERY = "select sum(x) from system_range(1, 10000000000)";
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ObjectProvider<MeterRegistry> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(new SimpleMeterRegistry());
+        SqlExecutionMonitor monitor = new SqlExecutionMonitor(provider, Duration.ofMinutes(1), 0);
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:statement-deadline");
+        jdbcTemplate = new JdbcTemplate((DataSource) monitor.postProcessAfterInitialization(h2, "dataSource"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    /**
+     * Тест на отмену SQL-запроса, не уложившегося в оставшееся время запроса.
+     */
+    @Test
+    void beforeQuery_ShouldCancelStatementAtDeadline() {
+        // Подготовка
+        RequestDeadline.start(Duration.ofMillis(500));
+        long startedAt = System.nanoTime();
+
+        // Действие
+        assertThrows(QueryTimeoutException.class, () -> jdbcTemplate.queryForObject(HEAVY_QUERY, Long.class));
+
+        // Проверка
+        assertTrue(Duration.ofNanos(System.nanoTime() - startedAt).compareTo(Duration.ofSeconds(5)) < 0);
+    }
+
+    /**
+     * Тест на отказ от выполнения SQL-запроса после истечения срока.
+     */
+    @Test
+    void beforeQuery_DeadlinePassed_ShouldNotExecuteStatement() {
+        // Подготовка
+        RequestDeadline.start(Duration.ofMillis(-1));
+
+        // Действие и проверка
+        assertThrows(ServiceUnavailableException.class, () -> jdbcTemplate.queryForObject("select 1", Long.class));
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.concurrent;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.concurrent.TokenBucketRateLimiter.Limit;
+import ru.practicum.shareit.concurrent.TokenBucketRateLimiter.Result;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тесты для {@link TokenBucketRateLimiter}
+ */
+class TokenBucketRateLimiterTest {
+
+    /**
+     * Тест на исчерпание корзины.
+     * Допускается всплеск размером с емкость корзины, следующий запрос отклоняется
+     * с временем до появления токена.
+     */
+    @Test
+    void tryConsume_BucketEmpty_ShouldRejectWithRetryAfter() {
+        // Подготовка
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(
+                Map.of(RateBudget.SEARCH, new Limit(3, 0.001)), 100);
+
+        // Действие
+        for (int i = 2; i >= 0; i--) {
+            Result result = limiter.tryConsume(RateBudget.SEARCH, 1L);
+            assertTrue(result.allowed());
+            assertEquals(i, result.remaining());
+        }
+        Result rejected = limiter.tryConsume(RateBudget.SEARCH, 1L);
+
+        // Проверка
+        assertFalse(rejected.allowed());
+        assertTrue(rejected.retryAfter().compareTo(Duration.ofSeconds(900)) > 0);
+    }
+
+    /**
+     * Тест на независимость корзин пользователей и бюджетов.
+     * Исчерпав поиск, пользователь сохраняет бюджет записи, а другие пользователи - свой поиск.
+     */
+    @Test
+    void tryConsume_ShouldKeepBucketsPerUserAndBudget() {
+        // Подготовка
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(Map.of(
+                RateBudget.SEARCH, new Limit(1, 0.001),
+                RateBudget.WRITE, new Limit(1, 0.001)), 100);
+        limiter.tryConsume(RateBudget.SEARCH, 1L);
+
+        // Действие
+        Result search = limiter.tryConsume(RateBudget.SEARCH, 1L);
+        Result write = limiter.tryConsume(RateBudget.WRITE, 1L);
+        Result otherUserSearch = limiter.tryConsume(RateBudget.SEARCH, 2L);
+        Result unlimited = limiter.tryConsume(RateBudget.LIST, 1L);
+
+        // Проверка
+        assertFalse(search.allowed());
+        assertTrue(write.allowed());
+        assertTrue(otherUserSearch.allowed());
+        assertTrue(unlimited.allowed());
+        assertEquals(3, limiter.size());
+    }
+
+    /**
+     * Тест на ограничение числа корзин.
+     * Когда места нет и пополнившихся корзин не осталось, новые клиенты делят общую корзину,
+     * поэтому смена ключа не дает новых токенов, а число корзин не растет.
+     */
+    @Test
+    void tryConsume_BucketsFull_ShouldShareOverflowBucket() {
+        // Подготовка
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(
+                Map.of(RateBudget.SEARCH, new Limit(1, 0.001)), 2);
+        limiter.tryConsume(RateBudget.SEARCH, 1L);
+        limiter.tryConsume(RateBudget.SEARCH, 2L);
+
+        // Действие
+        Result firstNewClient = limiter.tryConsume(RateBudget.SEARCH, 3L);
+        Result secondNewClient = limiter.tryConsume(RateBudget.SEARCH, "10.0.0.1");
+        Result thirdNewClient = limiter.tryConsume(RateBudget.SEARCH, 4L);
+
+        // Проверка
+        assertTrue(firstNewClient.allowed());
+        assertFalse(secondNewClient.allowed());
+        assertFalse(thirdNewClient.allowed());
+        assertEquals(3, limiter.size());
+    }
+}
@@ -0,0 +1,154 @@
+package ru.practicum.shareit.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.cache.NegativeLookupCache;
+import ru.practicum.shareit.cache.NegativeLookupCache.EntityType;
+import ru.practicum.shareit.datasource.ReadWriteRoutingDataSource.Route;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тесты для {@link ReadWriteRoutingDataSource}
+ */
+class ReadWriteRoutingDataSourceTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final DataSource replica = h2DataSource("routing-replica");
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    /**
+     * Тест на направление записи в основную базу, а чтения - на реплику.
+     */
+    @Test
+    void determineCurrentLookupKey_ShouldRouteReadOnlyToReplica() {
+        // Подготовка
+        ReadWriteRoutingDataSource dataSource = routingDataSource(lagMonitor("select 0"));
+
+        // Действие
+        Object write = dataSource.determineCurrentLookupKey();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        Object read = dataSource.determineCurrentLookupKey();
+
+        // Проверка
+        assertEquals(Route.PRIMARY, write);
+        assertEquals(Route.REPLICA, read);
+    }
+
+    /**
+     * Тест на чтение из основной базы при отставании реплики больше допустимого.
+     */
+    @Test
+    void determineCurrentLookupKey_ReplicaLagging_ShouldRouteReadOnlyToPrimary() {
+        // Подготовка
+        ReplicaLagMonitor lagMonitor = lagMonitor("select 30");
+        ReadWriteRoutingDataSource dataSource = routingDataSource(lagMonitor);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // Действие
+        Object read = dataSource.determineCurrentLookupKey();
+
+        // Проверка
+        assertFalse(lagMonitor.isReplicaUsable());
+        assertEquals(Route.PRIMARY, read);
+        assertEquals(30, registry.get(ReplicaLagMonitor.LAG_METRIC).gauge().value());
+    }
+
+    /**
+     * Тест на чтение собственных изменений.
+     * После записи пользователь читает из основной базы, остальные пользователи - с реплики.
+     */
+    @Test
+    void determineCurrentLookupKey_AfterWrite_ShouldRouteWriterReadsToPrimary() {
+        // Подготовка
+        ReadWriteRoutingDataSource dataSource = routingDataSource(lagMonitor("select 0"));
+        withUser(1L);
+        dataSource.determineCurrentLookupKey();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // Действие
+        Object writerRead = dataSource.determineCurrentLookupKey();
+        withUser(2L);
+        Object otherRead = dataSource.determineCurrentLookupKey();
+
+        // Проверка
+        assertEquals(Route.PRIMARY, writerRead);
+        assertEquals(Route.REPLICA, otherRead);
+        assertEquals(1, registry.get(ReadWriteRoutingDataSource.ROUTE_METRIC)
+                .tag("reason", "read-your-writes").counter().count());
+    }
+
+    /**
+     * Тест на промах при чтении с реплики.
+     * Отсутствие строки на реплике не запоминается в кэше отсутствующих ID,
+     * а отметка чтения с реплики снимается по завершении транзакции.
+     */
+    @Test
+    void determineCurrentLookupKey_ReplicaRead_ShouldNotCacheMisses() {
+        // Подготовка
+        ReadWriteRoutingDataSource dataSource = routingDataSource(lagMonitor("select 0"));
+        NegativeLookupCache negativeLookupCache = new NegativeLookupCache(Duration.ofMinutes(1), 100);
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        try {
+            // Действие
+            Object read = dataSource.determineCurrentLookupKey();
+            negativeLookupCache.markMissing(EntityType.USER, 1L, negativeLookupCache.generation());
+
+            // Проверка
+            assertEquals(Route.REPLICA, read);
+            assertTrue(ReadWriteRoutingDataSource.isCurrentTransactionOnReplica());
+            assertFalse(negativeLookupCache.isKnownMissing(EntityType.USER, 1L));
+
+            // Действие
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+            // Проверка
+            assertFalse(ReadWriteRoutingDataSource.isCurrentTransactionOnReplica());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private ReadWriteRoutingDataSource routingDataSource(ReplicaLagMonitor lagMonitor) {
+        return new ReadWriteRoutingDataSource(h2DataSource("routing-primary"), replica, lagMonitor,
+                Duration.ofSeconds(10), registry);
+    }
+
+    private ReplicaLagMonitor lagMonitor(String lagQuery) {
+        ReplicaLagMonitor lagMonitor = new ReplicaLagMonitor(replica, lagQuery, Duration.ofSeconds(5),
+                Duration.ofSeconds(1), registry);
+        lagMonitor.check();
+        return lagMonitor;
+    }
+
+    private static void withUser(Long userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(ReadWriteRoutingDataSource.USER_ID_HEADER, userId);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private static DataSource h2DataSource(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тест маршрутизации запросов приложения между основной базой и репликой.
+ * Роль реплики играет второй пул к той же базе H2.
+ */
+@SpringBootTest(properties = {
+        "shareit.datasource.replica.url=jdbc:h2:mem:shareit;DB_CLOSE_DELAY=-1",
+        "shareit.datasource.replica.lag-query=select 0",
+        "shareit.datasource.replica.lag-check-interval=100ms"
+})
+@ActiveProfiles("test")
+class ReplicaDataSourceConfigTest {
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Тест на запись через основную базу и чтение через реплику.
+     */
+    @Test
+    void readOnlyTransaction_ShouldUseReplica() throws InterruptedException {
+        // Подготовка
+        for (int attempt = 0; attempt < 50 && !replicaLagMonitor.isReplicaUsable(); attempt++) {
+            Thread.sleep(100);
+        }
+        assertTrue(replicaLagMonitor.isReplicaUsable());
+        double replicaReadsBefore = replicaReads();
+
+        // Действие
+        User created = userService.createUser(new User(null, "Replica Reader", "replica-reader@example.com"));
+        User found = userService.getUserById(created.getId());
+
+        // Проверка
+        assertEquals(created.getEmail(), found.getEmail());
+        assertTrue(replicaReads() > replicaReadsBefore);
+    }
+
+    private double replicaReads() {
+        return meterRegistry.get(ReadWriteRoutingDataSource.ROUTE_METRIC)
+                .tag("target", "replica")
+                .counter()
+                .count();
+    }
+}
@@ -4,15 +4,19 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.bind.MissingRequestHeaderException;
 import ru.practicum.shareit.user.UserController;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.time.Duration;
+
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -60,6 +64,42 @@ class ErrorHandlerTest {
                 .andExpect(jsonPath("$.error", is("Некорректный формат данных")));
     }
 
+    /**
+     * Тест на обработку исключения ServiceUnavailableException.
+     * Проверяет, что возвращается статус 503 с заголовком Retry-After в целых секундах.
+     */
+    @Test
+    void handleServiceUnavailable_ShouldReturnServiceUnavailableWithRetryAfter() throws Exception {
+        // Подготовка
+        when(userService.getUserById(anyLong()))
+                .thenThrow(new ServiceUnavailableException("Сервис перегружен", Duration.ofMillis(1500)));
+
+        // Действие и проверка
+        mockMvc.perform(get("/users/1"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"))
+                .andExpect(jsonPath("$.error", is("Сервис перегружен")));
+    }
+
+    /**
+     * Тест на обработку исключения TooManyRequestsException.
+     * Проверяет, что возвращается статус 429 с заголовками паузы повтора и лимита.
+     */
+    @Test
+    void handleTooManyRequests_ShouldReturnTooManyRequestsWithHeaders() throws Exception {
+        // Подготовка
+        when(userService.getUserById(anyLong()))
+                .thenThrow(new TooManyRequestsException("Превышена частота", Duration.ofMillis(200), 20));
+
+        // Действие и проверка
+        mockMvc.perform(get("/users/1"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(header().string(ErrorHandler.RATE_LIMIT_HEADER, "20"))
+                .andExpect(header().string(ErrorHandler.RATE_LIMIT_REMAINING_HEADER, "0"))
+                .andExpect(jsonPath("$.error", is("Превышена частота")));
+    }
+
     /**
      * Тест на обработку исключения ConflictException.
      * Проверяет, что возвращается статус 409 и сообщение об ошибке.
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.exception;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тесты для {@link ShareItException}
+ */
+class ShareItExceptionTest {
+
+    @AfterEach
+    void tearDown() {
+        StackTraceSettings.setEnabled(false);
+    }
+
+    /**
+     * Тест на создание исключений без стека вызовов.
+     * Проверяет, что по умолчанию стек не заполняется, а сообщение сохраняется.
+     */
+    @Test
+    void create_ByDefault_ShouldNotFillStackTrace() {
+        // Действие
+        NotFoundException notFound = new NotFoundException("Вещь с ID 1 не найдена");
+        ValidationException validation = new ValidationException("Email не может быть пустым");
+        ConflictException conflict = new ConflictException("Пользователь уже существует");
+
+        // Проверка
+        assertEquals(0, notFound.getStackTrace().length);
+        assertEquals(0, validation.getStackTrace().length);
+        assertEquals(0, conflict.getStackTrace().length);
+        assertEquals("Вещь с ID 1 не найдена", notFound.getMessage());
+    }
+
+    /**
+     * Тест на включение стека вызовов настройкой.
+     */
+    @Test
+    void create_WithStackTracesEnabled_ShouldFillStackTrace() {
+        // Подготовка
+        StackTraceSettings.setEnabled(true);
+
+        // Действие
+        NotFoundException exception = new NotFoundException("Вещь с ID 1 не найдена");
+
+        // Проверка
+        assertTrue(exception.getStackTrace().length > 0);
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.exception.NotFoundException;
@@ -20,6 +21,8 @@ import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.eq;
 
@@ -28,8 +31,14 @@ import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -199,6 +208,43 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.ownerId", is(1)));
     }
 
+    /**
+     * Тест на условное получение неизмененной вещи.
+     * Проверяет, что при совпадении ETag возвращается 304 без загрузки вещи, бронирований и комментариев.
+     */
+    @Test
+    void getItemById_WithMatchingETag_ShouldReturnNotModified() throws Exception {
+        // Подготовка
+        when(itemService.getItemVersionTag(1L, 2L)).thenReturn(Optional.of("1-2-7-0"));
+
+        // Действие и проверка
+        mockMvc.perform(get("/items/1")
+                        .header(USER_ID_HEADER, 2L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"1-2-7-0\""))
+                .andExpect(status().isNotModified());
+        verify(itemService, never()).getItemWithBookingsAndComments(anyLong(), anyLong());
+    }
+
+    /**
+     * Тест на безусловное получение вещи.
+     * Проверяет, что ETag берется из загруженной вещи без отдельного запроса метки версии.
+     */
+    @Test
+    void getItemById_WithoutIfNoneMatch_ShouldUseLoadedVersionTag() throws Exception {
+        // Подготовка
+        ItemDto itemDto = new ItemDto(1L, "Дрель", "Электрическая дрель", true, 1L, null);
+        itemDto.setVersionTag("1-2-7-0");
+        when(itemService.getItemWithBookingsAndComments(1L, 2L)).thenReturn(itemDto);
+
+        // Действие и проверка
+        mockMvc.perform(get("/items/1")
+                        .header(USER_ID_HEADER, 2L))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-2-7-0\""))
+                .andExpect(jsonPath("$.versionTag").doesNotExist());
+        verify(itemService, never()).getItemVersionTag(anyLong(), anyLong());
+    }
+
     /**
      * Тест на получение несуществующей вещи.
      * Проверяет, что эндпоинт возвращает статус 404 и сообщение об ошибке.
@@ -296,6 +342,50 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$", hasSize(0)));
     }
 
+    /**
+     * Тест на потоковый поиск вещей.
+     * Проверяет, что при запросе NDJSON каждая вещь записывается отдельной строкой.
+     */
+    @Test
+    void streamSearchItems_ShouldWriteOneJsonObjectPerLine() throws Exception {
+        // Подготовка
+        Item item2 = new Item(2L, "Дрель ударная", "Мощная дрель", true, owner, null);
+        doAnswer(invocation -> {
+            Consumer<Item> action = invocation.getArgument(1);
+            action.accept(item);
+            action.accept(item2);
+            return null;
+        }).when(itemService).forEachSearchResult(eq("дрель"), any());
+
+        // Действие
+        String body = mockMvc.perform(get("/items/search")
+                        .param("text", "дрель")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        // Проверка
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Дрель", objectMapper.readValue(lines[0], ItemDto.class).getName());
+        assertEquals(2L, objectMapper.readValue(lines[1], ItemDto.class).getId());
+    }
+
+    /**
+     * Тест на потоковое получение вещей пользователя без результатов.
+     * Проверяет, что возвращается пустое тело.
+     */
+    @Test
+    void streamUserItems_WithoutItems_ShouldReturnEmptyBody() throws Exception {
+        // Действие и проверка
+        mockMvc.perform(get("/items")
+                        .header(USER_ID_HEADER, owner.getId())
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(content().string(""));
+    }
+
     /**
      * Тест на создание комментария с корректными данными.
      * Проверяет, что эндпоинт возвращает статус 200 и созданный комментарий.
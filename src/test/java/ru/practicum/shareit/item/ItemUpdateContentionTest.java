@@ -0,0 +1,95 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тест корректности параллельных PATCH одной вещи.
+ * Половина потоков меняет название, половина описание. Проверяет, что каждое успешное обновление
+ * получило свою версию (ни одно не перезаписано молча), а остальные запросы получили ответ 409.
+ * Пропускная способность с повторами и без них измеряется в {@code ItemUpdateContentionBenchmark}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ItemUpdateContentionTest {
+    private static final int THREADS = 8;
+    private static final int PATCHES_PER_THREAD = 25;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    void concurrentPatches_ShouldNotLoseUpdates() throws Exception {
+        // Подготовка
+        User owner = userService.createUser(new User(null, "Contention Owner", "contention@example.com"));
+        Item item = itemService.createItem(owner.getId(),
+                new Item(null, "Item", "Description", true, null, null));
+        long initialVersion = itemRepository.findById(item.getId()).orElseThrow().getVersion();
+        AtomicInteger applied = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Действие
+        for (int thread = 0; thread < THREADS; thread++) {
+            boolean patchName = thread % 2 == 0;
+            int threadId = thread;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < PATCHES_PER_THREAD; i++) {
+                    String value = "t" + threadId + "-" + i;
+                    Item patch = patchName
+                            ? new Item(null, value, null, null, null, null)
+                            : new Item(null, null, value, null, null, null);
+                    try {
+                        itemService.updateItem(owner.getId(), item.getId(), patch);
+                        applied.incrementAndGet();
+                    } catch (ConflictException e) {
+                        conflicts.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Проверка
+        int total = THREADS * PATCHES_PER_THREAD;
+        Item result = itemRepository.findById(item.getId()).orElseThrow();
+        assertEquals(total, applied.get() + conflicts.get());
+        assertEquals(initialVersion + applied.get(), result.getVersion());
+        assertTrue(result.getName().startsWith("t"));
+        assertTrue(result.getDescription().startsWith("t"));
+    }
+}
@@ -1,14 +1,20 @@
 package ru.practicum.shareit.item.service;
 
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.Booking.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.cache.NegativeLookupCache;
+import ru.practicum.shareit.cache.PastBookingResponseCache;
+import ru.practicum.shareit.concurrent.OptimisticLockRetry;
+import ru.practicum.shareit.concurrent.ParallelReads;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
@@ -20,12 +26,18 @@ import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 /**
@@ -46,6 +58,21 @@ class ItemServiceImplTest {
     @Mock
     private CommentRepository commentRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private NegativeLookupCache negativeLookupCache = new NegativeLookupCache(Duration.ofMinutes(1), 100);
+
+    @Mock
+    private PastBookingResponseCache pastBookingResponseCache;
+
+    @Spy
+    private ParallelReads parallelReads = ParallelReads.sequential();
+
+    @Spy
+    private OptimisticLockRetry optimisticLockRetry = OptimisticLockRetry.withoutTransaction(3);
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -181,7 +208,7 @@ class ItemServiceImplTest {
         when(itemRepository.findById(existingItem.getId())).thenReturn(java.util.Optional.of(existingItem));
 
         // Мокируем сохранение обновленной вещи
-        when(itemRepository.save(any(Item.class))).thenReturn(updatedItem);
+        when(itemRepository.saveAndFlush(any(Item.class))).thenReturn(updatedItem);
 
         // Действие
         Item result = itemService.updateItem(owner.getId(), existingItem.getId(), updatedItemData);
@@ -192,6 +219,7 @@ class ItemServiceImplTest {
         assertEquals("Мощный перфоратор", result.getDescription());
         assertFalse(result.getAvailable());
         assertEquals(owner, result.getOwner());
+        verify(pastBookingResponseCache).evictItem(existingItem.getId());
     }
 
     /**
@@ -212,7 +240,7 @@ class ItemServiceImplTest {
         when(itemRepository.findById(existingItem.getId())).thenReturn(java.util.Optional.of(existingItem));
 
         // Мокируем сохранение для всех случаев
-        when(itemRepository.save(any(Item.class))).thenReturn(afterNameUpdate, afterDescriptionUpdate, afterAvailableUpdate);
+        when(itemRepository.saveAndFlush(any(Item.class))).thenReturn(afterNameUpdate, afterDescriptionUpdate, afterAvailableUpdate);
 
         // Обновляем только название
         Item nameUpdate = new Item(null, "Перфоратор", null, null, null, null);
@@ -418,6 +446,7 @@ class ItemServiceImplTest {
     void searchItems_WithEmptyText_ShouldReturnEmptyList() {
         // Подготовка
         when(userService.getUserById(anyLong())).thenReturn(owner);
+        when(itemRepository.save(any(Item.class))).thenReturn(this.item);
 
         Item item = new Item(null, "Дрель", "Электрическая дрель", true, owner, null);
         itemService.createItem(owner.getId(), item);
@@ -429,6 +458,43 @@ class ItemServiceImplTest {
         assertTrue(searchResults.isEmpty());
     }
 
+    /**
+     * Тест на потоковый поиск вещей.
+     * Проверяет, что каждая найденная вещь передается обработчику,
+     * а контекст персистентности очищается после каждой порции вещей.
+     */
+    @Test
+    void forEachSearchResult_ShouldPassEachItemAndClearContextPeriodically() {
+        // Подготовка
+        List<Item> items = Collections.nCopies(150, item);
+        when(itemRepository.streamSearch("дрель")).thenReturn(items.stream());
+        List<Item> received = new ArrayList<>();
+
+        // Действие
+        itemService.forEachSearchResult("дрель", received::add);
+
+        // Проверка
+        assertEquals(items, received);
+        verify(entityManager, times(1)).clear();
+    }
+
+    /**
+     * Тест на потоковый поиск вещей с пустым текстом.
+     * Проверяет, что запрос к репозиторию не выполняется.
+     */
+    @Test
+    void forEachSearchResult_WithBlankText_ShouldNotQueryRepository() {
+        // Подготовка
+        List<Item> received = new ArrayList<>();
+
+        // Действие
+        itemService.forEachSearchResult("  ", received::add);
+
+        // Проверка
+        assertTrue(received.isEmpty());
+        verifyNoInteractions(itemRepository);
+    }
+
     /**
      * Тест на создание комментария с корректными данными.
      * Проверяет, что комментарий успешно создается и возвращается DTO.
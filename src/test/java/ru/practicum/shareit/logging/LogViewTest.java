@@ -0,0 +1,64 @@
+package ru.practicum.shareit.logging;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.Booking.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тесты для {@link LogView}
+ */
+class LogViewTest {
+
+    /**
+     * Тест на описание бронирования через ID связанных сущностей.
+     */
+    @Test
+    void of_Booking_ShouldDescribeIdsAndKeyFields() {
+        // Подготовка
+        User owner = new User(1L, "Owner", "owner@example.com");
+        User booker = new User(2L, "Booker", "booker@example.com");
+        Item item = new Item(3L, "Дрель", "Мощная дрель", true, owner, null);
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 12, 0);
+        Booking booking = new Booking(4L, start, start.plusDays(1), item, booker, BookingStatus.WAITING);
+
+        // Действие
+        String description = LogView.of(booking).toString();
+
+        // Проверка
+        assertEquals("Booking{id=4, itemId=3, bookerId=2, status=WAITING, "
+                + "start=2025-01-01T12:00, end=2025-01-02T12:00}", description);
+    }
+
+    /**
+     * Тест на ленивое построение описания.
+     * Пока описание не понадобилось логгеру, сущность не читается, а при построении
+     * у связанного владельца читается только ID.
+     */
+    @Test
+    void of_Item_ShouldReadEntityOnlyWhenDescribed() {
+        // Подготовка
+        User owner = mock(User.class);
+        when(owner.getId()).thenReturn(7L);
+        Item item = new Item(5L, "Дрель", "Мощная дрель", false, owner, null);
+
+        // Действие
+        Object view = LogView.of(item);
+
+        // Проверка
+        verifyNoInteractions(owner);
+        assertEquals("Item{id=5, ownerId=7, available=false}", view.toString());
+        verify(owner).getId();
+        verifyNoMoreInteractions(owner);
+    }
+}
@@ -0,0 +1,109 @@
+package ru.practicum.shareit.monitoring;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тест событий JFR сервисов: небольшая нагрузка выполняется под записью JFR,
+ * после чего события читаются из файла записи.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class JfrEventsTest {
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    /**
+     * Тест на запись событий создания, подтверждения и выборки бронирований, поиска вещей и получения пользователей.
+     */
+    @Test
+    void serviceOperations_ShouldEmitJfrEvents(@TempDir Path directory) throws Exception {
+        // Подготовка
+        User owner = userService.createUser(new User(null, "Jfr Owner", "jfr-owner@example.com"));
+        User booker = userService.createUser(new User(null, "Jfr Booker", "jfr-booker@example.com"));
+        Item item = itemService.createItem(owner.getId(),
+                new Item(null, "Перфоратор jfr", "Перфоратор для записи JFR", true, null, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Path file = directory.resolve("workload.jfr");
+
+        // Действие
+        try (Recording recording = new Recording()) {
+            recording.enable(BookingCreateEvent.class);
+            recording.enable(BookingApproveEvent.class);
+            recording.enable(BookingListEvent.class);
+            recording.enable(ItemSearchEvent.class);
+            recording.enable(UserLookupEvent.class);
+            recording.start();
+
+            Booking booking = bookingService.createBooking(booker.getId(),
+                    new Booking(null, start, start.plusDays(1), new Item(item.getId(), null, null, null, null, null),
+                            null, null));
+            bookingService.approveBooking(owner.getId(), booking.getId(), true);
+            bookingService.getUserBookings(booker.getId(), "ALL");
+            bookingService.getOwnerBookings(owner.getId(), "FUTURE");
+            itemService.searchItems("jfr");
+            assertThrows(NotFoundException.class, () -> userService.getUserById(Long.MAX_VALUE));
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        // Проверка
+        Map<String, List<RecordedEvent>> events = RecordingFile.readAllEvents(file).stream()
+                .collect(Collectors.groupingBy(event -> event.getEventType().getName()));
+
+        RecordedEvent created = events.get("ru.practicum.shareit.BookingCreate").get(0);
+        assertEquals(booker.getId().longValue(), created.getLong("userId"));
+        assertEquals(item.getId().longValue(), created.getLong("itemId"));
+
+        RecordedEvent approved = events.get("ru.practicum.shareit.BookingApprove").get(0);
+        assertEquals(owner.getId().longValue(), approved.getLong("userId"));
+        assertTrue(approved.getBoolean("approved"));
+
+        List<RecordedEvent> lists = events.get("ru.practicum.shareit.BookingList");
+        assertEquals(2, lists.size());
+        assertTrue(lists.stream().anyMatch(event -> MetricRole.BOOKER.equals(event.getString("role"))
+                && "ALL".equals(event.getString("state")) && event.getLong("rows") == 1));
+        assertTrue(lists.stream().anyMatch(event -> MetricRole.OWNER.equals(event.getString("role"))
+                && "FUTURE".equals(event.getString("state")) && event.getLong("rows") == 1));
+
+        RecordedEvent search = events.get("ru.practicum.shareit.ItemSearch").get(0);
+        assertEquals(3, search.getInt("termLength"));
+        assertEquals(1, search.getLong("hits"));
+
+        List<RecordedEvent> lookups = events.get("ru.practicum.shareit.UserLookup");
+        assertTrue(lookups.stream().anyMatch(event -> event.getLong("userId") == booker.getId()
+                && event.getBoolean("found")));
+        assertTrue(lookups.stream().anyMatch(event -> event.getLong("userId") == Long.MAX_VALUE
+                && !event.getBoolean("found")));
+    }
+}
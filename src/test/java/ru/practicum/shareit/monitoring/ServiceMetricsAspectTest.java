@@ -0,0 +1,108 @@
+package ru.practicum.shareit.monitoring;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тесты для {@link ServiceMetricsAspect}
+ */
+class ServiceMetricsAspectTest {
+    private SimpleMeterRegistry registry;
+    private BookingService bookingService;
+    private BookingService proxy;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        bookingService = mock(BookingService.class);
+        AspectJProxyFactory factory = new AspectJProxyFactory(bookingService);
+        factory.addAspect(new ServiceMetricsAspect(registry));
+        proxy = factory.getProxy();
+    }
+
+    /**
+     * Тест на запись таймера с тегами состояния и роли.
+     * Проверяет, что теги доступны запросам к репозиториям во время вызова и сбрасываются после него.
+     */
+    @Test
+    void measure_ShouldTagTimerWithStateAndRole() {
+        // Подготовка
+        AtomicReference<Tags> tagsInsideCall = new AtomicReference<>();
+        when(bookingService.getOwnerBookings(anyLong(), anyString())).thenAnswer(invocation -> {
+            tagsInsideCall.set(ServiceMetricsAspect.currentTags());
+            return List.of();
+        });
+
+        // Действие
+        proxy.getOwnerBookings(1L, "past");
+
+        // Проверка
+        Timer timer = registry.find(ServiceMetricsAspect.TIMER_NAME)
+                .tags("method", "getOwnerBookings", "exception", "none",
+                        ServiceMetricsAspect.STATE_TAG, "PAST", ServiceMetricsAspect.ROLE_TAG, MetricRole.OWNER)
+                .timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+        assertEquals(Tags.of(ServiceMetricsAspect.STATE_TAG, "PAST", ServiceMetricsAspect.ROLE_TAG, MetricRole.OWNER),
+                tagsInsideCall.get());
+        assertEquals(Tags.of(ServiceMetricsAspect.STATE_TAG, "none", ServiceMetricsAspect.ROLE_TAG, "none"),
+                ServiceMetricsAspect.currentTags());
+    }
+
+    /**
+     * Тест на вызов с неизвестным состоянием, завершившийся исключением.
+     * Проверяет, что состояние сводится к UNKNOWN, а в тег попадает класс исключения.
+     */
+    @Test
+    void measure_WhenCallFails_ShouldTagExceptionAndUnknownState() {
+        // Подготовка
+        when(bookingService.getUserBookings(anyLong(), anyString()))
+                .thenThrow(new ValidationException("Неизвестное состояние: whatever"));
+
+        // Действие
+        assertThrows(ValidationException.class, () -> proxy.getUserBookings(1L, "whatever"));
+
+        // Проверка
+        Timer timer = registry.find(ServiceMetricsAspect.TIMER_NAME)
+                .tags("method", "getUserBookings", "exception", "ValidationException",
+                        ServiceMetricsAspect.STATE_TAG, ServiceMetricsAspect.UNKNOWN,
+                        ServiceMetricsAspect.ROLE_TAG, MetricRole.BOOKER)
+                .timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+    }
+
+    /**
+     * Тест на метод без состояния и роли.
+     * Проверяет, что теги присутствуют со значением none, чтобы набор тегов метрики был одинаковым.
+     */
+    @Test
+    void measure_WithoutStateAndRole_ShouldTagNone() {
+        // Действие
+        proxy.getBookingById(1L, 2L);
+
+        // Проверка
+        Timer timer = registry.find(ServiceMetricsAspect.TIMER_NAME)
+                .tags("method", "getBookingById", ServiceMetricsAspect.STATE_TAG, "none",
+                        ServiceMetricsAspect.ROLE_TAG, "none")
+                .timer();
+        assertNotNull(timer);
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тесты для {@link SqlExecutionMonitor}
+ */
+class SqlExecutionMonitorTest {
+    private SimpleMeterRegistry registry;
+    private SqlExecutionMonitor monitor;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        ObjectProvider<MeterRegistry> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(registry);
+        monitor = new SqlExecutionMonitor(provider, Duration.ofSeconds(1), 0);
+    }
+
+    /**
+     * Тест на оборачивание источника данных прокси.
+     * Остальные бины должны возвращаться без изменений, а уже обернутый и делегирующий источники -
+     * не оборачиваться повторно.
+     */
+    @Test
+    void postProcessAfterInitialization_ShouldWrapOnlyDataSource() {
+        // Подготовка
+        DataSource dataSource = h2DataSource();
+        Object other = new Object();
+        DataSource delegating = new LazyConnectionDataSourceProxy(dataSource);
+
+        // Действие
+        Object wrapped = monitor.postProcessAfterInitialization(dataSource, "dataSource");
+
+        // Проверка
+        assertInstanceOf(DataSource.class, wrapped);
+        assertNotSame(dataSource, wrapped);
+        assertSame(wrapped, monitor.postProcessAfterInitialization(wrapped, "dataSource"));
+        assertSame(delegating, monitor.postProcessAfterInitialization(delegating, "routingDataSource"));
+        assertSame(other, monitor.postProcessAfterInitialization(other, "other"));
+    }
+
+    /**
+     * Тест на запись времени запросов в таймер по форме запроса.
+     * Запросы с разной длиной списка {@code in (...)} должны попадать в один таймер.
+     */
+    @Test
+    void afterQuery_ShouldRecordTimerByStatementShape() {
+        // Подготовка
+        DataSource dataSource = (DataSource) monitor.postProcessAfterInitialization(h2DataSource(), "dataSource");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        // Действие
+        jdbcTemplate.queryForList("select x from system_range(1, 10) where x in (?, ?)", Long.class, 1, 2);
+        jdbcTemplate.queryForList("select x from system_range(1, 10) where x in (?, ?, ?)", Long.class, 1, 2, 3);
+
+        // Проверка
+        Timer timer = registry.find(SqlExecutionMonitor.TIMER_NAME)
+                .tag(SqlExecutionMonitor.STATEMENT_TAG, "select x from system_range(1, 10) where x in (?...)")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(2, timer.count());
+    }
+
+    private static DataSource h2DataSource() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:sql-execution-monitor");
+        return dataSource;
+    }
+}
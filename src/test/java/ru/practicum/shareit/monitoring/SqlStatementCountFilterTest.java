@@ -0,0 +1,131 @@
+package ru.practicum.shareit.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Тесты для {@link SqlStatementCountFilter} и {@link SqlStatementCounter}
+ */
+class SqlStatementCountFilterTest {
+    private final SqlStatementCounter counter = new SqlStatementCounter();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    /**
+     * Тест на подсчет запросов HTTP-запроса.
+     * Проверяет заголовок ответа, метрику с шаблоном URI и то, что после запроса подсчет закрыт.
+     */
+    @Test
+    void doFilter_ShouldCountStatementsOfRequest() throws Exception {
+        // Подготовка
+        SqlStatementCountFilter filter = filter(true);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bookings/owner");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/bookings/owner");
+                counter.inspect("select * from users where id=?");
+                counter.inspect("select * from bookings b where b.item_id in (?, ?, ?)");
+                counter.inspect("select * from bookings b where b.item_id in (?,?)");
+            }
+        });
+
+        // Действие
+        filter.doFilter(request, response, chain);
+        counter.inspect("select 1");
+
+        // Проверка
+        assertEquals("3", response.getHeader(SqlStatementCountFilter.HEADER));
+        DistributionSummary summary = registry.find(SqlStatementCountFilter.METRIC_NAME)
+                .tags("method", "GET", "uri", "/bookings/owner")
+                .summary();
+        assertNotNull(summary);
+        assertEquals(1, summary.count());
+        assertEquals(3, summary.totalAmount());
+    }
+
+    /**
+     * Тест на отключенный заголовок ответа.
+     * Проверяет, что метрика пишется, а заголовок нет.
+     */
+    @Test
+    void doFilter_WhenHeaderDisabled_ShouldOnlyRecordMetric() throws Exception {
+        // Подготовка
+        SqlStatementCountFilter filter = filter(false);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Действие
+        filter.doFilter(new MockHttpServletRequest("GET", "/users"), response, new MockFilterChain());
+
+        // Проверка
+        assertNull(response.getHeader(SqlStatementCountFilter.HEADER));
+        assertNotNull(registry.find(SqlStatementCountFilter.METRIC_NAME).tags("uri", "UNKNOWN").summary());
+    }
+
+    /**
+     * Тест на группировку запросов по форме.
+     * Проверяет, что списки параметров разной длины и переводы строк дают одну форму.
+     */
+    @Test
+    void statements_ShouldGroupByShape() {
+        // Подготовка
+        SqlStatementCounter.Statements statements = SqlStatementCounter.start();
+
+        // Действие
+        try {
+            counter.inspect("select c.id\nfrom comments c where c.item_id in (?, ?)");
+            counter.inspect("select c.id from comments c where c.item_id in (?,?,?,?)");
+            counter.inspect("select u.id from users u where u.id=?");
+        } finally {
+            SqlStatementCounter.stop();
+        }
+
+        // Проверка
+        assertEquals(3, statements.getTotal());
+        assertEquals(Map.of("select c.id from comments c where c.item_id in (?...)", 2), statements.getRepeated(1));
+    }
+
+    /**
+     * Тест на учет запросов, выполненных в другом потоке.
+     */
+    @Test
+    void propagate_ShouldCountStatementsFromOtherThread() throws Exception {
+        // Подготовка
+        SqlStatementCounter.Statements statements = SqlStatementCounter.start();
+        Supplier<String> task;
+        try {
+            task = SqlStatementCounter.propagate(() -> counter.inspect("select 1"));
+        } finally {
+            SqlStatementCounter.stop();
+        }
+
+        // Действие
+        Thread thread = Thread.ofVirtual().start(task::get);
+        thread.join();
+
+        // Проверка
+        assertEquals(1, statements.getTotal());
+    }
+
+    private SqlStatementCountFilter filter(boolean responseHeader) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("registry", registry));
+        return new SqlStatementCountFilter(responseHeader, 10, beanFactory.getBeanProvider(MeterRegistry.class));
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тесты для {@link VirtualThreadPinningMonitor}
+ */
+class VirtualThreadPinningMonitorTest {
+
+    /**
+     * Тест на обнаружение закрепления.
+     * Проверяет, что блокировка виртуального потока внутри synchronized фиксируется монитором.
+     */
+    @Test
+    void onPinned_WhenVirtualThreadSleepsInsideSynchronized_ShouldCountPinning() throws Exception {
+        // Подготовка
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(Duration.ofMillis(1));
+        monitor.start();
+        Object lock = new Object();
+
+        try {
+            // Действие
+            Thread.ofVirtual().start(() -> {
+                synchronized (lock) {
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }).join();
+
+            // Проверка
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (monitor.getPinnedCount() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(100);
+            }
+            assertTrue(monitor.getPinnedCount() > 0);
+        } finally {
+            monitor.stop();
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.exception.ConflictException;
@@ -16,14 +17,18 @@ import ru.practicum.shareit.user.service.UserService;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -166,6 +171,59 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.email", is("ivan@example.com")));
     }
 
+    /**
+     * Тест на условное получение неизмененного пользователя.
+     * Проверяет, что при совпадении ETag возвращается 304 без загрузки пользователя.
+     */
+    @Test
+    void getUserById_WithMatchingETag_ShouldReturnNotModified() throws Exception {
+        // Подготовка
+        when(userService.getUserVersionTag(1L)).thenReturn(Optional.of("3"));
+
+        // Действие и проверка
+        mockMvc.perform(get("/users/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+        verify(userService, never()).getUserById(anyLong());
+    }
+
+    /**
+     * Тест на условное получение измененного пользователя.
+     * Проверяет, что при несовпадении ETag возвращается пользователь с новым ETag.
+     */
+    @Test
+    void getUserById_WithStaleETag_ShouldReturnUserWithETag() throws Exception {
+        // Подготовка
+        when(userService.getUserVersionTag(1L)).thenReturn(Optional.of("4"));
+        when(userService.getUserById(1L)).thenReturn(new User(1L, "Иван Иванов", "ivan@example.com"));
+
+        // Действие и проверка
+        mockMvc.perform(get("/users/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(jsonPath("$.id", is(1)));
+    }
+
+    /**
+     * Тест на безусловное получение пользователя.
+     * Проверяет, что ETag вычисляется по загруженному пользователю без отдельного запроса метки версии.
+     */
+    @Test
+    void getUserById_WithoutIfNoneMatch_ShouldComputeETagFromUser() throws Exception {
+        // Подготовка
+        User user = new User(1L, "Иван Иванов", "ivan@example.com");
+        user.setVersion(5);
+        when(userService.getUserById(1L)).thenReturn(user);
+
+        // Действие и проверка
+        mockMvc.perform(get("/users/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"5\""));
+        verify(userService, never()).getUserVersionTag(anyLong());
+    }
+
     /**
      * Тест на получение несуществующего пользователя.
      * Проверяет, что эндпоинт возвращает статус 404 и сообщение об ошибке.
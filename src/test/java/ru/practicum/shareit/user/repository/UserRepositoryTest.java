@@ -8,6 +8,7 @@ import ru.practicum.shareit.user.User;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Интеграционные тесты для {@link UserRepository}
@@ -39,4 +40,23 @@ public class UserRepositoryTest {
         assertEquals("Тестовый Пользователь", foundUser.getName());
         assertEquals("test@example.com", foundUser.getEmail());
     }
-}
\ No newline at end of file
+
+    /**
+     * Тест на получение версии пользователя.
+     * Проверяет, что версия увеличивается при изменении пользователя.
+     */
+    @Test
+    void findVersionById_ShouldIncreaseAfterUpdate() {
+        // Подготовка
+        User user = userRepository.saveAndFlush(new User(null, "Тестовый Пользователь", "test@example.com"));
+        long initialVersion = userRepository.findVersionById(user.getId()).orElseThrow();
+
+        // Действие
+        user.setName("Новое Имя");
+        userRepository.flush();
+
+        // Проверка
+        assertEquals(initialVersion + 1, userRepository.findVersionById(user.getId()).orElseThrow());
+        assertTrue(userRepository.findVersionById(user.getId() + 1).isEmpty());
+    }
+}
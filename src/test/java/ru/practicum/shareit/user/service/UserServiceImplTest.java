@@ -4,20 +4,28 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.cache.NegativeLookupCache;
+import ru.practicum.shareit.cache.PastBookingResponseCache;
+import ru.practicum.shareit.concurrent.OptimisticLockRetry;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -29,6 +37,15 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Spy
+    private NegativeLookupCache negativeLookupCache = new NegativeLookupCache(Duration.ofMinutes(1), 100);
+
+    @Mock
+    private PastBookingResponseCache pastBookingResponseCache;
+
+    @Spy
+    private OptimisticLockRetry optimisticLockRetry = OptimisticLockRetry.withoutTransaction(3);
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -130,7 +147,7 @@ class UserServiceImplTest {
         when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
 
         // Мокируем сохранение обновленного пользователя
-        when(userRepository.save(any(User.class))).thenReturn(updatedUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(updatedUser);
 
         // Действие
         User result = userService.updateUser(userId, updatedUserData);
@@ -139,6 +156,7 @@ class UserServiceImplTest {
         assertEquals(userId, result.getId());
         assertEquals("Иван Сидоров", result.getName());
         assertEquals("ivan.sidorov@example.com", result.getEmail());
+        verify(pastBookingResponseCache).evictUser(userId);
     }
 
     /**
@@ -157,7 +175,7 @@ class UserServiceImplTest {
         when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
 
         // Мокируем сохранение после обновления имени
-        when(userRepository.save(any(User.class))).thenReturn(afterNameUpdate, afterEmailUpdate);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(afterNameUpdate, afterEmailUpdate);
 
         // Обновляем только имя
         User nameUpdate = new User(null, "Иван Сидоров", null);
@@ -239,7 +257,7 @@ class UserServiceImplTest {
         when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
 
         // Мокируем выброс исключения при попытке сохранить пользователя с дублирующимся email
-        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("Duplicate email"));
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(new DataIntegrityViolationException("Duplicate email"));
 
         // Действие и проверка
         ConflictException exception = assertThrows(
@@ -289,6 +307,61 @@ class UserServiceImplTest {
         assertTrue(exception.getMessage().contains("не найден"));
     }
 
+    /**
+     * Тест на повторное получение несуществующего пользователя.
+     * Проверяет, что повторный запрос отклоняется без обращения к репозиторию.
+     */
+    @Test
+    void getUserById_WithKnownMissingId_ShouldNotQueryRepositoryAgain() {
+        // Действие
+        assertThrows(NotFoundException.class, () -> userService.getUserById(999L));
+        NotFoundException exception = assertThrows(
+                NotFoundException.class,
+                () -> userService.getUserById(999L)
+        );
+
+        // Проверка
+        assertTrue(exception.getMessage().contains("не найден"));
+        verify(userRepository, times(1)).findById(999L);
+    }
+
+    /**
+     * Тест на получение метки версии несуществующего пользователя.
+     * Проверяет, что для известного отсутствующего ID метка не запрашивается из репозитория.
+     */
+    @Test
+    void getUserVersionTag_WithKnownMissingId_ShouldNotQueryRepository() {
+        // Подготовка
+        negativeLookupCache.markMissing(NegativeLookupCache.EntityType.USER, 999L, negativeLookupCache.generation());
+
+        // Действие
+        Optional<String> versionTag = userService.getUserVersionTag(999L);
+
+        // Проверка
+        assertTrue(versionTag.isEmpty());
+        verify(userRepository, never()).findVersionById(999L);
+    }
+
+    /**
+     * Тест на получение пользователя, созданного после неудачного поиска.
+     * Проверяет, что создание пользователя удаляет его ID из кэша отсутствующих.
+     */
+    @Test
+    void getUserById_AfterCreation_ShouldFindUser() {
+        // Подготовка
+        User savedUser = new User(5L, "Иван Иванов", "ivan@example.com");
+        assertThrows(NotFoundException.class, () -> userService.getUserById(5L));
+        when(userRepository.save(any(User.class))).thenReturn(savedUser);
+        when(userRepository.findById(5L)).thenReturn(Optional.of(savedUser));
+
+        // Действие
+        userService.createUser(new User(null, "Иван Иванов", "ivan@example.com"));
+        User retrievedUser = userService.getUserById(5L);
+
+        // Проверка
+        assertEquals(5L, retrievedUser.getId());
+    }
+
     /**
      * Тест на получение всех пользователей.
      * Проверяет, что возвращается список всех созданных пользователей.
@@ -328,16 +401,14 @@ class UserServiceImplTest {
         // Действие
         userService.deleteUser(userId);
 
-        // Мокируем поиск пользователя по ID после удаления
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
-
-        // Проверка
+        // Проверка: удаленный пользователь не находится, повторного запроса к репозиторию нет
         NotFoundException exception = assertThrows(
                 NotFoundException.class,
                 () -> userService.getUserById(userId)
         );
 
         assertTrue(exception.getMessage().contains("не найден"));
+        verify(userRepository, times(1)).findById(userId);
     }
 
     /**
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.zalando.logbook.Correlation;
+import org.zalando.logbook.Precorrelation;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Тесты для {@link AsyncHttpLogWriter}
+ */
+class AsyncHttpLogWriterTest {
+    private SimpleMeterRegistry registry;
+    private List<String> written;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        written = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Тест на запись сообщений в фоновом потоке.
+     */
+    @Test
+    void write_ShouldPassMessagesToBackgroundThread() throws Exception {
+        // Подготовка
+        CountDownLatch delivered = new CountDownLatch(2);
+        List<String> threads = new CopyOnWriteArrayList<>();
+        AsyncHttpLogWriter writer = new AsyncHttpLogWriter(10, registry, message -> {
+            threads.add(Thread.currentThread().getName());
+            written.add(message);
+            delivered.countDown();
+        });
+
+        // Действие
+        writer.write(mock(Precorrelation.class), "request");
+        writer.write(mock(Correlation.class), "response");
+
+        // Проверка
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("request", "response"), written);
+        assertEquals(List.of("http-log-writer", "http-log-writer"), threads);
+        writer.close();
+    }
+
+    /**
+     * Тест на отбрасывание сообщений при заполненном буфере.
+     * Поток запроса не должен ждать, пока фоновый поток освободит место.
+     */
+    @Test
+    void write_WhenBufferIsFull_ShouldDropMessageAndCountIt() throws Exception {
+        // Подготовка
+        CountDownLatch taken = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AsyncHttpLogWriter writer = new AsyncHttpLogWriter(1, registry, message -> {
+            taken.countDown();
+            awaitQuietly(release);
+            written.add(message);
+        });
+        writer.write(mock(Correlation.class), "first");
+        assertTrue(taken.await(5, TimeUnit.SECONDS));
+        writer.write(mock(Correlation.class), "second");
+
+        // Действие
+        writer.write(mock(Correlation.class), "third");
+
+        // Проверка
+        assertEquals(1.0, registry.get(AsyncHttpLogWriter.DROPPED_METRIC).counter().count());
+        assertEquals(1.0, registry.get(AsyncHttpLogWriter.QUEUE_METRIC).gauge().value());
+        release.countDown();
+        writer.close();
+        assertEquals(List.of("first", "second"), written);
+    }
+
+    /**
+     * Тест на запись оставшихся в буфере сообщений при остановке.
+     */
+    @Test
+    void close_ShouldFlushBufferedMessages() throws Exception {
+        // Подготовка
+        CountDownLatch taken = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AsyncHttpLogWriter writer = new AsyncHttpLogWriter(10, registry, message -> {
+            taken.countDown();
+            awaitQuietly(release);
+            written.add(message);
+        });
+        writer.write(mock(Correlation.class), "first");
+        assertTrue(taken.await(5, TimeUnit.SECONDS));
+        writer.write(mock(Correlation.class), "second");
+        writer.write(mock(Correlation.class), "third");
+        release.countDown();
+
+        // Действие
+        writer.close();
+
+        // Проверка
+        assertEquals(List.of("first", "second", "third"), written);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
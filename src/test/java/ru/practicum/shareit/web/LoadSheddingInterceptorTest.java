@@ -0,0 +1,107 @@
+package ru.practicum.shareit.web;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тесты для {@link LoadSheddingInterceptor}
+ */
+class LoadSheddingInterceptorTest {
+
+    /**
+     * Тест на приоритет создания бронирования над выборкой списка при заполненном лимите.
+     * Отклоненный запрос получает исключение с паузой повтора, завершенные запросы освобождают лимит.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void preHandle_LimitReached_ShouldRejectListButAdmitBookingCreation() throws Exception {
+        // Подготовка
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ObjectProvider<MeterRegistry> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(registry);
+        LoadSheddingInterceptor interceptor = new LoadSheddingInterceptor(true, 2, 2, 2, Duration.ofSeconds(1),
+                0.9, provider);
+        BookingController controller = mock(BookingController.class);
+        HandlerMethod list = new HandlerMethod(controller, "getUserBookings", Long.class, String.class);
+        HandlerMethod create = new HandlerMethod(controller, "createBooking", Long.class, BookingDto.class);
+        MockHttpServletRequest listRequest = new MockHttpServletRequest();
+        MockHttpServletRequest createRequest = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertTrue(interceptor.preHandle(listRequest, response, list));
+
+        // Действие
+        ServiceUnavailableException rejected = assertThrows(ServiceUnavailableException.class,
+                () -> interceptor.preHandle(new MockHttpServletRequest(), response, list));
+        boolean admitted = interceptor.preHandle(createRequest, response, create);
+        interceptor.afterCompletion(listRequest, response, list, null);
+        interceptor.afterCompletion(createRequest, response, create, null);
+
+        // Проверка
+        assertTrue(admitted);
+        assertEquals(Duration.ofSeconds(1), rejected.getRetryAfter());
+        assertEquals(1, registry.get(LoadSheddingInterceptor.REJECTED_METRIC).tag("priority", "low")
+                .counter().count());
+        assertEquals(0, registry.get(LoadSheddingInterceptor.IN_FLIGHT_METRIC).gauge().value());
+    }
+
+    /**
+     * Тест на быстрые ответы 4xx под нагрузкой.
+     * Проверяет, что они не увеличивают лимит, а такие же быстрые успешные ответы увеличивают.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void afterCompletion_FastClientErrors_ShouldNotIncreaseLimit() throws Exception {
+        // Подготовка
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ObjectProvider<MeterRegistry> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(registry);
+        LoadSheddingInterceptor interceptor = new LoadSheddingInterceptor(true, 2, 1, 10, Duration.ofSeconds(1),
+                0.9, provider);
+        HandlerMethod create = new HandlerMethod(mock(BookingController.class), "createBooking", Long.class,
+                BookingDto.class);
+        MockHttpServletResponse notFound = new MockHttpServletResponse();
+        notFound.setStatus(404);
+
+        // Действие
+        for (int i = 0; i < 10; i++) {
+            complete(interceptor, create, notFound);
+        }
+        double afterErrors = registry.get(LoadSheddingInterceptor.LIMIT_METRIC).gauge().value();
+        for (int i = 0; i < 10; i++) {
+            complete(interceptor, create, new MockHttpServletResponse());
+        }
+
+        // Проверка
+        assertEquals(2, afterErrors);
+        assertTrue(registry.get(LoadSheddingInterceptor.LIMIT_METRIC).gauge().value() > 2);
+    }
+
+    /**
+     * Выполняет два одновременных запроса, чтобы лимит был загружен полностью.
+     */
+    private static void complete(LoadSheddingInterceptor interceptor, HandlerMethod handler,
+                                 MockHttpServletResponse response) throws Exception {
+        MockHttpServletRequest first = new MockHttpServletRequest();
+        MockHttpServletRequest second = new MockHttpServletRequest();
+        assertTrue(interceptor.preHandle(first, response, handler));
+        assertTrue(interceptor.preHandle(second, response, handler));
+        interceptor.afterCompletion(first, response, handler, null);
+        interceptor.afterCompletion(second, response, handler, null);
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.web;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+import ru.practicum.shareit.item.ItemController;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тесты для {@link RateLimitInterceptor}
+ */
+class RateLimitInterceptorTest {
+
+    /**
+     * Тест на ограничение поиска, который не принимает заголовок пользователя.
+     * Поиск расходует корзину адреса клиента: после ее исчерпания подстановка нового ID не помогает,
+     * а другой адрес и эндпоинт с заголовком пользователя сохраняют свои корзины.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void preHandle_EndpointWithoutUserHeader_ShouldChargeRemoteAddress() throws Exception {
+        // Подготовка
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ObjectProvider<MeterRegistry> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(registry);
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(true, 2, 0.001, 2, 0.001, 2, 0.001, 100,
+                provider);
+        ItemController controller = mock(ItemController.class);
+        HandlerMethod search = new HandlerMethod(controller, "searchItems", String.class);
+        HandlerMethod userItems = new HandlerMethod(controller, "getUserItems", Long.class);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertTrue(interceptor.preHandle(request("10.0.0.1", null), response, search));
+        assertTrue(interceptor.preHandle(request("10.0.0.1", "1"), response, search));
+
+        // Действие
+        assertThrows(TooManyRequestsException.class,
+                () -> interceptor.preHandle(request("10.0.0.1", "2"), response, search));
+        boolean otherAddress = interceptor.preHandle(request("10.0.0.2", null), response, search);
+        boolean users = true;
+        for (String userId : new String[]{"1", "2", "3"}) {
+            users &= interceptor.preHandle(request("10.0.0.1", userId), response, userItems);
+        }
+
+        // Проверка
+        assertTrue(otherAddress);
+        assertTrue(users);
+        assertEquals(1, registry.get(RateLimitInterceptor.REJECTED_METRIC).tag("budget", "search")
+                .counter().count());
+    }
+
+    private static MockHttpServletRequest request(String remoteAddress, String userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddress);
+        if (userId != null) {
+            request.addHeader(RateLimitInterceptor.USER_ID_HEADER, userId);
+        }
+        return request;
+    }
+}